@@ -0,0 +1,43 @@
+package com.marcela.todo.benchmark;
+
+import com.marcela.todo.TodoApplication;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// sobe a aplicação com H2 em memória para os benchmarks
+final class BenchmarkApp {
+
+  private BenchmarkApp() {
+  }
+
+  // properties no formato "chave=valor"; sobrescrevem os padrões abaixo
+  static ConfigurableApplicationContext start(WebApplicationType webType, String... properties) {
+    // o fork do JMH não é um "main" normal; sem isso o devtools tenta reiniciar o contexto
+    System.setProperty("spring.devtools.restart.enabled", "false");
+
+    Map<String, String> all = new LinkedHashMap<>();
+    all.put("spring.datasource.url", "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+    all.put("spring.datasource.driver-class-name", "org.h2.Driver");
+    all.put("spring.datasource.username", "sa");
+    all.put("spring.datasource.password", "");
+    all.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+    all.put("logging.level.root", "WARN");
+    all.put("server.port", "-1");
+    // a carga sai toda de um cliente só e seria barrada pelo limite de taxa
+    all.put("task.rate-limit.enabled", "false");
+    for (String property : properties) {
+      int separator = property.indexOf('=');
+      all.put(property.substring(0, separator), property.substring(separator + 1));
+    }
+
+    // como argumentos de linha de comando para valerem mais que o application.properties
+    return new SpringApplicationBuilder(TodoApplication.class)
+        .web(webType)
+        .run(all.entrySet().stream()
+            .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+            .toArray(String[]::new));
+  }
+}
@@ -0,0 +1,99 @@
+package com.marcela.todo.benchmark;
+
+import com.marcela.todo.model.Task;
+import com.marcela.todo.service.TaskBatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.DefaultMockMvcBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// caminho completo da requisição (DispatcherServlet, controller, service, Jackson) sem rede
+// listCache=true inclui o filtro de respostas de GET /tasks já serializadas
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskControllerBenchmark {
+  private static final int SEED_SIZE = 1_000;
+
+  @Param({"false", "true"})
+  public boolean listCache;
+
+  private ConfigurableApplicationContext context;
+  private MockMvc mockMvc;
+  private long firstId;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    context = BenchmarkApp.start(WebApplicationType.SERVLET, "task.list-cache.enabled=" + listCache);
+    DefaultMockMvcBuilder builder = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context);
+    if (listCache) {
+      // o MockMvc não passa pelos filtros registrados no servlet container
+      builder.addFilter(context.getBean("taskListCacheFilter", FilterRegistrationBean.class).getFilter(), "/tasks");
+    }
+    mockMvc = builder.build();
+    List<Task> tasks = new ArrayList<>(SEED_SIZE);
+    for (int i = 0; i < SEED_SIZE; i++) {
+      Task task = new Task();
+      task.setTitle("Task " + i);
+      tasks.add(task);
+    }
+    firstId = context.getBean(TaskBatchService.class).createTasks(tasks).get(0).getId();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public MockHttpServletResponse getTaskById() throws Exception {
+    long id = firstId + ThreadLocalRandom.current().nextInt(SEED_SIZE);
+    return mockMvc.perform(get("/tasks/" + id)).andReturn().getResponse();
+  }
+
+  @Benchmark
+  public MockHttpServletResponse getAllTasks() throws Exception {
+    return mockMvc.perform(get("/tasks")).andReturn().getResponse();
+  }
+
+  @Benchmark
+  public MockHttpServletResponse getTasksPage() throws Exception {
+    return mockMvc.perform(get("/tasks").param("limit", "50")).andReturn().getResponse();
+  }
+
+  @Benchmark
+  public MockHttpServletResponse createTask() throws Exception {
+    return mockMvc.perform(post("/tasks")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"title\":\"Benchmark\",\"description\":\"via MockMvc\"}"))
+        .andReturn().getResponse();
+  }
+}
@@ -0,0 +1,98 @@
+package com.marcela.todo.benchmark;
+
+import com.marcela.todo.model.Task;
+import com.marcela.todo.service.TaskBatchService;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// carga HTTP real (Tomcat + JDBC) com muitos clientes simultâneos
+// compara threads de plataforma com virtual threads: throughput e percentis (p99 no modo SampleTime)
+// virtual threads só têm efeito em Java 21: ./mvnw -Pjava21,benchmark test-compile exec:exec -Djmh.args="TaskLoad"
+// para medir um servidor já rodando (ex.: com MySQL): -p baseUrl=http://host:8080 -p virtualThreads=false
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(512)
+@Fork(1)
+public class TaskLoadBenchmark {
+  private static final int SEED_SIZE = 10_000;
+
+  @Param({"false", "true"})
+  public boolean virtualThreads;
+
+  // vazio: sobe a aplicação local com H2
+  @Param({""})
+  public String baseUrl;
+
+  private ConfigurableApplicationContext context;
+  private HttpClient client;
+  private String tasksUrl;
+  private long firstId = 1;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    if (baseUrl.isEmpty()) {
+      // sem cache, toda requisição vai ao banco e segura a thread durante o JDBC
+      context = BenchmarkApp.start(WebApplicationType.SERVLET,
+          "server.port=0",
+          "spring.cache.type=none",
+          "spring.threads.virtual.enabled=" + virtualThreads,
+          "spring.datasource.hikari.maximum-pool-size=50");
+      List<Task> tasks = new ArrayList<>(SEED_SIZE);
+      for (int i = 0; i < SEED_SIZE; i++) {
+        Task task = new Task();
+        task.setTitle("Task " + i);
+        tasks.add(task);
+      }
+      firstId = context.getBean(TaskBatchService.class).createTasks(tasks).get(0).getId();
+      int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+      tasksUrl = "http://localhost:" + port + "/tasks/";
+    } else {
+      tasksUrl = baseUrl + "/tasks/";
+    }
+    client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (context != null) {
+      context.close();
+    }
+  }
+
+  @Benchmark
+  public int getTaskById() throws Exception {
+    long id = firstId + ThreadLocalRandom.current().nextInt(SEED_SIZE);
+    HttpRequest request = HttpRequest.newBuilder(URI.create(tasksUrl + id)).GET().build();
+    return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+  }
+}
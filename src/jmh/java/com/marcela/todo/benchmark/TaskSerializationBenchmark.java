@@ -0,0 +1,112 @@
+package com.marcela.todo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.wire.TaskProtobuf;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+// serialização de listas de Task: Jackson (mesmo ObjectMapper padrão do Spring) vs. protobuf
+// o tamanho do payload de cada formato sai no resultado como payloadBytes (contador auxiliar do serializeList)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskSerializationBenchmark {
+
+  @Param({"10", "1000", "10000"})
+  public int size;
+
+  @Param({"json", "protobuf"})
+  public String format;
+
+  private ObjectMapper objectMapper;
+  private List<Task> tasks;
+  private byte[] payload;
+
+  @Setup
+  public void setup() throws Exception {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    tasks = new ArrayList<>(size);
+    LocalDateTime now = LocalDateTime.now();
+    for (int i = 0; i < size; i++) {
+      Task task = new Task();
+      task.setId((long) i + 1);
+      task.setTitle("Task " + i);
+      task.setDescription("Descrição da task número " + i);
+      task.setDone(i % 2 == 0);
+      task.setCreatedAt(now.minusHours(i));
+      task.setCompletedAt(i % 2 == 0 ? now : null);
+      tasks.add(task);
+    }
+    payload = serialize();
+  }
+
+  // tamanho do payload, reportado ao lado do tempo
+  // contadores EVENTS são somados entre as iterações: só a primeira iteração medida registra o tamanho
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Payload {
+    public long payloadBytes;
+    private int measured;
+    private boolean recording;
+
+    @Setup(Level.Iteration)
+    public void startIteration(IterationParams iteration) {
+      payloadBytes = 0;
+      recording = iteration.getType() == IterationType.MEASUREMENT && ++measured == 1;
+    }
+
+    void record(byte[] bytes) {
+      if (recording) {
+        payloadBytes = bytes.length;
+      }
+    }
+  }
+
+  @Benchmark
+  public byte[] serializeList(Payload counters) throws Exception {
+    byte[] bytes = serialize();
+    counters.record(bytes);
+    return bytes;
+  }
+
+  @Benchmark
+  public List<Task> deserializeList() throws Exception {
+    if ("protobuf".equals(format)) {
+      return TaskProtobuf.decodeList(payload).items();
+    }
+    return Arrays.asList(objectMapper.readValue(payload, Task[].class));
+  }
+
+  private byte[] serialize() throws Exception {
+    if ("protobuf".equals(format)) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream(payload != null ? payload.length : 1024);
+      TaskProtobuf.writeList(tasks, null, out);
+      return out.toByteArray();
+    }
+    return objectMapper.writeValueAsBytes(tasks);
+  }
+}
@@ -0,0 +1,119 @@
+package com.marcela.todo.benchmark;
+
+import com.marcela.todo.model.Task;
+import com.marcela.todo.service.TaskBatchService;
+import com.marcela.todo.service.TaskService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// TaskService contra H2: create/get/markDone/delete e lote vs. uma linha por vez
+// os benchmarks *Rows usam @OperationsPerInvocation, então o score já sai em linhas/segundo
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+  private static final int SEED_SIZE = 10_000;
+  private static final int ROWS = 100;
+
+  // "none" desliga o cache de task por id para medir o caminho até o banco
+  @Param({"caffeine", "none"})
+  public String cache;
+
+  private ConfigurableApplicationContext context;
+  private TaskService taskService;
+  private TaskBatchService taskBatchService;
+  private long firstId;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    context = BenchmarkApp.start(WebApplicationType.NONE, "spring.cache.type=" + cache);
+    taskService = context.getBean(TaskService.class);
+    taskBatchService = context.getBean(TaskBatchService.class);
+    List<Task> created = taskBatchService.createTasks(newTasks(SEED_SIZE));
+    firstId = created.get(0).getId();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Task createTask() {
+    return taskService.createTask(newTask(0));
+  }
+
+  @Benchmark
+  public Object getTaskById() {
+    return taskService.getTaskById(randomSeededId());
+  }
+
+  @Benchmark
+  public Object markTaskAsDone() {
+    return taskService.markTaskAsDone(randomSeededId(), null);
+  }
+
+  @Benchmark
+  public boolean createAndDelete() {
+    Task task = taskService.createTask(newTask(0));
+    return taskService.deleteTask(task.getId(), null);
+  }
+
+  // mesmas 100 linhas: uma chamada por task vs. um lote
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public int insertSingleRows() {
+    int inserted = 0;
+    for (int i = 0; i < ROWS; i++) {
+      taskService.createTask(newTask(i));
+      inserted++;
+    }
+    return inserted;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public int insertBatchRows() {
+    return taskBatchService.createTasks(newTasks(ROWS)).size();
+  }
+
+  private long randomSeededId() {
+    return firstId + ThreadLocalRandom.current().nextInt(SEED_SIZE);
+  }
+
+  private static Task newTask(int i) {
+    Task task = new Task();
+    task.setTitle("Benchmark " + i);
+    task.setDescription("Task criada pelo benchmark");
+    return task;
+  }
+
+  private static List<Task> newTasks(int count) {
+    List<Task> tasks = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      tasks.add(newTask(i));
+    }
+    return tasks;
+  }
+}
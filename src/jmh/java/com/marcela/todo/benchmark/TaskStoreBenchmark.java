@@ -0,0 +1,121 @@
+package com.marcela.todo.benchmark;
+
+import com.marcela.todo.dto.TaskField;
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.dto.TaskView;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.repository.TaskPersistence;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// TaskPersistence: JPA sobre H2 em memória vs. arquivo mapeado (perfil mmap)
+// mede busca por id, uma página por keyset e a leitura de todas as tasks
+// a subida da aplicação com cada backend fica no TaskStoreStartupBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskStoreBenchmark {
+  private static final int PAGE_SIZE = 100;
+
+  @Param({"jpa", "mmap"})
+  public String backend;
+
+  @Param({"10000"})
+  public int size;
+
+  private Path directory;
+  private ConfigurableApplicationContext context;
+  private TaskPersistence taskPersistence;
+  private long firstId;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    directory = Files.createTempDirectory("task-store-bench");
+    context = start(backend, directory);
+    taskPersistence = context.getBean(TaskPersistence.class);
+    firstId = seed(taskPersistence, size);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    context.close();
+    deleteRecursively(directory);
+  }
+
+  @Benchmark
+  public Object pointLookup() {
+    return taskPersistence.findById(firstId + ThreadLocalRandom.current().nextInt(size));
+  }
+
+  @Benchmark
+  public List<TaskView> keysetPage() {
+    long after = firstId + ThreadLocalRandom.current().nextInt(size - PAGE_SIZE);
+    return taskPersistence.findViews(TaskFilter.NONE, after, PAGE_SIZE, TaskField.ALL);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int scanAll() {
+    return taskPersistence.findViews(TaskFilter.NONE, 0L, Integer.MAX_VALUE, TaskField.ALL).size();
+  }
+
+  // sem cache, para medir o backend; no mmap sem msync por escrita, para a carga inicial não dominar o setup
+  static ConfigurableApplicationContext start(String backend, Path directory) {
+    if ("mmap".equals(backend)) {
+      return BenchmarkApp.start(WebApplicationType.NONE, "spring.cache.type=none",
+          "spring.profiles.active=mmap",
+          "task.mmap.file=" + directory.resolve("tasks.dat"),
+          "task.mmap.force-writes=false");
+    }
+    return BenchmarkApp.start(WebApplicationType.NONE, "spring.cache.type=none",
+        "spring.datasource.url=jdbc:h2:file:" + directory.resolve("tasks") + ";DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=update");
+  }
+
+  // grava size tasks e retorna o primeiro id
+  static long seed(TaskPersistence taskPersistence, int size) {
+    long firstId = 0;
+    for (int i = 0; i < size; i++) {
+      Task task = new Task();
+      task.setTitle("Task " + i);
+      task.setDescription("Descrição da task " + i);
+      task.setDone(i % 3 == 0);
+      Task saved = taskPersistence.save(task);
+      if (i == 0) {
+        firstId = saved.getId();
+      }
+    }
+    return firstId;
+  }
+
+  static void deleteRecursively(Path directory) throws Exception {
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+}
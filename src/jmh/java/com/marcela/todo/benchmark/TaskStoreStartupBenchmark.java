@@ -0,0 +1,57 @@
+package com.marcela.todo.benchmark;
+
+import com.marcela.todo.repository.TaskPersistence;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// tempo de subida da aplicação com dados já gravados: JPA (H2 em arquivo) vs. mmap
+// no mmap a subida inclui ler o arquivo inteiro para reconstruir o índice
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TaskStoreStartupBenchmark {
+
+  @Param({"jpa", "mmap"})
+  public String backend;
+
+  @Param({"100000"})
+  public int size;
+
+  private Path directory;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    directory = Files.createTempDirectory("task-store-startup");
+    try (ConfigurableApplicationContext context = TaskStoreBenchmark.start(backend, directory)) {
+      TaskStoreBenchmark.seed(context.getBean(TaskPersistence.class), size);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    TaskStoreBenchmark.deleteRecursively(directory);
+  }
+
+  @Benchmark
+  public void startup() {
+    TaskStoreBenchmark.start(backend, directory).close();
+  }
+}
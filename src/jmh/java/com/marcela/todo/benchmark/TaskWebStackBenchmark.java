@@ -0,0 +1,112 @@
+package com.marcela.todo.benchmark;
+
+import com.marcela.todo.model.Task;
+import com.marcela.todo.repository.ReactiveTaskRepository;
+import com.marcela.todo.service.TaskBatchService;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+
+// pilha servlet (Tomcat + JDBC) contra a reativa (Netty + R2DBC) com milhares de conexões simultâneas
+// cada invocação abre `connections` requisições de uma vez (uma conexão para cada) e mede até a última responder
+// os dois lados com 50 conexões de banco; o Tomcat atende com 200 threads, o Netty com uma por núcleo
+// ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="TaskWebStack -rf json -rff target/jmh-stack.json"
+// cliente e servidor no mesmo processo: o ulimit -n precisa passar de 2x connections
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Threads(1)
+@Fork(1)
+public class TaskWebStackBenchmark {
+  private static final int SEED_SIZE = 10_000;
+
+  @Param({"servlet", "reactive"})
+  public String stack;
+
+  @Param({"1000", "4000"})
+  public int connections;
+
+  private ConfigurableApplicationContext context;
+  private HttpClient client;
+  private String tasksUrl;
+  private long firstId;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    List<Task> tasks = new ArrayList<>(SEED_SIZE);
+    for (int i = 0; i < SEED_SIZE; i++) {
+      Task task = new Task();
+      task.setTitle("Task " + i);
+      tasks.add(task);
+    }
+    if ("reactive".equals(stack)) {
+      context = BenchmarkApp.start(WebApplicationType.REACTIVE,
+          "spring.profiles.active=reactive",
+          "server.port=0",
+          "spring.r2dbc.url=r2dbc:h2:mem:///bench-reactive?options=DB_CLOSE_DELAY=-1",
+          "spring.r2dbc.username=sa",
+          "spring.r2dbc.password=",
+          "spring.r2dbc.pool.max-size=50",
+          "spring.sql.init.platform=h2");
+      ReactiveTaskRepository repository = context.getBean(ReactiveTaskRepository.class);
+      // uma de cada vez, para os ids saírem em sequência
+      firstId = Flux.fromIterable(tasks).concatMap(repository::insert).collectList().block().get(0).getId();
+    } else {
+      context = BenchmarkApp.start(WebApplicationType.SERVLET,
+          "server.port=0",
+          "spring.cache.type=none",
+          "spring.datasource.hikari.maximum-pool-size=50");
+      firstId = context.getBean(TaskBatchService.class).createTasks(tasks).get(0).getId();
+    }
+    int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+    tasksUrl = "http://localhost:" + port + "/tasks/";
+    client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  // GET /tasks/{id} em rajada; devolve quantas responderam 200
+  @Benchmark
+  public long burst() {
+    List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(connections);
+    for (int i = 0; i < connections; i++) {
+      long id = firstId + ThreadLocalRandom.current().nextInt(SEED_SIZE);
+      HttpRequest request = HttpRequest.newBuilder(URI.create(tasksUrl + id)).GET().build();
+      responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+    }
+    return responses.stream().map(CompletableFuture::join).filter(response -> response.statusCode() == 200).count();
+  }
+}
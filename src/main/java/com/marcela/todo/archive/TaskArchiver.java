@@ -0,0 +1,80 @@
+package com.marcela.todo.archive;
+
+import com.marcela.todo.event.TaskEvent;
+import com.marcela.todo.model.ArchivedTask;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.repository.ArchivedTaskRepository;
+import com.marcela.todo.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// move para tasks_archive as tasks concluídas há mais de task.archive.after
+// assim a tabela tasks (e seus índices) fica só com o que ainda é lido e alterado com frequência
+// cada bloco de chunk-size é uma transação curta:
+// SELECT ... FOR UPDATE das mais antigas, INSERT em lote no arquivo e DELETE ... WHERE id IN (...)
+public class TaskArchiver {
+  private static final Logger log = LoggerFactory.getLogger(TaskArchiver.class);
+
+  private final TaskRepository taskRepository;
+  private final ArchivedTaskRepository archivedTaskRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final TransactionTemplate transactionTemplate;
+  private final Duration after;
+  private final int chunkSize;
+  private final Counter archivedCounter;
+
+  public TaskArchiver(TaskRepository taskRepository, ArchivedTaskRepository archivedTaskRepository,
+      ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+      Duration after, int chunkSize, MeterRegistry meterRegistry) {
+    this.taskRepository = taskRepository;
+    this.archivedTaskRepository = archivedTaskRepository;
+    this.eventPublisher = eventPublisher;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.after = after;
+    this.chunkSize = chunkSize;
+    this.archivedCounter = Counter.builder("task.archive.archived")
+        .description("Tasks movidas para tasks_archive")
+        .register(meterRegistry);
+  }
+
+  // arquiva bloco a bloco até não sobrar nada antes do corte; retorna quantas tasks foram movidas
+  @Scheduled(initialDelayString = "${task.archive.initial-delay:1m}", fixedDelayString = "${task.archive.interval:1h}")
+  public int archive() {
+    LocalDateTime cutoff = LocalDateTime.now().minus(after);
+    int total = 0;
+    int moved;
+    do {
+      moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+      total += moved;
+    } while (moved == chunkSize);
+    if (total > 0) {
+      log.info("{} tasks concluídas antes de {} movidas para o arquivo", total, cutoff);
+    }
+    return total;
+  }
+
+  private int archiveChunk(LocalDateTime cutoff) {
+    List<Task> tasks = taskRepository.findByDoneTrueAndCompletedAtBeforeOrderByCompletedAtAsc(cutoff, Limit.of(chunkSize));
+    if (tasks.isEmpty()) {
+      return 0;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    archivedTaskRepository.saveAll(tasks.stream().map(task -> ArchivedTask.of(task, now)).toList());
+    // o Hibernate faz o flush dos INSERTs antes do DELETE em JPQL
+    taskRepository.deleteAllByIdIn(tasks.stream().map(Task::getId).toList());
+    // os listeners só recebem depois do commit
+    tasks.forEach(task -> eventPublisher.publishEvent(TaskEvent.archived(task.copy())));
+    archivedCounter.increment(tasks.size());
+    return tasks.size();
+  }
+}
@@ -0,0 +1,6 @@
+package com.marcela.todo.cache;
+
+// corpo de uma resposta de GET /tasks pronto para ir ao cliente
+// contentEncoding é null quando o corpo não está comprimido
+public record CachedResponse(String contentType, String etag, String contentEncoding, byte[] body) {
+}
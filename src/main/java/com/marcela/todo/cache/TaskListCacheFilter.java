@@ -0,0 +1,121 @@
+package com.marcela.todo.cache;
+
+import com.marcela.todo.replica.ReplicaRouting;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+// serve GET /tasks (listagem e páginas) do TaskListResponseCache
+// no cache miss a resposta do controller é capturada, comprimida (gzip ou deflate, conforme o Accept-Encoding)
+// se passar de minCompressSize, e guardada; no hit é só copiar os bytes, sem banco nem Jackson
+public class TaskListCacheFilter extends OncePerRequestFilter {
+  private final TaskListResponseCache cache;
+  private final boolean compress;
+  private final int minCompressSize;
+
+  public TaskListCacheFilter(TaskListResponseCache cache, boolean compress, int minCompressSize) {
+    this.cache = cache;
+    this.compress = compress;
+    this.minCompressSize = minCompressSize;
+  }
+
+  // na janela de read-your-writes a listagem vem do primário e não pode ser uma resposta guardada antes
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !"GET".equals(request.getMethod()) || ReplicaRouting.primaryRequired();
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain chain) throws ServletException, IOException {
+    String encoding = compress ? contentEncoding(request.getHeader(HttpHeaders.ACCEPT_ENCODING)) : null;
+    String key = request.getQueryString() + '\n' + request.getHeader(HttpHeaders.ACCEPT) + '\n' + encoding;
+
+    CachedResponse cached = cache.get(key);
+    if (cached != null) {
+      write(request, response, cached);
+      return;
+    }
+
+    long generation = cache.generation();
+    ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+    chain.doFilter(request, wrapper);
+    // 304, erros e respostas assíncronas seguem sem cache
+    if (wrapper.getStatus() != HttpServletResponse.SC_OK || request.isAsyncStarted()) {
+      wrapper.copyBodyToResponse();
+      return;
+    }
+
+    byte[] body = wrapper.getContentAsByteArray();
+    boolean compressed = encoding != null && body.length >= minCompressSize;
+    CachedResponse entry = new CachedResponse(wrapper.getContentType(), wrapper.getHeader(HttpHeaders.ETAG),
+        compressed ? encoding : null, compressed ? compress(body, encoding) : body);
+    cache.put(key, generation, entry);
+
+    // os headers do controller já estão na resposta; falta só o corpo
+    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    writeBody(response, entry);
+  }
+
+  private static void write(HttpServletRequest request, HttpServletResponse response, CachedResponse cached)
+      throws IOException {
+    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+    if (cached.etag() != null) {
+      response.setHeader(HttpHeaders.ETAG, cached.etag());
+      String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+      if (ifNoneMatch != null && (ifNoneMatch.contains(cached.etag()) || ifNoneMatch.trim().equals("*"))) {
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        return;
+      }
+    }
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentType(cached.contentType());
+    writeBody(response, cached);
+  }
+
+  private static void writeBody(HttpServletResponse response, CachedResponse entry) throws IOException {
+    if (entry.contentEncoding() != null) {
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, entry.contentEncoding());
+    }
+    response.setContentLength(entry.body().length);
+    response.getOutputStream().write(entry.body());
+  }
+
+  // gzip se o cliente aceita, senão deflate; null para corpo sem compressão
+  static String contentEncoding(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return null;
+    }
+    boolean deflate = false;
+    for (String part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+      String[] tokens = part.trim().split(";");
+      if (tokens.length > 1 && tokens[1].trim().matches("q=0(\\.0*)?")) {
+        continue;
+      }
+      if (tokens[0].equals("gzip")) {
+        return "gzip";
+      }
+      deflate |= tokens[0].equals("deflate");
+    }
+    return deflate ? "deflate" : null;
+  }
+
+  private static byte[] compress(byte[] body, String encoding) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4 + 64);
+    try (OutputStream out = "gzip".equals(encoding)
+        ? new GZIPOutputStream(bytes) : new DeflaterOutputStream(bytes)) {
+      out.write(body);
+    }
+    return bytes.toByteArray();
+  }
+}
@@ -0,0 +1,78 @@
+package com.marcela.todo.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.marcela.todo.event.TaskEvent;
+import com.marcela.todo.writebehind.TaskWriteBehind;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// respostas de GET /tasks já serializadas (e comprimidas), por query string + Accept + Content-Encoding
+// qualquer alteração de task limpa tudo: uma listagem pode depender de qualquer task
+// o ttl cobre as alterações que não passam por aqui (outra instância, pilha reativa, SQL direto)
+// limitado pelo total de bytes guardados; métricas em cache.gets{cache=task.list-responses}
+public class TaskListResponseCache {
+  private static final long NOT_CACHEABLE = -1;
+
+  private final Cache<String, CachedResponse> cache;
+  private final AtomicLong generation = new AtomicLong();
+  // null quando o write-behind está desligado
+  private final TaskWriteBehind writeBehind;
+
+  public TaskListResponseCache(long maxBytes, Duration ttl, TaskWriteBehind writeBehind,
+      MeterRegistry meterRegistry, Ticker ticker) {
+    this.cache = Caffeine.newBuilder()
+        .maximumWeight(maxBytes)
+        .weigher((String key, CachedResponse response) -> key.length() + response.body().length)
+        .expireAfterWrite(ttl)
+        .ticker(ticker)
+        .recordStats()
+        .build();
+    this.writeBehind = writeBehind;
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "task.list-responses");
+  }
+
+  public CachedResponse get(String key) {
+    return cache.getIfPresent(key);
+  }
+
+  // lida antes de montar a resposta e devolvida no put
+  // com escritas do write-behind pendentes a listagem do banco ainda está atrasada e não é guardada
+  public long generation() {
+    if (writeBehind != null && writeBehind.hasPendingWrites()) {
+      return NOT_CACHEABLE;
+    }
+    return generation.get();
+  }
+
+  // guarda a resposta se nenhuma task mudou desde generation()
+  // a conferência vem depois do put: uma alteração concorrente ou vê a entrada no invalidateAll
+  // ou já mudou a geração e a entrada sai aqui
+  public void put(String key, long generation, CachedResponse response) {
+    if (generation == NOT_CACHEABLE) {
+      return;
+    }
+    cache.put(key, response);
+    if (this.generation.get() != generation) {
+      cache.invalidate(key);
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTaskEvent(TaskEvent event) {
+    invalidateAll();
+  }
+
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    cache.invalidateAll();
+  }
+
+  public long size() {
+    return cache.estimatedSize();
+  }
+}
@@ -0,0 +1,34 @@
+package com.marcela.todo.config;
+
+import com.marcela.todo.archive.TaskArchiver;
+import com.marcela.todo.repository.ArchivedTaskRepository;
+import com.marcela.todo.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+// arquivamento periódico das tasks concluídas (task.archive.enabled)
+// a tabela tasks_archive existe mesmo com o job desligado; as leituras continuam consultando ela
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "task.archive.enabled", havingValue = "true")
+// sem JPA nos perfis mmap e reactive
+@Profile("!mmap & !reactive")
+public class ArchiveConfig {
+
+  @Bean
+  public TaskArchiver taskArchiver(TaskRepository taskRepository, ArchivedTaskRepository archivedTaskRepository,
+      ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+      @Value("${task.archive.after:90d}") Duration after, @Value("${task.archive.chunk-size:500}") int chunkSize,
+      MeterRegistry meterRegistry) {
+    return new TaskArchiver(taskRepository, archivedTaskRepository, eventPublisher, transactionManager,
+        after, chunkSize, meterRegistry);
+  }
+}
@@ -0,0 +1,11 @@
+package com.marcela.todo.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// liga o cache de tasks por id (Caffeine, configurado em application.properties)
+@Configuration
+@EnableCaching
+public class CacheConfig {
+  public static final String TASKS_CACHE = "tasks";
+}
@@ -0,0 +1,56 @@
+package com.marcela.todo.config;
+
+import com.marcela.todo.idempotency.IdempotencyFilter;
+import com.marcela.todo.idempotency.IdempotencyStore;
+import com.marcela.todo.ratelimit.ClientKeyResolver;
+import com.marcela.todo.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.util.unit.DataSize;
+
+// Idempotency-Key em POST /tasks e POST /tasks/batch (task.idempotency.*)
+@Configuration
+@EnableScheduling
+@Profile("!reactive")
+@ConditionalOnProperty(name = "task.idempotency.enabled", havingValue = "true")
+public class IdempotencyConfig {
+
+  // com persist=true as chaves também vão para a tabela idempotency_keys (não existe no perfil mmap)
+  // e a reserva de uma chave em execução vale entre instâncias, por até lock-timeout
+  @Bean
+  public IdempotencyStore idempotencyStore(@Value("${task.idempotency.max-size:16MB}") DataSize maxSize,
+      @Value("${task.idempotency.ttl:24h}") Duration ttl, @Value("${task.idempotency.persist:false}") boolean persist,
+      @Value("${task.idempotency.lock-timeout:1m}") Duration lockTimeout,
+      ObjectProvider<IdempotencyRecordRepository> repository) {
+    IdempotencyRecordRepository persistence = persist ? repository.getIfAvailable() : null;
+    if (persist && persistence == null) {
+      throw new IllegalStateException("task.idempotency.persist=true precisa do JPA (indisponível neste perfil)");
+    }
+    return new IdempotencyStore(maxSize.toBytes(), ttl, lockTimeout, persistence, Clock.systemUTC());
+  }
+
+  // depois do limite de requisições (o retry também conta na taxa) e antes dos filtros que olham a escrita
+  // chaves separadas por cliente, identificado como no limite de requisições (task.rate-limit.client-header)
+  // o limite de corpo segue o do Tomcat para POST (max-http-form-post-size) se max-body-size não for definido
+  @Bean
+  public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store,
+      @Value("${task.rate-limit.client-header:}") String clientHeader,
+      @Value("${task.idempotency.max-body-size:${server.tomcat.max-http-form-post-size:2MB}}") DataSize maxBodySize,
+      MeterRegistry meterRegistry) {
+    FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+        new IdempotencyFilter(store, new ClientKeyResolver(clientHeader), maxBodySize.toBytes(), meterRegistry));
+    registration.addUrlPatterns("/tasks", "/tasks/batch");
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+    return registration;
+  }
+}
@@ -0,0 +1,64 @@
+package com.marcela.todo.config;
+
+import com.marcela.todo.metrics.ConnectionWaitTracker;
+import com.marcela.todo.metrics.DbStatementCounter;
+import com.marcela.todo.metrics.DbStatementMetricsFilter;
+import io.micrometer.core.aop.TimedAspect;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import javax.sql.DataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+// métricas dos caminhos quentes, expostas em /actuator/metrics:
+// - http.server.requests: latência e contagem por endpoint e status (inclui 404 e erros)
+// - task.service: latência de cada método dos services (@Timed)
+// - task.db.statements: comandos SQL por requisição
+// - task.db.pool.wait: espera por conexão do pool por requisição
+// - task.coalescing.calls: leituras do TaskService executadas e aproveitadas de outra igual (SingleFlight)
+// - task.requests.rejected / task.requests.active: limite de taxa e load shedding em /tasks (RateLimitConfig)
+// - hikaricp.connections.*: ativas, ociosas, threads esperando (pending), tempo de aquisição e timeouts
+@Configuration
+public class MetricsConfig {
+
+  // habilita o @Timed nos services
+  @Bean
+  public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+    return new TimedAspect(meterRegistry);
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer dbStatementCounterCustomizer() {
+    return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new DbStatementCounter());
+  }
+
+  @Bean
+  public FilterRegistrationBean<DbStatementMetricsFilter> dbStatementMetricsFilter(MeterRegistry meterRegistry) {
+    FilterRegistrationBean<DbStatementMetricsFilter> registration =
+        new FilterRegistrationBean<>(new DbStatementMetricsFilter(meterRegistry));
+    registration.addUrlPatterns("/tasks", "/tasks/*");
+    return registration;
+  }
+
+  // o binder do Spring Boot só instala o tracker do Micrometer no Hikari se ainda não houver um;
+  // este roda antes e instala o mesmo tracker envolvido pelo ConnectionWaitTracker
+  @Bean
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  public MeterBinder connectionWaitTracker(ObjectProvider<DataSource> dataSources) {
+    return registry -> dataSources.orderedStream().forEach(dataSource -> {
+      HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+      if (hikari != null && hikari.getMetricsTrackerFactory() == null && hikari.getMetricRegistry() == null) {
+        hikari.setMetricsTrackerFactory(new ConnectionWaitTracker(new MicrometerMetricsTrackerFactory(registry)));
+      }
+    });
+  }
+}
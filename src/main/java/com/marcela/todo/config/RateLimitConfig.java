@@ -0,0 +1,44 @@
+package com.marcela.todo.config;
+
+import com.marcela.todo.ratelimit.ConcurrencyLimiter;
+import com.marcela.todo.ratelimit.GcraRateLimiter;
+import com.marcela.todo.ratelimit.TaskRateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+
+// limite de taxa por cliente e load shedding em /tasks (task.rate-limit.*)
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "task.rate-limit.enabled", havingValue = "true")
+public class RateLimitConfig {
+
+  // logo depois do filtro de observação do Spring Boot (HIGHEST_PRECEDENCE + 1): os 429/503 entram no
+  // http.server.requests, e a requisição recusada não passa pelos outros filtros de /tasks
+  @Bean
+  public FilterRegistrationBean<TaskRateLimitFilter> taskRateLimitFilter(MeterRegistry meterRegistry,
+      @Value("${task.rate-limit.client-header:}") String clientHeader,
+      @Value("${task.rate-limit.max-clients:100000}") int maxClients,
+      @Value("${task.rate-limit.read.rate:200}") double readRate,
+      @Value("${task.rate-limit.read.burst:400}") int readBurst,
+      @Value("${task.rate-limit.write.rate:50}") double writeRate,
+      @Value("${task.rate-limit.write.burst:100}") int writeBurst,
+      @Value("${task.rate-limit.max-concurrent:64}") int maxConcurrent,
+      @Value("${task.rate-limit.max-queue-wait:50ms}") Duration maxQueueWait) {
+    TaskRateLimitFilter filter = new TaskRateLimitFilter(
+        new GcraRateLimiter(readRate, readBurst, maxClients, System::nanoTime),
+        new GcraRateLimiter(writeRate, writeBurst, maxClients, System::nanoTime),
+        new ConcurrencyLimiter(maxConcurrent, maxQueueWait),
+        clientHeader, meterRegistry);
+    FilterRegistrationBean<TaskRateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+    registration.addUrlPatterns("/tasks", "/tasks/*");
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+    return registration;
+  }
+}
@@ -0,0 +1,84 @@
+package com.marcela.todo.config;
+
+import com.marcela.todo.cache.TaskListResponseCache;
+import com.marcela.todo.metrics.ConnectionWaitTracker;
+import com.marcela.todo.replica.ReadYourWritesFilter;
+import com.marcela.todo.replica.ReplicaDataSource;
+import com.marcela.todo.replica.ReplicaLagInvalidator;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+// réplicas de leitura (task.replica.urls): transações read-only vão para as réplicas, o resto para o primário
+// o primário usa o spring.datasource.*; as réplicas herdam driver, usuário, senha e spring.datasource.hikari.*
+// task.replica.max-lag é o atraso máximo esperado da replicação: janela do read-your-writes
+// e prazo da segunda invalidação dos caches
+@Configuration
+@ConditionalOnProperty(name = "task.replica.urls")
+@Profile("!mmap")
+public class ReplicaConfig {
+
+  // substitui o DataSource do Spring Boot (que só é criado quando não há outro)
+  @Bean
+  @Primary
+  public ReplicaDataSource dataSource(DataSourceProperties properties, Environment environment,
+      MeterRegistry meterRegistry, @Value("${task.replica.urls}") List<String> urls,
+      @Value("${task.replica.username:}") String username, @Value("${task.replica.password:}") String password) {
+    Binder binder = Binder.get(environment);
+    HikariDataSource primary = pool(properties, binder, meterRegistry, "primary",
+        properties.determineUrl(), properties.determineUsername(), properties.determinePassword());
+    List<HikariDataSource> replicas = new ArrayList<>();
+    for (int i = 0; i < urls.size(); i++) {
+      replicas.add(pool(properties, binder, meterRegistry, "replica-" + i, urls.get(i),
+          username.isEmpty() ? properties.determineUsername() : username,
+          username.isEmpty() ? properties.determinePassword() : password));
+    }
+    return new ReplicaDataSource(primary, replicas);
+  }
+
+  // roda antes do cache de listagem (que fica com a ordem padrão, a última)
+  @Bean
+  public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+      @Value("${task.replica.max-lag:5s}") Duration maxLag) {
+    FilterRegistrationBean<ReadYourWritesFilter> registration =
+        new FilterRegistrationBean<>(new ReadYourWritesFilter(maxLag, Clock.systemUTC()));
+    registration.addUrlPatterns("/tasks", "/tasks/*");
+    registration.setOrder(0);
+    return registration;
+  }
+
+  @Bean
+  public ReplicaLagInvalidator replicaLagInvalidator(CacheManager cacheManager,
+      ObjectProvider<TaskListResponseCache> listCache, @Value("${task.replica.max-lag:5s}") Duration maxLag) {
+    return new ReplicaLagInvalidator(cacheManager.getCache(CacheConfig.TASKS_CACHE), listCache.getIfAvailable(),
+        maxLag);
+  }
+
+  // mesmas configurações de pool para todos; o nome do pool vira a tag pool das métricas hikaricp.connections.*
+  private static HikariDataSource pool(DataSourceProperties properties, Binder binder, MeterRegistry meterRegistry,
+      String name, String url, String username, String password) {
+    HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+        .url(url).username(username).password(password).build();
+    binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+    pool.setPoolName(name);
+    pool.setMetricsTrackerFactory(new ConnectionWaitTracker(new MicrometerMetricsTrackerFactory(meterRegistry)));
+    return pool;
+  }
+}
@@ -0,0 +1,40 @@
+package com.marcela.todo.config;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.marcela.todo.cache.TaskListCacheFilter;
+import com.marcela.todo.cache.TaskListResponseCache;
+import com.marcela.todo.writebehind.TaskWriteBehind;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+// cache das respostas de GET /tasks já serializadas; o resto das respostas usa o server.compression do Tomcat
+@Configuration
+@ConditionalOnProperty(name = "task.list-cache.enabled", havingValue = "true")
+public class ResponseCacheConfig {
+
+  @Bean
+  public TaskListResponseCache taskListResponseCache(@Value("${task.list-cache.max-size:32MB}") DataSize maxSize,
+      @Value("${task.list-cache.ttl:60s}") Duration ttl, ObjectProvider<TaskWriteBehind> writeBehind,
+      MeterRegistry meterRegistry) {
+    return new TaskListResponseCache(maxSize.toBytes(), ttl, writeBehind.getIfAvailable(), meterRegistry,
+        Ticker.systemTicker());
+  }
+
+  // comprime com o mesmo liga/desliga e tamanho mínimo do server.compression
+  @Bean
+  public FilterRegistrationBean<TaskListCacheFilter> taskListCacheFilter(TaskListResponseCache cache,
+      @Value("${server.compression.enabled:false}") boolean compress,
+      @Value("${server.compression.min-response-size:2KB}") DataSize minCompressSize) {
+    FilterRegistrationBean<TaskListCacheFilter> registration =
+        new FilterRegistrationBean<>(new TaskListCacheFilter(cache, compress, (int) minCompressSize.toBytes()));
+    registration.addUrlPatterns("/tasks");
+    return registration;
+  }
+}
@@ -0,0 +1,18 @@
+package com.marcela.todo.config;
+
+import com.marcela.todo.wire.TaskProtobufHttpMessageConverter;
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// formato binário (application/x-protobuf) escolhido pelo Accept / Content-Type
+// entra no fim da lista de conversores: sem Accept ou com */* a resposta continua em JSON
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    converters.add(new TaskProtobufHttpMessageConverter());
+  }
+}
@@ -0,0 +1,57 @@
+package com.marcela.todo.controller;
+
+import com.marcela.todo.service.TaskArchivedException;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// tratamento centralizado de erros da API
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+  // parâmetros inválidos (cursor, limit, etc.) viram 400
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException e) {
+    String message = e.getMessage() != null ? e.getMessage() : "Requisição inválida";
+    return error(ResponseEntity.badRequest(), message);
+  }
+
+  // If-Match com versão antiga ou escrita concorrente na mesma task viram 412
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<Map<String, String>> handleOptimisticLock(OptimisticLockingFailureException e) {
+    return error(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED),
+        "A task foi alterada por outra requisição; busque a versão atual e tente de novo");
+  }
+
+  // PUT em task arquivada: ela continua legível, mas não muda mais
+  @ExceptionHandler(TaskArchivedException.class)
+  public ResponseEntity<Map<String, String>> handleArchived(TaskArchivedException e) {
+    return error(ResponseEntity.status(HttpStatus.CONFLICT), e.getMessage());
+  }
+
+  // fila de escrita cheia (write-behind): o cliente deve tentar de novo em instantes
+  @ExceptionHandler(RejectedExecutionException.class)
+  public ResponseEntity<Map<String, String>> handleRejected(RejectedExecutionException e) {
+    return error(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1"),
+        e.getMessage());
+  }
+
+  // operação que o backend atual não suporta (ex.: exportação no perfil mmap)
+  @ExceptionHandler(UnsupportedOperationException.class)
+  public ResponseEntity<Map<String, String>> handleUnsupported(UnsupportedOperationException e) {
+    String message = e.getMessage() != null ? e.getMessage() : "Operação não suportada";
+    return error(ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED), message);
+  }
+
+  // erro sempre em JSON, mesmo quando o Accept pede só application/x-protobuf
+  // (sem o Content-Type fixo o Spring não acha conversor para o Map e responde 500)
+  private static ResponseEntity<Map<String, String>> error(ResponseEntity.BodyBuilder builder, String message) {
+    return builder.contentType(MediaType.APPLICATION_JSON).body(Map.of("error", message));
+  }
+}
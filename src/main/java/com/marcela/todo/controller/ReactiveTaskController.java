@@ -0,0 +1,116 @@
+package com.marcela.todo.controller;
+
+import com.marcela.todo.dto.TaskField;
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.dto.TaskView;
+import com.marcela.todo.dto.TaskViewPage;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.service.ReactiveTaskService;
+import jakarta.validation.Valid;
+import java.util.Set;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// mesmo contrato do TaskController em WebFlux (perfil reactive)
+// os handlers devolvem Mono/Flux e a thread do Netty fica livre enquanto o R2DBC espera o banco
+@RestController
+@RequestMapping("/tasks")
+@Profile("reactive")
+public class ReactiveTaskController {
+  private final ReactiveTaskService taskService;
+
+  public ReactiveTaskController(ReactiveTaskService taskService) {
+    this.taskService = taskService;
+  }
+
+  @PostMapping
+  public Mono<ResponseEntity<Task>> createTask(@Valid @RequestBody Task task) {
+    return taskService.createTask(task).map(saved -> ResponseEntity.status(201).body(saved));
+  }
+
+  // a lista é escrita enquanto é lida do banco, com backpressure: array JSON ou, com
+  // Accept: application/x-ndjson, uma task por linha
+  // sem ETag: ele só seria conhecido depois de ler a lista inteira
+  // fields recorta a resposta como no TaskController, mas aqui o SELECT continua lendo todas as colunas
+  @GetMapping
+  public Flux<TaskView> getAllTasks(@ModelAttribute TaskFilter filter,
+      @RequestParam(defaultValue = "false") boolean includeArchived,
+      @RequestParam(required = false) String fields) {
+    rejectArchived(includeArchived);
+    Set<TaskField> selected = TaskField.parse(fields);
+    return taskService.findTasks(filter).map(task -> TaskView.of(task, selected));
+  }
+
+  @GetMapping(params = "limit")
+  public Mono<ResponseEntity<TaskViewPage>> getTasksPage(@RequestParam int limit,
+      @RequestParam(required = false) String cursor, @ModelAttribute TaskFilter filter,
+      @RequestParam(defaultValue = "false") boolean includeArchived,
+      @RequestParam(required = false) String fields) {
+    rejectArchived(includeArchived);
+    Set<TaskField> selected = TaskField.parse(fields);
+    return taskService.getTasksPage(filter, cursor, limit)
+        .map(page -> new TaskViewPage(page.items().stream().map(task -> TaskView.of(task, selected)).toList(),
+            page.nextCursor()))
+        .map(page -> ResponseEntity.ok().eTag(TaskEtags.ofViews(page.items(), page.nextCursor(), selected))
+            .varyBy(HttpHeaders.ACCEPT).body(page));
+  }
+
+  @GetMapping("/{id}")
+  public Mono<ResponseEntity<TaskView>> getTaskById(@PathVariable Long id,
+      @RequestParam(required = false) String fields) {
+    Set<TaskField> selected = TaskField.parse(fields);
+    return taskService.getTaskById(id)
+        .map(task -> TaskView.of(task, selected))
+        .map(view -> ResponseEntity.ok().eTag(TaskEtags.of(view)).varyBy(HttpHeaders.ACCEPT).body(view))
+        .defaultIfEmpty(ResponseEntity.notFound().build());
+  }
+
+  @PutMapping("/{id}")
+  public Mono<ResponseEntity<Task>> updateTask(@PathVariable Long id, @RequestBody Task updatedTask,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    return withEtagOrNotFound(taskService.updateTask(id, updatedTask, TaskEtags.expectedVersion(id, ifMatch)));
+  }
+
+  @PatchMapping("/{id}/done")
+  public Mono<ResponseEntity<Task>> markAsDone(@PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    return withEtagOrNotFound(taskService.markTaskAsDone(id, TaskEtags.expectedVersion(id, ifMatch)));
+  }
+
+  @DeleteMapping("/{id}")
+  public Mono<ResponseEntity<Void>> deleteTask(@PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    return taskService.deleteTask(id, TaskEtags.expectedVersion(id, ifMatch))
+        .map(deleted -> deleted
+            ? ResponseEntity.noContent().<Void>build()
+            : ResponseEntity.notFound().<Void>build());
+  }
+
+  // tasks_archive só é consultado pela pilha servlet
+  private static void rejectArchived(boolean includeArchived) {
+    if (includeArchived) {
+      throw new UnsupportedOperationException("includeArchived não disponível na pilha reativa");
+    }
+  }
+
+  private static Mono<ResponseEntity<Task>> withEtagOrNotFound(Mono<Task> task) {
+    return task
+        .map(found -> ResponseEntity.ok().eTag(TaskEtags.of(found)).varyBy(HttpHeaders.ACCEPT).body(found))
+        .defaultIfEmpty(ResponseEntity.notFound().build());
+  }
+}
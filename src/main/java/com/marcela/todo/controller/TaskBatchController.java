@@ -0,0 +1,49 @@
+package com.marcela.todo.controller;
+
+import com.marcela.todo.model.Task;
+import com.marcela.todo.service.TaskBatchService;
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Map;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// endpoints em lote para importadores (uma requisição no lugar de milhares)
+@RestController
+// só existe junto com o TaskBatchService
+@Profile("!mmap & !reactive")
+@RequestMapping("/tasks/batch")
+public class TaskBatchController {
+  private final TaskBatchService taskBatchService;
+
+  public TaskBatchController(TaskBatchService taskBatchService) {
+    this.taskBatchService = taskBatchService;
+  }
+
+  // cria várias tarefas
+  @PostMapping
+  public ResponseEntity<List<Task>> createTasks(@RequestBody List<@Valid Task> tasks) {
+    List<Task> savedTasks = taskBatchService.createTasks(tasks);
+    return ResponseEntity.status(201).body(savedTasks);
+  }
+
+  // atualiza várias tarefas (cada item precisa do id)
+  @PatchMapping
+  public ResponseEntity<List<Task>> updateTasks(@RequestBody List<@Valid Task> tasks) {
+    List<Task> updatedTasks = taskBatchService.updateTasks(tasks);
+    return ResponseEntity.ok(updatedTasks);
+  }
+
+  // deleta várias tarefas pelos ids
+  @DeleteMapping
+  public ResponseEntity<Map<String, Integer>> deleteTasks(@RequestBody List<Long> ids) {
+    int deleted = taskBatchService.deleteTasks(ids);
+    return ResponseEntity.ok(Map.of("deleted", deleted));
+  }
+}
@@ -0,0 +1,29 @@
+package com.marcela.todo.controller;
+
+import com.marcela.todo.feed.TaskChangeFeed;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// stream de alterações das tasks (Server-Sent Events), no lugar de ficar consultando GET /tasks
+// o EventSource do navegador reconecta sozinho mandando o Last-Event-ID
+@RestController
+// SseEmitter é do Spring MVC; no perfil reactive não há TaskEvent para transmitir
+@Profile("!reactive")
+@RequestMapping("/tasks/changes")
+public class TaskChangeController {
+  private final TaskChangeFeed taskChangeFeed;
+
+  public TaskChangeController(TaskChangeFeed taskChangeFeed) {
+    this.taskChangeFeed = taskChangeFeed;
+  }
+
+  @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+    return taskChangeFeed.subscribe(lastEventId);
+  }
+}
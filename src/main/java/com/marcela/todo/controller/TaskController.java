@@ -1,31 +1,51 @@
 package com.marcela.todo.controller;
 
+import com.marcela.todo.dto.TaskField;
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.dto.TaskView;
+import com.marcela.todo.dto.TaskViewPage;
 import com.marcela.todo.model.Task;
+import com.marcela.todo.service.TaskExportService;
 import com.marcela.todo.service.TaskService;
+import com.marcela.todo.wire.TaskProtobuf;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/tasks")
+// pilha servlet; no perfil reactive o mesmo contrato é do ReactiveTaskController
+@Profile("!reactive")
 public class TaskController {
   // posso usar public sem final, mas se for private, tem que ser final
   // (estudar mais sobre)
   private final TaskService taskService;
+  // null no perfil mmap, que não tem exportação
+  private final TaskExportService taskExportService;
 
   // Injeção via construtor
-  public TaskController(TaskService taskService) {
+  public TaskController(TaskService taskService, ObjectProvider<TaskExportService> taskExportService) {
     this.taskService = taskService;
+    this.taskExportService = taskExportService.getIfAvailable();
   }
 
   // cria nova tarefa
@@ -35,56 +55,108 @@ public class TaskController {
     return ResponseEntity.status(201).body(savedTask);
   }
 
-  // lista todas as tarefas
+  // lista todas as tarefas, opcionalmente filtradas
+  // ex.: GET /tasks?done=false&createdFrom=2025-10-20T00:00:00
+  // as respostas de GET levam ETag; com If-None-Match igual o Spring devolve 304 sem serializar o corpo
+  // includeArchived=true inclui as tasks já movidas para o arquivo (consulta também tasks_archive)
+  // fields=id,title devolve só esses campos (e o banco só lê essas colunas); sem fields, todos
   @GetMapping
-  public ResponseEntity<List<Task>> getAllTasks() {
-    List<Task> tasks = taskService.getAllTasks();
-    return ResponseEntity.ok(tasks);
+  public ResponseEntity<List<TaskView>> getAllTasks(@ModelAttribute TaskFilter filter,
+      @RequestParam(defaultValue = "false") boolean includeArchived,
+      @RequestParam(required = false) String fields) {
+    Set<TaskField> selected = TaskField.parse(fields);
+    List<TaskView> tasks = taskService.findTaskViews(filter, includeArchived, selected);
+    return ResponseEntity.ok().eTag(TaskEtags.ofViews(tasks, null, selected)).varyBy(HttpHeaders.ACCEPT).body(tasks);
+  }
+
+  // lista paginada: GET /tasks?limit=50 e depois GET /tasks?limit=50&cursor=<nextCursor>
+  // aceita os mesmos filtros (e o includeArchived) da listagem completa
+  @GetMapping(params = "limit")
+  public ResponseEntity<TaskViewPage> getTasksPage(@RequestParam int limit,
+      @RequestParam(required = false) String cursor, @ModelAttribute TaskFilter filter,
+      @RequestParam(defaultValue = "false") boolean includeArchived,
+      @RequestParam(required = false) String fields) {
+    Set<TaskField> selected = TaskField.parse(fields);
+    TaskViewPage page = taskService.getTaskViewsPage(filter, cursor, limit, includeArchived, selected);
+    return ResponseEntity.ok().eTag(TaskEtags.ofViews(page.items(), page.nextCursor(), selected))
+        .varyBy(HttpHeaders.ACCEPT).body(page);
+  }
+
+  // exporta todas as tarefas em streaming: NDJSON (padrão) ou CSV com ?format=csv
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> exportTasks(
+      @RequestParam(defaultValue = "ndjson") String format) {
+    if (taskExportService == null) {
+      throw new UnsupportedOperationException("Exportação não disponível no armazenamento mmap");
+    }
+    if ("csv".equalsIgnoreCase(format)) {
+      return ResponseEntity.ok()
+          .contentType(new MediaType("text", "csv"))
+          .body(taskExportService::exportCsv);
+    }
+    if (!"ndjson".equalsIgnoreCase(format)) {
+      throw new IllegalArgumentException("format deve ser ndjson ou csv");
+    }
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(taskExportService::exportNdjson);
+  }
+
+  // mesma exportação com Accept: application/x-protobuf (tasks com o tamanho na frente, ver task.proto)
+  @GetMapping(value = "/export", produces = TaskProtobuf.MEDIA_TYPE_VALUE)
+  public ResponseEntity<StreamingResponseBody> exportTasksProtobuf() {
+    if (taskExportService == null) {
+      throw new UnsupportedOperationException("Exportação não disponível no armazenamento mmap");
+    }
+    return ResponseEntity.ok()
+        .contentType(TaskProtobuf.MEDIA_TYPE)
+        .body(taskExportService::exportProtobuf);
   }
 
   // busca tarefa por ID
+  // a task inteira vem do cache; fields só recorta a resposta
   @GetMapping("/{id}")
-  public ResponseEntity<Task> getTaskById(@PathVariable Long id) {
-    Optional<Task> task = taskService.getTaskById(id);
-    return task.map(ResponseEntity::ok)
+  public ResponseEntity<TaskView> getTaskById(@PathVariable Long id,
+      @RequestParam(required = false) String fields) {
+    Set<TaskField> selected = TaskField.parse(fields);
+    Optional<TaskView> task = taskService.getTaskById(id).map(found -> TaskView.of(found, selected));
+    return task.map(view -> ResponseEntity.ok().eTag(TaskEtags.of(view)).varyBy(HttpHeaders.ACCEPT).body(view))
         .orElseGet(() -> ResponseEntity.notFound().build());
   }
 
   // atualiza tarefa
+  // com If-Match, só atualiza se a task ainda estiver na versão do ETag (senão 412)
   @PutMapping("/{id}")
-  public ResponseEntity<Task> updateTask(@PathVariable Long id, @RequestBody Task updatedTask) {
-    Optional<Task> existingTask = taskService.getTaskById(id);
-
-    if(existingTask.isEmpty()) {
-      return  ResponseEntity.notFound().build();
-    }
-
-    Task task = existingTask.get();
-    task.setTitle(updatedTask.getTitle());
-    task.setDescription(updatedTask.getDescription());
-    task.setDone(updatedTask.isDone());
-    task.setCompletedAt(updatedTask.getCompletedAt());
-
-    Task savedTask = taskService.updateTask(task);
-    return  ResponseEntity.ok(savedTask);
+  public ResponseEntity<Task> updateTask(@PathVariable Long id, @RequestBody Task updatedTask,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    Optional<Task> savedTask = taskService.updateTask(id, updatedTask, TaskEtags.expectedVersion(id, ifMatch));
+    return savedTask.map(TaskController::okWithEtag)
+        .orElseGet(() -> ResponseEntity.notFound().build());
   }
 
   // marca como concluída
   @PatchMapping("/{id}/done")
-  public ResponseEntity<Task> maskAsDona (@PathVariable Long id) {
-    Optional<Task> updatedTask = taskService.markTaskAsDone(id);
-    return updatedTask.map(ResponseEntity::ok)
+  public ResponseEntity<Task> maskAsDona (@PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    Optional<Task> updatedTask = taskService.markTaskAsDone(id, TaskEtags.expectedVersion(id, ifMatch));
+    return updatedTask.map(TaskController::okWithEtag)
         .orElseGet(() -> ResponseEntity.notFound().build());
   }
 
   // deletar tarefa
   @DeleteMapping("/{id}")
-  public  ResponseEntity<Void> deleteTask(@PathVariable Long id) {
-    boolean deleted = taskService.deleteTask(id);
+  public  ResponseEntity<Void> deleteTask(@PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    boolean deleted = taskService.deleteTask(id, TaskEtags.expectedVersion(id, ifMatch));
     if (deleted) {
       return ResponseEntity.noContent().build();
     } else {
       return ResponseEntity.notFound().build();
     }
   }
+
+  // o ETag é o mesmo em JSON e protobuf; o Vary faz caches guardarem as duas representações separadas
+  private static ResponseEntity<Task> okWithEtag(Task task) {
+    return ResponseEntity.ok().eTag(TaskEtags.of(task)).varyBy(HttpHeaders.ACCEPT).body(task);
+  }
 }
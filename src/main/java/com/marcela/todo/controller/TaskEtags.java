@@ -0,0 +1,74 @@
+package com.marcela.todo.controller;
+
+import com.marcela.todo.dto.TaskField;
+import com.marcela.todo.dto.TaskView;
+import com.marcela.todo.model.Task;
+import java.util.List;
+import java.util.Set;
+
+// ETags das respostas de task
+// uma task: "<id>-<version>"; uma lista: hash dos pares (id, version) e do cursor
+final class TaskEtags {
+  // nunca bate com uma versão real: If-Match de outra task ou mal formado vira 412
+  private static final long NO_MATCH = -1L;
+
+  private TaskEtags() {
+  }
+
+  static String of(Task task) {
+    return "\"" + task.getId() + "-" + task.getVersion() + "\"";
+  }
+
+  // mesmo formato da entidade, com ou sem fields: o ETag de GET ?fields=... continua valendo no If-Match
+  // (o fields está na URL, então cada projeção já é guardada separada nos caches)
+  static String of(TaskView view) {
+    return "\"" + view.id() + "-" + view.version() + "\"";
+  }
+
+  // hash dos pares (id, version); fields diferente de ALL também entra no hash
+  static String ofViews(List<TaskView> views, String nextCursor, Set<TaskField> fields) {
+    long hash = 1125899906842597L;
+    for (TaskView view : views) {
+      hash = 31 * hash + view.id();
+      hash = 31 * hash + view.version();
+    }
+    if (!fields.equals(TaskField.ALL)) {
+      hash = 31 * hash + fieldBits(fields);
+    }
+    return list(views.size(), hash, nextCursor);
+  }
+
+  private static String list(int size, long hash, String nextCursor) {
+    if (nextCursor != null) {
+      hash = 31 * hash + nextCursor.hashCode();
+    }
+    return "\"l" + size + "-" + Long.toHexString(hash) + "\"";
+  }
+
+  // um bit por campo, na ordem do enum
+  private static int fieldBits(Set<TaskField> fields) {
+    int bits = 0;
+    for (TaskField field : fields) {
+      bits |= 1 << field.ordinal();
+    }
+    return bits;
+  }
+
+  // versão esperada pelo If-Match; null quando o header não veio ou é "*"
+  static Long expectedVersion(Long id, String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    String tag = ifMatch.trim();
+    String prefix = "\"" + id + "-";
+    // If-Match usa comparação forte: ETag fraca (W/"...") nunca bate
+    if (!tag.startsWith(prefix) || !tag.endsWith("\"") || tag.length() <= prefix.length() + 1) {
+      return NO_MATCH;
+    }
+    try {
+      return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+    } catch (NumberFormatException e) {
+      return NO_MATCH;
+    }
+  }
+}
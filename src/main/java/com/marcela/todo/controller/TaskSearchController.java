@@ -0,0 +1,36 @@
+package com.marcela.todo.controller;
+
+import com.marcela.todo.search.TaskSearchHit;
+import com.marcela.todo.search.TaskSearchIndex;
+import java.util.List;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// busca textual em title e description, respondida pelo índice em memória
+@RestController
+// sem TaskSearchIndex nos perfis mmap e reactive, /tasks/search fica indisponível
+@Profile("!mmap & !reactive")
+@RequestMapping("/tasks/search")
+public class TaskSearchController {
+  public static final int MAX_RESULTS = 100;
+
+  private final TaskSearchIndex taskSearchIndex;
+
+  public TaskSearchController(TaskSearchIndex taskSearchIndex) {
+    this.taskSearchIndex = taskSearchIndex;
+  }
+
+  // ex.: GET /tasks/search?q=estudar spri*
+  @GetMapping
+  public ResponseEntity<List<TaskSearchHit>> search(@RequestParam String q,
+      @RequestParam(defaultValue = "20") int limit) {
+    if (limit < 1 || limit > MAX_RESULTS) {
+      throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_RESULTS);
+    }
+    return ResponseEntity.ok(taskSearchIndex.search(q, limit));
+  }
+}
@@ -0,0 +1,33 @@
+package com.marcela.todo.controller;
+
+import com.marcela.todo.dto.TaskStats;
+import com.marcela.todo.stats.TaskStatistics;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// estatísticas das tasks, servidas dos contadores em memória (não lê as tasks a cada chamada)
+// ex.: GET /tasks/stats?days=7
+@RestController
+// só existe junto com o TaskStatistics
+@Profile("!reactive")
+@RequestMapping("/tasks/stats")
+public class TaskStatsController {
+  public static final int MAX_DAYS = 366;
+
+  private final TaskStatistics taskStatistics;
+
+  public TaskStatsController(TaskStatistics taskStatistics) {
+    this.taskStatistics = taskStatistics;
+  }
+
+  @GetMapping
+  public TaskStats getStats(@RequestParam(defaultValue = "30") int days) {
+    if (days < 1 || days > MAX_DAYS) {
+      throw new IllegalArgumentException("days deve estar entre 1 e " + MAX_DAYS);
+    }
+    return taskStatistics.snapshot(days);
+  }
+}
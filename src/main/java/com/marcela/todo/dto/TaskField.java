@@ -0,0 +1,50 @@
+package com.marcela.todo.dto;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+// campos de task que o cliente pode escolher com ?fields=id,title,done
+// o nome é o mesmo no JSON e no atributo da entidade (usado na consulta com projeção)
+public enum TaskField {
+  ID("id"),
+  TITLE("title"),
+  DESCRIPTION("description"),
+  DONE("done"),
+  CREATED_AT("createdAt"),
+  COMPLETED_AT("completedAt"),
+  VERSION("version");
+
+  public static final Set<TaskField> ALL = Collections.unmodifiableSet(EnumSet.allOf(TaskField.class));
+
+  private final String property;
+
+  TaskField(String property) {
+    this.property = property;
+  }
+
+  public String property() {
+    return property;
+  }
+
+  // null ou vazio = todos os campos; nome desconhecido vira 400
+  public static Set<TaskField> parse(String fields) {
+    if (fields == null || fields.isBlank()) {
+      return ALL;
+    }
+    EnumSet<TaskField> selected = EnumSet.noneOf(TaskField.class);
+    for (String name : fields.split(",")) {
+      selected.add(of(name.trim()));
+    }
+    return Collections.unmodifiableSet(selected);
+  }
+
+  private static TaskField of(String property) {
+    for (TaskField field : values()) {
+      if (field.property.equals(property)) {
+        return field;
+      }
+    }
+    throw new IllegalArgumentException("Campo desconhecido em fields: " + property);
+  }
+}
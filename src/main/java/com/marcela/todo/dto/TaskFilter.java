@@ -0,0 +1,24 @@
+package com.marcela.todo.dto;
+
+import java.time.LocalDateTime;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+
+// filtros opcionais da listagem (GET /tasks?done=false&createdFrom=...)
+// intervalos são fechados no início e abertos no fim: [from, to)
+public record TaskFilter(
+    Boolean done,
+    @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime createdFrom,
+    @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime createdTo,
+    @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime completedFrom,
+    @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime completedTo,
+    String titlePrefix) {
+
+  public static final TaskFilter NONE = new TaskFilter(null, null, null, null, null, null);
+
+  public boolean isEmpty() {
+    return done == null && createdFrom == null && createdTo == null
+        && completedFrom == null && completedTo == null
+        && (titlePrefix == null || titlePrefix.isEmpty());
+  }
+}
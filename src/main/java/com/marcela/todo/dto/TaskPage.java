@@ -0,0 +1,9 @@
+package com.marcela.todo.dto;
+
+import com.marcela.todo.model.Task;
+import java.util.List;
+
+// página de tasks retornada pela listagem paginada
+// nextCursor é null quando não há mais páginas
+public record TaskPage(List<Task> items, String nextCursor) {
+}
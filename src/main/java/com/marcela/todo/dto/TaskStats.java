@@ -0,0 +1,11 @@
+package com.marcela.todo.dto;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+// resposta de GET /tasks/stats
+// averageSecondsToComplete: média de completedAt - createdAt das tasks concluídas (null se nenhuma)
+// completionsPerDay: conclusões por dia nos últimos dias pedidos; dias sem conclusão não aparecem
+public record TaskStats(long total, long open, long done, Double averageSecondsToComplete,
+    Map<LocalDate, Long> completionsPerDay) {
+}
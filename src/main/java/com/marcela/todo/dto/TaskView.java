@@ -0,0 +1,69 @@
+package com.marcela.todo.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.marcela.todo.model.Task;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+// task só para leitura, montada direto das colunas (sem entidade gerenciada pelo JPA)
+// id e version sempre vêm do banco (ETag, cursor); fields diz quais campos vão na resposta
+// com todos os campos o JSON é igual ao de Task
+@JsonSerialize(using = TaskView.Serializer.class)
+public record TaskView(Long id, String title, String description, Boolean done, LocalDateTime createdAt,
+    LocalDateTime completedAt, Long version, Set<TaskField> fields) {
+
+  public static TaskView of(Task task) {
+    return of(task, TaskField.ALL);
+  }
+
+  public static TaskView of(Task task, Set<TaskField> fields) {
+    return new TaskView(task.getId(), task.getTitle(), task.getDescription(), task.isDone(), task.getCreatedAt(),
+        task.getCompletedAt(), task.getVersion(), fields);
+  }
+
+  // só com os campos escolhidos (os outros ficam nulos/padrão), para o formato protobuf
+  public Task toTask() {
+    Task task = new Task();
+    task.setId(fields.contains(TaskField.ID) ? id : null);
+    task.setTitle(fields.contains(TaskField.TITLE) ? title : null);
+    task.setDescription(fields.contains(TaskField.DESCRIPTION) ? description : null);
+    task.setDone(fields.contains(TaskField.DONE) && Boolean.TRUE.equals(done));
+    task.setCreatedAt(fields.contains(TaskField.CREATED_AT) ? createdAt : null);
+    task.setCompletedAt(fields.contains(TaskField.COMPLETED_AT) ? completedAt : null);
+    task.setVersion(fields.contains(TaskField.VERSION) && version != null ? version : 0);
+    return task;
+  }
+
+  private Object value(TaskField field) {
+    return switch (field) {
+      case ID -> id;
+      case TITLE -> title;
+      case DESCRIPTION -> description;
+      case DONE -> done;
+      case CREATED_AT -> createdAt;
+      case COMPLETED_AT -> completedAt;
+      case VERSION -> version;
+    };
+  }
+
+  // escreve só os campos escolhidos, na ordem de Task; campo escolhido e nulo sai como null
+  static final class Serializer extends StdSerializer<TaskView> {
+
+    Serializer() {
+      super(TaskView.class);
+    }
+
+    @Override
+    public void serialize(TaskView view, JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeStartObject(view);
+      for (TaskField field : view.fields) {
+        provider.defaultSerializeField(field.property(), view.value(field), gen);
+      }
+      gen.writeEndObject();
+    }
+  }
+}
@@ -0,0 +1,8 @@
+package com.marcela.todo.dto;
+
+import java.util.List;
+
+// página da listagem paginada com tasks projetadas (TaskView)
+// nextCursor é null quando não há mais páginas
+public record TaskViewPage(List<TaskView> items, String nextCursor) {
+}
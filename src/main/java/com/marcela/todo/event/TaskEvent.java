@@ -0,0 +1,40 @@
+package com.marcela.todo.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.marcela.todo.model.Task;
+
+// evento publicado pelos services a cada alteração de task
+// os listeners usam @TransactionalEventListener, então só recebem alterações já commitadas
+// task é null em DELETED; previous é o estado antes da alteração (null em CREATED)
+// e não vai para o feed de alterações
+// ARCHIVED: a task só mudou para tasks_archive, então task e previous são o mesmo estado
+public record TaskEvent(Type type, Long taskId, Task task, @JsonIgnore Task previous) {
+
+  public enum Type {
+    CREATED, UPDATED, DONE, DELETED, ARCHIVED
+  }
+
+  public static TaskEvent created(Task task) {
+    return new TaskEvent(Type.CREATED, task.getId(), task, null);
+  }
+
+  public static TaskEvent updated(Task task, Task previous) {
+    return new TaskEvent(Type.UPDATED, task.getId(), task, previous);
+  }
+
+  // só é publicado quando a task estava aberta, então o estado anterior é a mesma task sem a conclusão
+  public static TaskEvent done(Task task) {
+    Task previous = task.copy();
+    previous.setDone(false);
+    previous.setCompletedAt(null);
+    return new TaskEvent(Type.DONE, task.getId(), task, previous);
+  }
+
+  public static TaskEvent deleted(Task previous) {
+    return new TaskEvent(Type.DELETED, previous.getId(), null, previous);
+  }
+
+  public static TaskEvent archived(Task task) {
+    return new TaskEvent(Type.ARCHIVED, task.getId(), task, task);
+  }
+}
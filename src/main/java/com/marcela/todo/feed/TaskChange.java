@@ -0,0 +1,6 @@
+package com.marcela.todo.feed;
+
+// uma alteração no feed: número de sequência e o TaskEvent já serializado em JSON
+// serializa uma vez na publicação, não uma vez por assinante
+record TaskChange(long sequence, String json) {
+}
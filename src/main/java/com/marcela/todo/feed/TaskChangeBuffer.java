@@ -0,0 +1,46 @@
+package com.marcela.todo.feed;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// buffer circular com as últimas alterações, numeradas a partir de 1
+// memória fixa: quando enche, a alteração mais antiga é sobrescrita
+// quem ficou para trás (ou pede uma sequência que não existe) recebe um gap e precisa recarregar
+final class TaskChangeBuffer {
+  private final TaskChange[] entries;
+  private long lastSequence;
+
+  TaskChangeBuffer(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity deve ser maior que zero");
+    }
+    this.entries = new TaskChange[capacity];
+  }
+
+  synchronized TaskChange append(String json) {
+    TaskChange change = new TaskChange(++lastSequence, json);
+    entries[(int) (lastSequence % entries.length)] = change;
+    return change;
+  }
+
+  synchronized long lastSequence() {
+    return lastSequence;
+  }
+
+  // até max alterações depois de sequence, em ordem
+  synchronized Slice readAfter(long sequence, int max) {
+    long oldest = Math.max(1, lastSequence - entries.length + 1);
+    if (sequence < 0 || sequence > lastSequence || sequence + 1 < oldest) {
+      return new Slice(true, lastSequence, List.of());
+    }
+    int count = (int) Math.min(max, lastSequence - sequence);
+    List<TaskChange> changes = new ArrayList<>(count);
+    for (long next = sequence + 1; next <= sequence + count; next++) {
+      changes.add(entries[(int) (next % entries.length)]);
+    }
+    return new Slice(false, lastSequence, changes);
+  }
+
+  record Slice(boolean gap, long lastSequence, List<TaskChange> changes) {
+  }
+}
@@ -0,0 +1,200 @@
+package com.marcela.todo.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marcela.todo.event.TaskEvent;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// feed de alterações de task para os clientes via Server-Sent Events
+// cada TaskEvent commitado entra no TaskChangeBuffer e os assinantes são avisados
+// o envio roda num pool fixo (sender-threads), no máximo um envio na fila por assinante: quem publica só grava
+// no buffer e nunca espera um cliente lento
+// até max-subscribers conexões; acima disso a assinatura é recusada com 503
+// quem reconecta com um Last-Event-ID que já saiu do buffer recebe "reset" e continua; quem estava conectado
+// e ficou para trás do buffer recebe "reset" e é desconectado, para um cliente lento não ocupar o pool
+@Component
+public class TaskChangeFeed {
+  public static final String CHANGE_EVENT = "task";
+  public static final String RESET_EVENT = "reset";
+  private static final int SEND_BATCH = 256;
+
+  private final ObjectMapper objectMapper;
+  private final TaskChangeBuffer buffer;
+  private final long timeoutMillis;
+  // a sequência recomeça quando a aplicação sobe; o prefixo invalida Last-Event-ID de antes do restart
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final int maxSubscribers;
+  private final ExecutorService sender;
+
+  public TaskChangeFeed(ObjectMapper objectMapper,
+      @Value("${task.changes.buffer-size:1024}") int bufferSize,
+      @Value("${task.changes.timeout:30m}") Duration timeout,
+      @Value("${task.changes.max-subscribers:1000}") int maxSubscribers,
+      @Value("${task.changes.sender-threads:4}") int senderThreads) {
+    this.objectMapper = objectMapper;
+    this.buffer = new TaskChangeBuffer(bufferSize);
+    this.timeoutMillis = timeout.toMillis();
+    this.maxSubscribers = maxSubscribers;
+    AtomicInteger threads = new AtomicInteger();
+    // a fila comporta um envio por assinante
+    this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(maxSubscribers), runnable -> {
+          Thread thread = new Thread(runnable, "task-changes-" + threads.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTaskEvent(TaskEvent event) {
+    String json;
+    try {
+      json = objectMapper.writeValueAsString(event);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Não foi possível serializar o evento da task " + event.taskId(), e);
+    }
+    buffer.append(json);
+    subscribers.forEach(Subscriber::schedule);
+  }
+
+  // sem Last-Event-ID o cliente recebe só as alterações novas
+  // com um Last-Event-ID ainda no buffer, recebe o que perdeu e continua de onde parou
+  // RejectedExecutionException (503) com max-subscribers conexões abertas
+  public SseEmitter subscribe(String lastEventId) {
+    SseEmitter emitter = new SseEmitter(timeoutMillis);
+    Subscriber subscriber = new Subscriber(emitter, resumePosition(lastEventId));
+    synchronized (subscribers) {
+      if (subscribers.size() >= maxSubscribers) {
+        throw new RejectedExecutionException("Limite de conexões em /tasks/changes atingido");
+      }
+      subscribers.add(subscriber);
+    }
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onError(error -> subscribers.remove(subscriber));
+    subscriber.schedule();
+    return emitter;
+  }
+
+  public int subscriberCount() {
+    return subscribers.size();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    sender.shutdownNow();
+  }
+
+  // -1 força um reset: id de outro processo, mal formado ou fora do buffer
+  long resumePosition(String lastEventId) {
+    if (lastEventId == null || lastEventId.isBlank()) {
+      return buffer.lastSequence();
+    }
+    String prefix = epoch + "-";
+    if (!lastEventId.startsWith(prefix)) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(lastEventId.substring(prefix.length()));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private String eventId(long sequence) {
+    return epoch + "-" + sequence;
+  }
+
+  private final class Subscriber implements Runnable {
+    private final SseEmitter emitter;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    // última sequência enviada; só a thread de envio mexe aqui
+    private long position;
+    // já recebeu tudo o que havia no buffer pelo menos uma vez
+    private boolean caughtUp;
+
+    Subscriber(SseEmitter emitter, long position) {
+      this.emitter = emitter;
+      this.position = position;
+    }
+
+    // no máximo um envio por assinante na fila; avisos durante o envio são absorvidos por ele
+    void schedule() {
+      if (scheduled.compareAndSet(false, true)) {
+        try {
+          sender.execute(this);
+        } catch (RejectedExecutionException e) {
+          // pool encerrado ou fila cheia: o cliente reconecta com o Last-Event-ID
+          close();
+        }
+      }
+    }
+
+    void close() {
+      subscribers.remove(this);
+      emitter.complete();
+    }
+
+    @Override
+    public void run() {
+      try {
+        if (!drain()) {
+          close();
+          return;
+        }
+      } catch (IOException | IllegalStateException e) {
+        // cliente desconectou ou o emitter já terminou (timeout)
+        subscribers.remove(this);
+        return;
+      }
+      scheduled.set(false);
+      // algo pode ter chegado entre o fim do drain e o set(false)
+      if (buffer.lastSequence() > position) {
+        schedule();
+      }
+    }
+
+    // false: o assinante ficou para trás do buffer e deve ser desconectado
+    private boolean drain() throws IOException {
+      while (true) {
+        TaskChangeBuffer.Slice slice = buffer.readAfter(position, SEND_BATCH);
+        if (slice.gap()) {
+          position = slice.lastSequence();
+          emitter.send(SseEmitter.event().id(eventId(position)).name(RESET_EVENT).data("{}", MediaType.APPLICATION_JSON));
+          if (caughtUp) {
+            return false;
+          }
+          continue;
+        }
+        if (slice.changes().isEmpty()) {
+          caughtUp = true;
+          return true;
+        }
+        for (TaskChange change : slice.changes()) {
+          emitter.send(SseEmitter.event()
+              .id(eventId(change.sequence()))
+              .name(CHANGE_EVENT)
+              .data(change.json(), MediaType.APPLICATION_JSON));
+          position = change.sequence();
+        }
+      }
+    }
+  }
+}
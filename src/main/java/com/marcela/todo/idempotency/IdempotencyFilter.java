@@ -0,0 +1,242 @@
+package com.marcela.todo.idempotency;
+
+import com.marcela.todo.ratelimit.ClientKeyResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+// POST com header Idempotency-Key: a primeira requisição executa e a resposta 2xx fica guardada;
+// repetir a chave (o retry de um timeout) devolve a mesma resposta sem chegar ao controller
+// - mesma chave com outro corpo: 422
+// - mesma chave ainda em execução: 409 com Retry-After
+// - corpo acima de maxBodyBytes: 413 (o corpo inteiro fica em memória para o hash)
+// a chave vale por cliente e por rota: o cliente é o mesmo do limite de requisições (header configurado ou IP),
+// então a chave de um cliente nunca devolve a resposta guardada para outro; sem o header nada muda
+public class IdempotencyFilter extends OncePerRequestFilter {
+  public static final String HEADER = "Idempotency-Key";
+  // marca as respostas repetidas, para o cliente (e para quem lê os logs) saber que nada foi criado de novo
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+  private static final int MAX_KEY_LENGTH = 255;
+
+  private final IdempotencyStore store;
+  private final ClientKeyResolver clients;
+  private final long maxBodyBytes;
+  private final Counter executed;
+  private final Counter replayed;
+  private final Counter inProgress;
+  private final Counter mismatch;
+
+  public IdempotencyFilter(IdempotencyStore store, ClientKeyResolver clients, long maxBodyBytes,
+      MeterRegistry meterRegistry) {
+    this.store = store;
+    this.clients = clients;
+    this.maxBodyBytes = maxBodyBytes;
+    this.executed = requests(meterRegistry, "executed");
+    this.replayed = requests(meterRegistry, "replayed");
+    this.inProgress = requests(meterRegistry, "in-progress");
+    this.mismatch = requests(meterRegistry, "mismatch");
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain chain) throws ServletException, IOException {
+    String idempotencyKey = request.getHeader(HEADER);
+    if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+      reject(response, HttpStatus.BAD_REQUEST,
+          "Idempotency-Key deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres");
+      return;
+    }
+
+    // o corpo é lido aqui para o hash e entregue de novo ao controller
+    // sem Content-Length (chunked) lê até um byte além do limite para saber se passou
+    if (request.getContentLengthLong() > maxBodyBytes) {
+      reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "Corpo deve ter no máximo " + maxBodyBytes + " bytes");
+      return;
+    }
+    byte[] body = request.getInputStream().readNBytes((int) Math.min(maxBodyBytes + 1, Integer.MAX_VALUE));
+    if (body.length > maxBodyBytes) {
+      reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "Corpo deve ter no máximo " + maxBodyBytes + " bytes");
+      return;
+    }
+    String key = sha256(clients.resolve(request) + '\n' + request.getRequestURI() + '\n' + idempotencyKey);
+    String requestHash = sha256(request.getContentType() + '\n', body);
+
+    IdempotencyStore.Claim claim = store.claim(key, requestHash);
+    switch (claim.outcome()) {
+      case REPLAY -> {
+        replayed.increment();
+        replay(response, claim.response());
+        return;
+      }
+      case IN_PROGRESS -> {
+        inProgress.increment();
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        reject(response, HttpStatus.CONFLICT, "Requisição com a mesma Idempotency-Key em andamento");
+        return;
+      }
+      case MISMATCH -> {
+        mismatch.increment();
+        reject(response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key já usada com outro corpo");
+        return;
+      }
+      case ACQUIRED -> executed.increment();
+    }
+
+    ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+    boolean stored = false;
+    try {
+      chain.doFilter(new CachedBodyRequest(request, body), wrapper);
+      // só sucesso é guardado: depois de um erro o cliente pode tentar de novo com a mesma chave
+      int status = wrapper.getStatus();
+      if (status >= 200 && status < 300 && !request.isAsyncStarted()) {
+        store.complete(key, new IdempotentResponse(requestHash, status, wrapper.getContentType(),
+            wrapper.getHeader(HttpHeaders.LOCATION), wrapper.getHeader(HttpHeaders.ETAG),
+            wrapper.getContentAsByteArray()));
+        stored = true;
+      }
+    } finally {
+      if (!stored) {
+        store.release(key);
+      }
+    }
+    wrapper.copyBodyToResponse();
+  }
+
+  private static void replay(HttpServletResponse response, IdempotentResponse stored) throws IOException {
+    response.setStatus(stored.status());
+    response.setHeader(REPLAYED_HEADER, "true");
+    if (stored.location() != null) {
+      response.setHeader(HttpHeaders.LOCATION, stored.location());
+    }
+    if (stored.etag() != null) {
+      response.setHeader(HttpHeaders.ETAG, stored.etag());
+    }
+    if (stored.contentType() != null) {
+      response.setContentType(stored.contentType());
+    }
+    response.setContentLength(stored.body().length);
+    response.getOutputStream().write(stored.body());
+  }
+
+  // mesmo corpo de erro do GlobalExceptionHandler, em JSON
+  private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+    response.setStatus(status.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response.getWriter().write("{\"error\":\"" + message + "\"}");
+  }
+
+  private static String sha256(String value) {
+    return sha256(value, new byte[0]);
+  }
+
+  private static String sha256(String prefix, byte[] bytes) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(prefix.getBytes(StandardCharsets.UTF_8));
+      digest.update(bytes);
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      // SHA-256 é obrigatório em toda JVM
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Counter requests(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("task.idempotency.requests")
+        .description("POSTs em /tasks com Idempotency-Key, por resultado")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  // devolve ao controller o corpo já lido pelo filtro
+  private static class CachedBodyRequest extends HttpServletRequestWrapper {
+    private final byte[] body;
+
+    CachedBodyRequest(HttpServletRequest request, byte[] body) {
+      super(request);
+      this.body = body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      ByteArrayInputStream in = new ByteArrayInputStream(body);
+      return new ServletInputStream() {
+        @Override
+        public int read() {
+          return in.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+          return in.read(buffer, offset, length);
+        }
+
+        @Override
+        public boolean isFinished() {
+          return in.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        // o corpo já está todo em memória: avisa de uma vez que há dados e que a leitura terminou
+        @Override
+        public void setReadListener(ReadListener listener) {
+          try {
+            if (!isFinished()) {
+              listener.onDataAvailable();
+            }
+            listener.onAllDataRead();
+          } catch (IOException e) {
+            listener.onError(e);
+          }
+        }
+      };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+      String encoding = getCharacterEncoding();
+      return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+          encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int getContentLength() {
+      return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+      return body.length;
+    }
+  }
+}
@@ -0,0 +1,195 @@
+package com.marcela.todo.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.marcela.todo.model.IdempotencyRecord;
+import com.marcela.todo.repository.IdempotencyRecordRepository;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+// chaves de idempotência: respostas guardadas em memória (limitadas pelo tamanho dos corpos e com validade `ttl`)
+// e, opcionalmente, na tabela idempotency_keys para valerem depois de um restart e entre instâncias
+// uma chave em execução fica reservada em inFlight: a segunda requisição com ela não executa de novo
+// com a tabela, a reserva também é uma linha inserida antes de executar, e vale para as outras instâncias;
+// uma reserva mais velha que lockTimeout é de uma instância que caiu no meio e pode ser assumida
+public class IdempotencyStore {
+  private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+  // chave, hashes e headers de cada entrada, além do corpo
+  private static final int ENTRY_OVERHEAD = 256;
+
+  public enum Outcome {
+    // a chave é nova e ficou reservada para quem chamou: executar e depois complete ou release
+    ACQUIRED,
+    // já existe resposta para a chave e o mesmo corpo
+    REPLAY,
+    // a mesma chave está em execução agora
+    IN_PROGRESS,
+    // a chave já foi usada com outro corpo
+    MISMATCH
+  }
+
+  // response só no REPLAY
+  public record Claim(Outcome outcome, IdempotentResponse response) {
+  }
+
+  private final Cache<String, IdempotentResponse> responses;
+  private final ConcurrentHashMap<String, String> inFlight = new ConcurrentHashMap<>();
+  // null: só em memória
+  private final IdempotencyRecordRepository repository;
+  private final Duration ttl;
+  private final Duration lockTimeout;
+  private final Clock clock;
+
+  public IdempotencyStore(long maxBytes, Duration ttl, Duration lockTimeout, IdempotencyRecordRepository repository,
+      Clock clock) {
+    this.responses = Caffeine.newBuilder()
+        .maximumWeight(maxBytes)
+        .weigher((String key, IdempotentResponse response) -> response.body().length + ENTRY_OVERHEAD)
+        .expireAfterWrite(ttl)
+        .build();
+    this.repository = repository;
+    this.ttl = ttl;
+    this.lockTimeout = lockTimeout;
+    this.clock = clock;
+  }
+
+  public Claim claim(String key, String requestHash) {
+    IdempotentResponse stored = find(key);
+    if (stored != null) {
+      return answer(stored, requestHash);
+    }
+    String running = inFlight.putIfAbsent(key, requestHash);
+    if (running != null) {
+      return new Claim(running.equals(requestHash) ? Outcome.IN_PROGRESS : Outcome.MISMATCH, null);
+    }
+    // quem terminou entre o find e o putIfAbsent já deixou a resposta no cache (complete guarda antes de liberar)
+    stored = responses.getIfPresent(key);
+    if (stored != null) {
+      inFlight.remove(key, requestHash);
+      return answer(stored, requestHash);
+    }
+    if (repository != null) {
+      Claim elsewhere = reserve(key, requestHash);
+      if (elsewhere != null) {
+        inFlight.remove(key, requestHash);
+        return elsewhere;
+      }
+    }
+    return new Claim(Outcome.ACQUIRED, null);
+  }
+
+  // guarda a resposta e libera a reserva; falha ao gravar na tabela só perde a persistência daquela chave
+  public void complete(String key, IdempotentResponse response) {
+    try {
+      responses.put(key, response);
+      if (repository != null && repository.complete(key, response.status(), response.contentType(),
+          response.location(), response.etag(), response.body(), now()) == 0) {
+        // sem reserva na tabela (não foi possível inserir no claim, ou venceu)
+        repository.save(new IdempotencyRecord(key, response.requestHash(), response.status(),
+            response.contentType(), response.location(), response.etag(), response.body(), now()));
+      }
+    } catch (DataAccessException e) {
+      log.warn("Não foi possível gravar a chave de idempotência {}", key, e);
+    } finally {
+      inFlight.remove(key);
+    }
+  }
+
+  // execução sem resposta para guardar (erro, 4xx): a mesma chave pode ser tentada de novo
+  public void release(String key) {
+    try {
+      if (repository != null) {
+        repository.deleteReservation(key);
+      }
+    } catch (DataAccessException e) {
+      // a reserva fica até vencer (lockTimeout)
+      log.warn("Não foi possível liberar a chave de idempotência {}", key, e);
+    } finally {
+      inFlight.remove(key);
+    }
+  }
+
+  // apaga da tabela as chaves vencidas; as da memória vencem sozinhas
+  @Scheduled(initialDelayString = "${task.idempotency.purge-interval:1h}",
+      fixedDelayString = "${task.idempotency.purge-interval:1h}")
+  public int purgeExpired() {
+    if (repository == null) {
+      return 0;
+    }
+    return repository.deleteCreatedBefore(now().minus(ttl));
+  }
+
+  private IdempotentResponse find(String key) {
+    IdempotentResponse stored = responses.getIfPresent(key);
+    if (stored != null || repository == null) {
+      return stored;
+    }
+    LocalDateTime cutoff = now().minus(ttl);
+    stored = repository.findById(key)
+        .filter(record -> !record.isReserved() && record.getCreatedAt().isAfter(cutoff))
+        .map(IdempotencyStore::toResponse)
+        .orElse(null);
+    if (stored != null) {
+      responses.put(key, stored);
+    }
+    return stored;
+  }
+
+  // insere a reserva da chave na tabela; null se conseguiu, senão a resposta para quem chamou
+  // sem acesso à tabela segue só com a reserva em memória, como no complete
+  private Claim reserve(String key, String requestHash) {
+    try {
+      for (int attempt = 0; attempt < 2; attempt++) {
+        try {
+          repository.saveAndFlush(IdempotencyRecord.reservation(key, requestHash, now()));
+          return null;
+        } catch (DataIntegrityViolationException e) {
+          // a chave já tem linha: outra instância executando, resposta guardada ou linha que não vale mais
+          if (repository.deleteStale(key, now().minus(ttl), now().minus(lockTimeout)) > 0) {
+            continue;
+          }
+          Optional<IdempotencyRecord> existing = repository.findById(key);
+          if (existing.isEmpty()) {
+            // liberada entre o INSERT e a leitura
+            continue;
+          }
+          IdempotencyRecord record = existing.get();
+          if (record.isReserved()) {
+            return new Claim(record.getRequestHash().equals(requestHash) ? Outcome.IN_PROGRESS : Outcome.MISMATCH,
+                null);
+          }
+          IdempotentResponse stored = toResponse(record);
+          responses.put(key, stored);
+          return answer(stored, requestHash);
+        }
+      }
+      return new Claim(Outcome.IN_PROGRESS, null);
+    } catch (DataAccessException e) {
+      log.warn("Não foi possível reservar a chave de idempotência {}", key, e);
+      return null;
+    }
+  }
+
+  private static IdempotentResponse toResponse(IdempotencyRecord record) {
+    return new IdempotentResponse(record.getRequestHash(), record.getStatus(), record.getContentType(),
+        record.getLocation(), record.getEtag(), record.getBody());
+  }
+
+  private static Claim answer(IdempotentResponse stored, String requestHash) {
+    return stored.requestHash().equals(requestHash)
+        ? new Claim(Outcome.REPLAY, stored)
+        : new Claim(Outcome.MISMATCH, null);
+  }
+
+  private LocalDateTime now() {
+    return LocalDateTime.now(clock);
+  }
+}
@@ -0,0 +1,7 @@
+package com.marcela.todo.idempotency;
+
+// resposta 2xx de um POST com Idempotency-Key, devolvida igual quando a chave se repete
+// requestHash identifica o corpo que a gerou
+public record IdempotentResponse(String requestHash, int status, String contentType, String location, String etag,
+    byte[] body) {
+}
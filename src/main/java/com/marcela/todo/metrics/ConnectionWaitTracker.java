@@ -0,0 +1,59 @@
+package com.marcela.todo.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+// soma o tempo que a thread atual esperou por conexões do Hikari
+// envolve o tracker do Micrometer (hikaricp.connections.*), que continua recebendo tudo
+// o Hikari chama recordConnectionAcquiredNanos na própria thread que pediu a conexão,
+// então o filtro de métricas consegue separar a espera de cada requisição
+public class ConnectionWaitTracker implements MetricsTrackerFactory {
+  private static final ThreadLocal<long[]> WAIT_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+  private final MetricsTrackerFactory delegate;
+
+  public ConnectionWaitTracker(MetricsTrackerFactory delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public IMetricsTracker create(String poolName, PoolStats poolStats) {
+    IMetricsTracker tracker = delegate.create(poolName, poolStats);
+    return new IMetricsTracker() {
+      @Override
+      public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        tracker.recordConnectionCreatedMillis(connectionCreatedMillis);
+      }
+
+      @Override
+      public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        WAIT_NANOS.get()[0] += elapsedAcquiredNanos;
+        tracker.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+      }
+
+      @Override
+      public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        tracker.recordConnectionUsageMillis(elapsedBorrowedMillis);
+      }
+
+      @Override
+      public void recordConnectionTimeout() {
+        tracker.recordConnectionTimeout();
+      }
+
+      @Override
+      public void close() {
+        tracker.close();
+      }
+    };
+  }
+
+  public static void reset() {
+    WAIT_NANOS.get()[0] = 0;
+  }
+
+  public static long current() {
+    return WAIT_NANOS.get()[0];
+  }
+}
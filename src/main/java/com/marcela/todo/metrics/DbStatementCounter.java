@@ -0,0 +1,23 @@
+package com.marcela.todo.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// conta os comandos SQL preparados pelo Hibernate na thread atual
+// registrado como StatementInspector; o filtro de métricas zera e lê a contagem por requisição
+public class DbStatementCounter implements StatementInspector {
+  private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+  @Override
+  public String inspect(String sql) {
+    COUNT.get()[0]++;
+    return sql;
+  }
+
+  public static void reset() {
+    COUNT.get()[0] = 0;
+  }
+
+  public static int current() {
+    return COUNT.get()[0];
+  }
+}
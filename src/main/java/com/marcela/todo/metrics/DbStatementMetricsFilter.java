@@ -0,0 +1,56 @@
+package com.marcela.todo.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+// registra quantos comandos SQL cada requisição fez (task.db.statements, por método e rota)
+// e quanto tempo ela esperou por conexão do pool (task.db.pool.wait): latência alta com espera alta
+// é pool pequeno para a carga, não banco lento
+// comandos feitos fora da thread da requisição (ex.: exportação em streaming) não entram na conta
+public class DbStatementMetricsFilter extends OncePerRequestFilter {
+  public static final String METRIC = "task.db.statements";
+  public static final String POOL_WAIT_METRIC = "task.db.pool.wait";
+
+  private final MeterRegistry meterRegistry;
+
+  public DbStatementMetricsFilter(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain chain) throws ServletException, IOException {
+    DbStatementCounter.reset();
+    ConnectionWaitTracker.reset();
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+      DistributionSummary.builder(METRIC)
+          .description("Comandos SQL executados por requisição")
+          .baseUnit("statements")
+          .tag("method", request.getMethod())
+          .tag("uri", uri)
+          .publishPercentiles(0.5, 0.95, 0.99)
+          .register(meterRegistry)
+          .record(DbStatementCounter.current());
+      Timer.builder(POOL_WAIT_METRIC)
+          .description("Tempo esperando conexão do pool por requisição")
+          .tag("method", request.getMethod())
+          .tag("uri", uri)
+          .publishPercentiles(0.5, 0.95, 0.99)
+          .register(meterRegistry)
+          .record(ConnectionWaitTracker.current(), TimeUnit.NANOSECONDS);
+    }
+  }
+}
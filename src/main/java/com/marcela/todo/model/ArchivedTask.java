@@ -0,0 +1,93 @@
+package com.marcela.todo.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.LocalDateTime;
+import org.springframework.data.domain.Persistable;
+
+// task concluída movida da tabela tasks pelo TaskArchiver; somente leitura
+// mesmas colunas de Task (o id é o mesmo, não há sequence aqui) e o momento do arquivamento
+@Entity
+@Table(name = "tasks_archive", indexes = {
+    @Index(name = "idx_tasks_archive_done_created_at", columnList = "done, created_at"),
+    @Index(name = "idx_tasks_archive_completed_at", columnList = "completed_at"),
+    @Index(name = "idx_tasks_archive_title", columnList = "title")
+})
+public class ArchivedTask implements Persistable<Long> {
+  @Id
+  private Long id;
+
+  private String title;
+
+  private String description;
+
+  private boolean done;
+
+  private LocalDateTime createdAt;
+
+  private LocalDateTime completedAt;
+
+  // versão da task no momento do arquivamento; continua sendo o ETag
+  private long version;
+
+  private LocalDateTime archivedAt;
+
+  // com id atribuído, o saveAll faria um SELECT por task para decidir entre INSERT e UPDATE
+  // toda ArchivedTask criada aqui é nova, então vai direto para o INSERT em lote
+  @Transient
+  private boolean isNew = true;
+
+  protected ArchivedTask() {
+  }
+
+  public static ArchivedTask of(Task task, LocalDateTime archivedAt) {
+    ArchivedTask archived = new ArchivedTask();
+    archived.id = task.getId();
+    archived.title = task.getTitle();
+    archived.description = task.getDescription();
+    archived.done = task.isDone();
+    archived.createdAt = task.getCreatedAt();
+    archived.completedAt = task.getCompletedAt();
+    archived.version = task.getVersion();
+    archived.archivedAt = archivedAt;
+    return archived;
+  }
+
+  // a API devolve tasks arquivadas no mesmo formato das outras
+  public Task toTask() {
+    Task task = new Task();
+    task.setId(id);
+    task.setTitle(title);
+    task.setDescription(description);
+    task.setDone(done);
+    task.setCreatedAt(createdAt);
+    task.setCompletedAt(completedAt);
+    task.setVersion(version);
+    return task;
+  }
+
+  @Override
+  public Long getId() {
+    return id;
+  }
+
+  public LocalDateTime getArchivedAt() {
+    return archivedAt;
+  }
+
+  @Override
+  public boolean isNew() {
+    return isNew;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.isNew = false;
+  }
+}
@@ -0,0 +1,121 @@
+package com.marcela.todo.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.LocalDateTime;
+import org.springframework.data.domain.Persistable;
+
+// resposta de um POST com Idempotency-Key, guardada para sobreviver a um restart (task.idempotency.persist)
+// a tabela é criada mesmo com a persistência desligada; só recebe linhas com ela ligada
+// enquanto a primeira requisição executa, a linha é uma reserva (status 0, sem corpo): outra instância que tenta
+// inserir a mesma chave falha na chave primária e responde 409
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at")
+})
+public class IdempotencyRecord implements Persistable<String> {
+  public static final int RESERVED = 0;
+
+  // SHA-256 (hex) do cliente + rota + chave enviada por ele
+  @Id
+  @Column(length = 64)
+  private String id;
+
+  // SHA-256 do corpo da requisição original: a mesma chave com outro corpo é recusada
+  @Column(length = 64, nullable = false)
+  private String requestHash;
+
+  private int status;
+
+  private String contentType;
+
+  private String location;
+
+  private String etag;
+
+  // até 16MB (mediumblob no MySQL)
+  @Lob
+  @Column(length = 16_777_215)
+  private byte[] body;
+
+  private LocalDateTime createdAt;
+
+  // id atribuído: sem isso o save faria um SELECT antes do INSERT
+  @Transient
+  private boolean isNew = true;
+
+  protected IdempotencyRecord() {
+  }
+
+  public IdempotencyRecord(String id, String requestHash, int status, String contentType, String location,
+      String etag, byte[] body, LocalDateTime createdAt) {
+    this.id = id;
+    this.requestHash = requestHash;
+    this.status = status;
+    this.contentType = contentType;
+    this.location = location;
+    this.etag = etag;
+    this.body = body;
+    this.createdAt = createdAt;
+  }
+
+  // reserva de uma chave em execução
+  public static IdempotencyRecord reservation(String id, String requestHash, LocalDateTime createdAt) {
+    return new IdempotencyRecord(id, requestHash, RESERVED, null, null, null, null, createdAt);
+  }
+
+  public boolean isReserved() {
+    return status == RESERVED;
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  public String getRequestHash() {
+    return requestHash;
+  }
+
+  public int getStatus() {
+    return status;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public String getLocation() {
+    return location;
+  }
+
+  public String getEtag() {
+    return etag;
+  }
+
+  public byte[] getBody() {
+    return body;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  @Override
+  public boolean isNew() {
+    return isNew;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.isNew = false;
+  }
+}
@@ -4,16 +4,29 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+// índices dos filtros da listagem (done + createdAt, completedAt e prefixo de title)
+@Table(name = "tasks", indexes = {
+    @Index(name = "idx_tasks_done_created_at", columnList = "done, created_at"),
+    @Index(name = "idx_tasks_completed_at", columnList = "completed_at"),
+    @Index(name = "idx_tasks_title", columnList = "title")
+})
 public class Task {
+  // sequence com pooled optimizer: o Hibernate reserva 50 ids por ida ao banco
+  // e consegue agrupar os INSERTs em lote (IDENTITY desliga o batch de inserts)
+  // no MySQL, que não tem sequence, o Hibernate emula com a tabela task_seq
+  // bancos da época do IDENTITY: o TaskSequenceAligner ajusta task_seq na subida (ver README)
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+  @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
   private Long id;
 
   @NotBlank(message = "Título é obrigatório")
@@ -27,6 +40,11 @@ public class Task {
 
   private LocalDateTime completedAt;
 
+  // versão para lock otimista: incrementada a cada alteração e usada como ETag
+  // um UPDATE com versão antiga não altera nada e vira 412 na API
+  @Version
+  private long version;
+
   // Preenche o campo createdAt automaticamente
   @PrePersist
   protected void onCreate() {
@@ -83,6 +101,27 @@ public class Task {
     this.completedAt = completedAt;
   }
 
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
+  // cópia solta, fora do contexto de persistência (estado anterior nos eventos, escritas do write-behind)
+  public Task copy() {
+    Task copy = new Task();
+    copy.setId(id);
+    copy.setTitle(title);
+    copy.setDescription(description);
+    copy.setDone(done);
+    copy.setCreatedAt(createdAt);
+    copy.setCompletedAt(completedAt);
+    copy.setVersion(version);
+    return copy;
+  }
+
   // metodo opcional para marcar como concluída
   // isso facilita quando eu for implementar a API
   /*
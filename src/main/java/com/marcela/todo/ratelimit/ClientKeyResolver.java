@@ -0,0 +1,24 @@
+package com.marcela.todo.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// quem é o cliente de uma requisição: o valor do header configurado (task.rate-limit.client-header),
+// quando há um proxy na frente que o preenche, ou o IP
+public class ClientKeyResolver {
+  // null: sempre o IP
+  private final String clientHeader;
+
+  public ClientKeyResolver(String clientHeader) {
+    this.clientHeader = clientHeader == null || clientHeader.isBlank() ? null : clientHeader;
+  }
+
+  public String resolve(HttpServletRequest request) {
+    if (clientHeader != null) {
+      String client = request.getHeader(clientHeader);
+      if (client != null && !client.isBlank()) {
+        return client;
+      }
+    }
+    return request.getRemoteAddr();
+  }
+}
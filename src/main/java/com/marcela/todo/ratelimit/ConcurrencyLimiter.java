@@ -0,0 +1,34 @@
+package com.marcela.todo.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// load shedding: até maxConcurrent requisições atendidas ao mesmo tempo
+// as demais esperam uma vaga por no máximo maxQueueWait; passou disso, a fila já está mais lenta que o cliente
+// aguenta e é melhor recusar logo do que segurar a thread (e depois uma conexão do pool)
+public class ConcurrencyLimiter {
+  private final int maxConcurrent;
+  private final Semaphore permits;
+  private final long maxQueueWaitNanos;
+
+  public ConcurrencyLimiter(int maxConcurrent, Duration maxQueueWait) {
+    this.maxConcurrent = maxConcurrent;
+    this.permits = new Semaphore(maxConcurrent);
+    this.maxQueueWaitNanos = maxQueueWait.toNanos();
+  }
+
+  // o caminho comum (há vaga) é um CAS; só quem encontra tudo ocupado entra na fila
+  public boolean tryAcquire() throws InterruptedException {
+    return permits.tryAcquire() || (maxQueueWaitNanos > 0
+        && permits.tryAcquire(maxQueueWaitNanos, TimeUnit.NANOSECONDS));
+  }
+
+  public void release() {
+    permits.release();
+  }
+
+  public int active() {
+    return maxConcurrent - permits.availablePermits();
+  }
+}
@@ -0,0 +1,51 @@
+package com.marcela.todo.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// token bucket por chave no formato GCRA: em vez de contar tokens, guarda o instante em que o balde volta a
+// ficar cheio (TAT) num AtomicLong por chave e avança com compareAndSet, sem lock
+// `rate` pedidos por segundo em média, com rajadas de até `burst` pedidos
+public class GcraRateLimiter {
+  // nanos entre dois pedidos na taxa média
+  private final long interval;
+  // até onde o TAT pode ir à frente do relógio: burst pedidos
+  private final long capacity;
+  private final LongSupplier nanoClock;
+  // uma chave parada por `capacity` já tem o balde cheio; descartá-la dá no mesmo que manter
+  private final Cache<String, AtomicLong> arrivals;
+
+  public GcraRateLimiter(double rate, int burst, int maxKeys, LongSupplier nanoClock) {
+    if (rate <= 0 || burst < 1) {
+      throw new IllegalArgumentException("rate e burst devem ser positivos");
+    }
+    this.interval = Math.max(1, (long) (1_000_000_000L / rate));
+    this.capacity = interval * burst;
+    this.nanoClock = nanoClock;
+    this.arrivals = Caffeine.newBuilder()
+        .maximumSize(maxKeys)
+        .expireAfterAccess(Duration.ofNanos(capacity))
+        .ticker(nanoClock::getAsLong)
+        .build();
+  }
+
+  // 0 quando o pedido pode passar; senão, quantos nanos faltam para o próximo ser aceito
+  public long tryAcquire(String key) {
+    long now = nanoClock.getAsLong();
+    AtomicLong tat = arrivals.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+    while (true) {
+      long current = tat.get();
+      long next = Math.max(current, now) + interval;
+      long excess = next - now - capacity;
+      if (excess > 0) {
+        return excess;
+      }
+      if (tat.compareAndSet(current, next)) {
+        return 0;
+      }
+    }
+  }
+}
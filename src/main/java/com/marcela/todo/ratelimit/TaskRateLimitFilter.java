@@ -0,0 +1,98 @@
+package com.marcela.todo.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+// limites de /tasks antes do controller (e portanto antes de qualquer consulta):
+// 1. taxa por cliente, separada para leituras (GET/HEAD) e escritas: acima dela 429 com Retry-After
+// 2. concorrência total: sem vaga dentro do tempo máximo de fila, 503 com Retry-After
+// o cliente é o valor do header configurado (quando há um na frente que o preenche) ou o IP
+public class TaskRateLimitFilter extends OncePerRequestFilter {
+  private static final Set<String> READS = Set.of("GET", "HEAD");
+
+  private final GcraRateLimiter reads;
+  private final GcraRateLimiter writes;
+  private final ConcurrencyLimiter concurrency;
+  private final ClientKeyResolver clients;
+  private final Counter readsLimited;
+  private final Counter writesLimited;
+  private final Counter readsShed;
+  private final Counter writesShed;
+
+  public TaskRateLimitFilter(GcraRateLimiter reads, GcraRateLimiter writes, ConcurrencyLimiter concurrency,
+      String clientHeader, MeterRegistry meterRegistry) {
+    this.reads = reads;
+    this.writes = writes;
+    this.concurrency = concurrency;
+    this.clients = new ClientKeyResolver(clientHeader);
+    this.readsLimited = rejected(meterRegistry, "read", "rate-limit");
+    this.writesLimited = rejected(meterRegistry, "write", "rate-limit");
+    this.readsShed = rejected(meterRegistry, "read", "overload");
+    this.writesShed = rejected(meterRegistry, "write", "overload");
+    Gauge.builder("task.requests.active", concurrency, ConcurrencyLimiter::active)
+        .description("Requisições de /tasks em atendimento")
+        .register(meterRegistry);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain chain) throws ServletException, IOException {
+    boolean read = READS.contains(request.getMethod());
+    long wait = (read ? reads : writes).tryAcquire(clients.resolve(request));
+    if (wait > 0) {
+      (read ? readsLimited : writesLimited).increment();
+      // Retry-After em segundos inteiros, arredondado para cima
+      long seconds = Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+      reject(response, HttpStatus.TOO_MANY_REQUESTS, seconds, "Limite de requisições excedido");
+      return;
+    }
+
+    boolean acquired;
+    try {
+      acquired = concurrency.tryAcquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      (read ? readsShed : writesShed).increment();
+      reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Servidor sobrecarregado");
+      return;
+    }
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      concurrency.release();
+    }
+  }
+
+  // mesmo corpo de erro do GlobalExceptionHandler, em JSON
+  private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds,
+      String message) throws IOException {
+    response.setStatus(status.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response.getWriter().write("{\"error\":\"" + message + "\"}");
+  }
+
+  private static Counter rejected(MeterRegistry meterRegistry, String kind, String reason) {
+    return Counter.builder("task.requests.rejected")
+        .description("Requisições de /tasks recusadas antes do controller")
+        .tags("kind", kind, "reason", reason)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,68 @@
+package com.marcela.todo.replica;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+// read-your-writes: depois de uma escrita, as leituras do mesmo cliente vão para o primário por `window`
+// a escrita devolve um cookie com o horário dela; enquanto ele estiver dentro da janela,
+// a requisição roda marcada para o primário (e passa longe dos caches em memória)
+// sem estado no servidor: funciona com várias instâncias atrás de um balanceador
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+  public static final String COOKIE = "todo-last-write";
+  private static final Set<String> WRITES = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+  private final Duration window;
+  private final Clock clock;
+
+  public ReadYourWritesFilter(Duration window, Clock clock) {
+    this.window = window;
+    this.clock = clock;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain chain) throws ServletException, IOException {
+    long now = clock.millis();
+    if (WRITES.contains(request.getMethod())) {
+      // antes do chain: depois o corpo pode já ter sido enviado e o cookie não entra mais
+      Cookie cookie = new Cookie(COOKIE, Long.toString(now));
+      cookie.setPath("/tasks");
+      cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+      cookie.setHttpOnly(true);
+      response.addCookie(cookie);
+    }
+    boolean pinned = withinWindow(request, now) && ReplicaRouting.pin();
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      if (pinned) {
+        ReplicaRouting.unpin();
+      }
+    }
+  }
+
+  private boolean withinWindow(HttpServletRequest request, long now) {
+    if (request.getCookies() == null) {
+      return false;
+    }
+    for (Cookie cookie : request.getCookies()) {
+      if (COOKIE.equals(cookie.getName())) {
+        try {
+          long lastWrite = Long.parseLong(cookie.getValue());
+          return now - lastWrite < window.toMillis();
+        } catch (NumberFormatException e) {
+          return false;
+        }
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,28 @@
+package com.marcela.todo.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.Closeable;
+import java.util.List;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+// DataSource da aplicação quando há réplicas (task.replica.urls)
+// a conexão real só é pedida no primeiro comando SQL; até lá a transação já marcou a conexão como read-only
+// (@Transactional(readOnly = true) e as leituras do Spring Data), e aí ela vem do ReplicaRoutingDataSource;
+// o resto vai para o primário
+public class ReplicaDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+  private final HikariDataSource primary;
+  private final List<HikariDataSource> replicas;
+
+  public ReplicaDataSource(HikariDataSource primary, List<HikariDataSource> replicas) {
+    super(primary);
+    this.primary = primary;
+    this.replicas = List.copyOf(replicas);
+    setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, this.replicas));
+  }
+
+  @Override
+  public void close() {
+    replicas.forEach(HikariDataSource::close);
+    primary.close();
+  }
+}
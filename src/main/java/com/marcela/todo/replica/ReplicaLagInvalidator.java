@@ -0,0 +1,49 @@
+package com.marcela.todo.replica;
+
+import com.marcela.todo.cache.TaskListResponseCache;
+import com.marcela.todo.event.TaskEvent;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.springframework.cache.Cache;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// segunda invalidação dos caches em memória, maxLag depois de cada alteração
+// a primeira (no commit) não basta com réplicas: até a réplica alcançar o primário, a leitura de outro
+// cliente pode trazer o estado antigo de volta para o cache, e ele ficaria lá até a próxima alteração
+public class ReplicaLagInvalidator {
+  private final Cache tasksCache;
+  // null com task.list-cache.enabled=false
+  private final TaskListResponseCache listCache;
+  private final long maxLagMillis;
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "replica-lag-invalidator");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public ReplicaLagInvalidator(Cache tasksCache, TaskListResponseCache listCache, Duration maxLag) {
+    this.tasksCache = tasksCache;
+    this.listCache = listCache;
+    this.maxLagMillis = maxLag.toMillis();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTaskEvent(TaskEvent event) {
+    scheduler.schedule(() -> {
+      if (tasksCache != null) {
+        tasksCache.evict(event.taskId());
+      }
+      if (listCache != null) {
+        listCache.invalidateAll();
+      }
+    }, maxLagMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    scheduler.shutdownNow();
+  }
+}
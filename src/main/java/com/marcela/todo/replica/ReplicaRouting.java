@@ -0,0 +1,48 @@
+package com.marcela.todo.replica;
+
+import java.util.function.Supplier;
+
+// força as transações read-only da thread atual para o primário (com réplicas configuradas)
+// usado na janela de read-your-writes e por quem monta estado em memória a partir do banco
+// (uma réplica atrasada deixaria de fora o que ainda não replicou); sem réplicas não faz nada
+public final class ReplicaRouting {
+  private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+  private ReplicaRouting() {
+  }
+
+  public static boolean primaryRequired() {
+    return Boolean.TRUE.equals(PRIMARY.get());
+  }
+
+  public static <T> T onPrimary(Supplier<T> action) {
+    boolean pinned = pin();
+    try {
+      return action.get();
+    } finally {
+      if (pinned) {
+        unpin();
+      }
+    }
+  }
+
+  public static void onPrimary(Runnable action) {
+    onPrimary(() -> {
+      action.run();
+      return null;
+    });
+  }
+
+  // marca a thread; false se ela já estava marcada (quem marcou é quem desmarca)
+  static boolean pin() {
+    if (primaryRequired()) {
+      return false;
+    }
+    PRIMARY.set(Boolean.TRUE);
+    return true;
+  }
+
+  static void unpin() {
+    PRIMARY.remove();
+  }
+}
@@ -0,0 +1,37 @@
+package com.marcela.todo.replica;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// DataSource das transações read-only: alterna entre as réplicas (round-robin)
+// e cai no primário quando ReplicaRouting.primaryRequired()
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+  private static final String PRIMARY = "primary";
+
+  private final int replicas;
+  private final AtomicInteger next = new AtomicInteger();
+
+  ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas) {
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(PRIMARY, primary);
+    for (int i = 0; i < replicas.size(); i++) {
+      targets.put(i, replicas.get(i));
+    }
+    this.replicas = replicas.size();
+    setTargetDataSources(targets);
+    setLenientFallback(false);
+    afterPropertiesSet();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (ReplicaRouting.primaryRequired()) {
+      return PRIMARY;
+    }
+    return Math.floorMod(next.getAndIncrement(), replicas);
+  }
+}
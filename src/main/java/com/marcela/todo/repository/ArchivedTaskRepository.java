@@ -0,0 +1,33 @@
+package com.marcela.todo.repository;
+
+import com.marcela.todo.dto.TaskField;
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.dto.TaskView;
+import com.marcela.todo.model.ArchivedTask;
+import java.util.List;
+import java.util.Set;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+// tabela tasks_archive: só recebe INSERTs do TaskArchiver e DELETEs da API
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long>, JpaSpecificationExecutor<ArchivedTask>,
+    TaskViewQueries {
+
+  default List<TaskView> findViews(TaskFilter filter, long afterId, int limit, Set<TaskField> fields) {
+    return findViews(ArchivedTask.class, filter, afterId, limit, fields);
+  }
+
+  @Modifying
+  @Query("delete from ArchivedTask a where a.id = :id")
+  int removeById(Long id);
+
+  // mesma agregação de TaskRepository.aggregateStats, para /tasks/stats contar também as arquivadas
+  @Query("select new com.marcela.todo.repository.TaskStatsRow(a.done, cast(a.completedAt as LocalDate), count(a), "
+      + "count(a.createdAt), sum((a.completedAt - a.createdAt) by second)) "
+      + "from ArchivedTask a group by a.done, cast(a.completedAt as LocalDate)")
+  List<TaskStatsRow> aggregateStats();
+}
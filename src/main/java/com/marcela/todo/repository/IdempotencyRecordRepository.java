@@ -0,0 +1,41 @@
+package com.marcela.todo.repository;
+
+import com.marcela.todo.model.IdempotencyRecord;
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+// tabela idempotency_keys: respostas de POST com Idempotency-Key (ver IdempotencyStore)
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+  // troca a reserva pela resposta; 0 se a reserva não existe mais (venceu e outra instância assumiu a chave)
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("update IdempotencyRecord r set r.status = :status, r.contentType = :contentType, r.location = :location,"
+      + " r.etag = :etag, r.body = :body, r.createdAt = :createdAt"
+      + " where r.id = :id and r.status = " + IdempotencyRecord.RESERVED)
+  int complete(String id, int status, String contentType, String location, String etag, byte[] body,
+      LocalDateTime createdAt);
+
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("delete from IdempotencyRecord r where r.id = :id and r.status = " + IdempotencyRecord.RESERVED)
+  int deleteReservation(String id);
+
+  // apaga a linha da chave se ela não vale mais: reserva abandonada (instância caiu no meio) ou resposta vencida
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("delete from IdempotencyRecord r where r.id = :id and (r.createdAt < :expiredBefore"
+      + " or (r.status = " + IdempotencyRecord.RESERVED + " and r.createdAt < :abandonedBefore))")
+  int deleteStale(String id, LocalDateTime expiredBefore, LocalDateTime abandonedBefore);
+
+  // limpeza periódica das chaves vencidas, usando o índice de created_at
+  @Transactional
+  @Modifying
+  @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+  int deleteCreatedBefore(LocalDateTime cutoff);
+}
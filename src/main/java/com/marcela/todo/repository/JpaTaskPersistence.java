@@ -0,0 +1,60 @@
+package com.marcela.todo.repository;
+
+import com.marcela.todo.dto.TaskField;
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.dto.TaskView;
+import com.marcela.todo.model.Task;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+// TaskPersistence sobre o Spring Data JPA
+@Repository
+@Profile("!mmap & !reactive")
+public class JpaTaskPersistence implements TaskPersistence {
+  private final TaskRepository taskRepository;
+
+  public JpaTaskPersistence(TaskRepository taskRepository) {
+    this.taskRepository = taskRepository;
+  }
+
+  // flush aqui para a versão nova já sair no retorno (e no ETag)
+  // e para uma escrita concorrente falhar antes de quem chamou seguir em frente
+  @Override
+  public Task save(Task task) {
+    return taskRepository.saveAndFlush(task);
+  }
+
+  @Override
+  public Optional<Task> findById(Long id) {
+    return taskRepository.findById(id);
+  }
+
+  @Override
+  public List<TaskView> findViews(TaskFilter filter, long afterId, int limit, Set<TaskField> fields) {
+    return taskRepository.findViews(filter, afterId, limit, fields);
+  }
+
+  @Override
+  public int markAsDone(Long id, LocalDateTime completedAt) {
+    return taskRepository.markAsDone(id, completedAt);
+  }
+
+  @Override
+  public int markAsDone(Long id, long version, LocalDateTime completedAt) {
+    return taskRepository.markAsDone(id, version, completedAt);
+  }
+
+  @Override
+  public int removeByIdAndVersion(Long id, long version) {
+    return taskRepository.removeByIdAndVersion(id, version);
+  }
+
+  @Override
+  public List<TaskStatsRow> aggregateStats() {
+    return taskRepository.aggregateStats();
+  }
+}
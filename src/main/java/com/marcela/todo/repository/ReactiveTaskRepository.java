@@ -0,0 +1,236 @@
+package com.marcela.todo.repository;
+
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.model.Task;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// acesso à tabela tasks pelo R2DBC (perfil reactive), com o SQL escrito à mão
+// as consultas espelham as do TaskRepository/TaskSpecifications e usam os mesmos índices
+@Repository
+@Profile("reactive")
+public class ReactiveTaskRepository {
+  // mesmo allocationSize do @SequenceGenerator de Task
+  private static final int ID_BLOCK = 50;
+  private static final String COLUMNS = "id, title, description, done, created_at, completed_at, version";
+
+  private final DatabaseClient databaseClient;
+  private final String database;
+
+  // ids em blocos do task_seq, como o pooled optimizer do Hibernate: um valor v do sequence reserva [v - 49, v]
+  // assim trocar de pilha no mesmo banco não repete id (as duas não rodam juntas: aqui não há TaskEvent)
+  private final AtomicReference<IdBlock> ids = new AtomicReference<>(new IdBlock(1, 0));
+
+  public ReactiveTaskRepository(ConnectionFactory connectionFactory) {
+    this.databaseClient = DatabaseClient.create(connectionFactory);
+    this.database = connectionFactory.getMetadata().getName();
+  }
+
+  // todas as tasks (ou as filtradas) em ordem de id, emitidas conforme o assinante pede
+  public Flux<Task> findAll(TaskFilter filter) {
+    Where where = Where.of(filter, 0L);
+    return where.bind(databaseClient.sql("SELECT " + COLUMNS + " FROM tasks" + where.sql + " ORDER BY id"))
+        .map(ReactiveTaskRepository::toTask)
+        .all();
+  }
+
+  // paginação por keyset: até limit tasks com id maior que lastId
+  public Flux<Task> findPage(TaskFilter filter, long lastId, int limit) {
+    Where where = Where.of(filter, lastId);
+    String sql = "SELECT " + COLUMNS + " FROM tasks" + where.sql + " ORDER BY id LIMIT :limit";
+    return where.bind(databaseClient.sql(sql))
+        .bind("limit", limit)
+        .map(ReactiveTaskRepository::toTask)
+        .all();
+  }
+
+  public Mono<Task> findById(Long id) {
+    return databaseClient.sql("SELECT " + COLUMNS + " FROM tasks WHERE id = :id")
+        .bind("id", id)
+        .map(ReactiveTaskRepository::toTask)
+        .one();
+  }
+
+  // INSERT com id do task_seq; createdAt é preenchido aqui, como o @PrePersist de Task
+  public Mono<Task> insert(Task task) {
+    return nextId().flatMap(id -> {
+      Task saved = task.copy();
+      saved.setId(id);
+      saved.setCreatedAt(LocalDateTime.now());
+      saved.setVersion(0);
+      GenericExecuteSpec spec = databaseClient.sql("INSERT INTO tasks (" + COLUMNS + ") "
+              + "VALUES (:id, :title, :description, :done, :createdAt, :completedAt, :version)")
+          .bind("id", id)
+          .bind("done", saved.isDone())
+          .bind("createdAt", saved.getCreatedAt())
+          .bind("version", saved.getVersion());
+      spec = bind(spec, "title", saved.getTitle(), String.class);
+      spec = bind(spec, "description", saved.getDescription(), String.class);
+      spec = bind(spec, "completedAt", saved.getCompletedAt(), LocalDateTime.class);
+      return spec.fetch().rowsUpdated().thenReturn(saved);
+    });
+  }
+
+  // UPDATE dos campos editáveis só se a task ainda estiver na versão lida; 0 linhas = alterada por outro
+  public Mono<Long> update(Task task, long version) {
+    GenericExecuteSpec spec = databaseClient.sql("UPDATE tasks SET title = :title, description = :description, "
+            + "done = :done, completed_at = :completedAt, version = version + 1 "
+            + "WHERE id = :id AND version = :version")
+        .bind("id", task.getId())
+        .bind("version", version)
+        .bind("done", task.isDone());
+    spec = bind(spec, "title", task.getTitle(), String.class);
+    spec = bind(spec, "description", task.getDescription(), String.class);
+    spec = bind(spec, "completedAt", task.getCompletedAt(), LocalDateTime.class);
+    return spec.fetch().rowsUpdated();
+  }
+
+  // mesmo UPDATE do TaskRepository.markAsDone; version null = qualquer versão
+  public Mono<Long> markAsDone(Long id, Long version, LocalDateTime completedAt) {
+    GenericExecuteSpec spec = databaseClient.sql("UPDATE tasks SET done = true, completed_at = :completedAt, "
+            + "version = version + 1 WHERE id = :id AND done = false"
+            + (version != null ? " AND version = :version" : ""))
+        .bind("id", id)
+        .bind("completedAt", completedAt);
+    if (version != null) {
+      spec = spec.bind("version", version);
+    }
+    return spec.fetch().rowsUpdated();
+  }
+
+  public Mono<Long> deleteByIdAndVersion(Long id, long version) {
+    return databaseClient.sql("DELETE FROM tasks WHERE id = :id AND version = :version")
+        .bind("id", id)
+        .bind("version", version)
+        .fetch()
+        .rowsUpdated();
+  }
+
+  // próximo id do bloco atual; bloco esgotado busca outro no task_seq
+  // duas buscas simultâneas geram dois blocos e o que for trocado primeiro perde o resto dos ids (só buracos)
+  private Mono<Long> nextId() {
+    return Mono.defer(() -> {
+      long id = ids.get().take();
+      if (id > 0) {
+        return Mono.just(id);
+      }
+      return nextSequenceValue().map(value -> {
+        IdBlock block = new IdBlock(Math.max(1, value - ID_BLOCK + 1), value);
+        long first = block.take();
+        ids.set(block);
+        return first;
+      });
+    });
+  }
+
+  // o Hibernate usa sequence no H2 e emula com a tabela task_seq (coluna next_val) no MySQL
+  private Mono<Long> nextSequenceValue() {
+    if ("H2".equalsIgnoreCase(database)) {
+      return databaseClient.sql("SELECT NEXT VALUE FOR task_seq")
+          .map(row -> row.get(0, Long.class))
+          .one();
+    }
+    if (database.toLowerCase(Locale.ROOT).contains("mysql")) {
+      // o Hibernate lê next_val e grava next_val + 50; LAST_INSERT_ID faz as duas coisas num comando só
+      // (o SELECT precisa ir na mesma conexão)
+      return databaseClient.inConnection(connection ->
+          Mono.from(connection.createStatement(
+                  "UPDATE task_seq SET next_val = LAST_INSERT_ID(next_val + " + ID_BLOCK + ")").execute())
+              .flatMap(result -> Mono.from(result.getRowsUpdated()))
+              .then(Mono.from(connection.createStatement("SELECT LAST_INSERT_ID()").execute()))
+              .flatMap(result -> Mono.from(result.map(row -> row.get(0, Long.class))))
+              .map(next -> next - ID_BLOCK));
+    }
+    return Mono.error(new UnsupportedOperationException("Banco não suportado na pilha reativa: " + database));
+  }
+
+  private static GenericExecuteSpec bind(GenericExecuteSpec spec, String name, Object value, Class<?> type) {
+    return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+  }
+
+  private static Task toTask(Readable row) {
+    Task task = new Task();
+    task.setId(row.get("id", Long.class));
+    task.setTitle(row.get("title", String.class));
+    task.setDescription(row.get("description", String.class));
+    task.setDone(Boolean.TRUE.equals(row.get("done", Boolean.class)));
+    task.setCreatedAt(row.get("created_at", LocalDateTime.class));
+    task.setCompletedAt(row.get("completed_at", LocalDateTime.class));
+    task.setVersion(row.get("version", Long.class));
+    return task;
+  }
+
+  // faixa [next, last] de ids reservada; take devolve 0 quando acabou
+  private static final class IdBlock {
+    private final AtomicLong next;
+    private final long last;
+
+    IdBlock(long first, long last) {
+      this.next = new AtomicLong(first);
+      this.last = last;
+    }
+
+    long take() {
+      long id = next.getAndIncrement();
+      return id <= last ? id : 0;
+    }
+  }
+
+  // WHERE montado a partir do TaskFilter, com os valores em parâmetros nomeados
+  private record Where(String sql, Map<String, Object> params) {
+
+    static Where of(TaskFilter filter, long lastId) {
+      StringBuilder sql = new StringBuilder();
+      Map<String, Object> params = new LinkedHashMap<>();
+      if (lastId > 0) {
+        add(sql, params, "id > :lastId", "lastId", lastId);
+      }
+      if (filter.done() != null) {
+        add(sql, params, "done = :done", "done", filter.done());
+      }
+      if (filter.createdFrom() != null) {
+        add(sql, params, "created_at >= :createdFrom", "createdFrom", filter.createdFrom());
+      }
+      if (filter.createdTo() != null) {
+        add(sql, params, "created_at < :createdTo", "createdTo", filter.createdTo());
+      }
+      if (filter.completedFrom() != null) {
+        add(sql, params, "completed_at >= :completedFrom", "completedFrom", filter.completedFrom());
+      }
+      if (filter.completedTo() != null) {
+        add(sql, params, "completed_at < :completedTo", "completedTo", filter.completedTo());
+      }
+      if (filter.titlePrefix() != null && !filter.titlePrefix().isEmpty()) {
+        // '!' como escape: a barra invertida é lida de jeito diferente no MySQL e no H2
+        String pattern = filter.titlePrefix().replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+        add(sql, params, "title LIKE :titlePrefix ESCAPE '!'", "titlePrefix", pattern);
+      }
+      return new Where(sql.toString(), params);
+    }
+
+    private static void add(StringBuilder sql, Map<String, Object> params, String condition, String name,
+        Object value) {
+      sql.append(sql.isEmpty() ? " WHERE " : " AND ").append(condition);
+      params.put(name, value);
+    }
+
+    GenericExecuteSpec bind(GenericExecuteSpec spec) {
+      for (Map.Entry<String, Object> param : params.entrySet()) {
+        spec = spec.bind(param.getKey(), param.getValue());
+      }
+      return spec;
+    }
+  }
+}
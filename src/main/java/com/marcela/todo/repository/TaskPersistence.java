@@ -0,0 +1,36 @@
+package com.marcela.todo.repository;
+
+import com.marcela.todo.dto.TaskField;
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.dto.TaskView;
+import com.marcela.todo.model.Task;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// o que o TaskService e o TaskStatistics usam do armazenamento da tabela tasks
+// JpaTaskPersistence sobre o TaskRepository; MappedTaskPersistence sobre o arquivo mapeado (perfil mmap)
+public interface TaskPersistence {
+
+  // cria (sem id) ou atualiza (com id, na mesma versão); a task devolvida já tem id e versão novos
+  Task save(Task task);
+
+  Optional<Task> findById(Long id);
+
+  // tasks que atendem ao filtro, com id > afterId, em ordem de id, até limit (Integer.MAX_VALUE = sem limite)
+  // só com as colunas de fields (mais id e version)
+  List<TaskView> findViews(TaskFilter filter, long afterId, int limit, Set<TaskField> fields);
+
+  // marca como concluída; 0 = id inexistente ou já concluída
+  int markAsDone(Long id, LocalDateTime completedAt);
+
+  // igual, mas só se a task ainda estiver na versão esperada (If-Match)
+  int markAsDone(Long id, long version, LocalDateTime completedAt);
+
+  // deleta só se a task ainda estiver na versão esperada; 0 = inexistente ou em outra versão
+  int removeByIdAndVersion(Long id, long version);
+
+  // contadores de /tasks/stats agrupados por (done, dia da conclusão)
+  List<TaskStatsRow> aggregateStats();
+}
@@ -1,9 +1,81 @@
 package com.marcela.todo.repository;
 
+import com.marcela.todo.dto.TaskField;
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.dto.TaskView;
 import com.marcela.todo.model.Task;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>,
+    TaskViewQueries {
+
+  // listagem com projeção (ver TaskViewQueries); limit Integer.MAX_VALUE = sem limite
+  default List<TaskView> findViews(TaskFilter filter, long afterId, int limit, Set<TaskField> fields) {
+    return findViews(Task.class, filter, afterId, limit, fields);
+  }
+
+  // leitura em streaming para exportação; precisa de transação aberta e deve ser fechado
+  // o fetch size faz o driver buscar as linhas em lotes (no MySQL exige useCursorFetch=true)
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<Task> streamAllByOrderByIdAsc();
+
+  // marca como concluída com um único UPDATE; retorna quantas linhas mudaram (0 = id inexistente ou já concluída)
+  // clearAutomatically evita que o contexto de persistência devolva a versão antiga depois
+  // UPDATE em JPQL não incrementa o @Version sozinho, por isso o version + 1
+  @Modifying(clearAutomatically = true)
+  @Query("update Task t set t.done = true, t.completedAt = :completedAt, t.version = t.version + 1 "
+      + "where t.id = :id and t.done = false")
+  int markAsDone(Long id, LocalDateTime completedAt);
+
+  // igual ao markAsDone, mas só altera se a task ainda estiver na versão esperada (If-Match)
+  @Modifying(clearAutomatically = true)
+  @Query("update Task t set t.done = true, t.completedAt = :completedAt, t.version = t.version + 1 "
+      + "where t.id = :id and t.version = :version and t.done = false")
+  int markAsDone(Long id, long version, LocalDateTime completedAt);
+
+  // deleta só se a task ainda estiver na versão esperada (If-Match)
+  // clearAutomatically para uma nova leitura na mesma transação não devolver a task apagada
+  @Modifying(clearAutomatically = true)
+  @Query("delete from Task t where t.id = :id and t.version = :version")
+  int removeByIdAndVersion(Long id, long version);
+
+  // contadores de /tasks/stats numa consulta só, sem trazer as tasks
+  // o (completedAt - createdAt) by second vira TIMESTAMPDIFF/DATEDIFF no banco
+  @Query("select new com.marcela.todo.repository.TaskStatsRow(t.done, cast(t.completedAt as LocalDate), count(t), "
+      + "count(t.createdAt), sum((t.completedAt - t.createdAt) by second)) "
+      + "from Task t group by t.done, cast(t.completedAt as LocalDate)")
+  List<TaskStatsRow> aggregateStats();
+
+  // próximas tasks a arquivar, das concluídas há mais tempo para as mais recentes (idx_tasks_completed_at)
+  // FOR UPDATE: nenhuma escrita na task passa entre a cópia para tasks_archive e o DELETE
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  List<Task> findByDoneTrueAndCompletedAtBeforeOrderByCompletedAtAsc(LocalDateTime cutoff, Limit limit);
+
+  // as tasks dos ids com SELECT ... FOR UPDATE: nenhuma escrita nelas passa até o fim da transação
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  List<Task> findByIdIn(Collection<Long> ids);
+
+  // deleta várias tasks com um único DELETE ... WHERE id IN (...)
+  @Modifying
+  @Query("delete from Task t where t.id in :ids")
+  int deleteAllByIdIn(Collection<Long> ids);
 }
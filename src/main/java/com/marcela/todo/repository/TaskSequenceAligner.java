@@ -0,0 +1,63 @@
+package com.marcela.todo.repository;
+
+import jakarta.annotation.PostConstruct;
+import java.sql.ResultSet;
+import java.util.Objects;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// o id de Task saía de um AUTO_INCREMENT (IDENTITY) e passou para a sequence task_seq
+// num banco que já tem tasks, o ddl-auto=update cria a tabela task_seq com next_val = 1 e os próximos INSERTs
+// repetiriam ids existentes; na subida, antes de qualquer id ser reservado, next_val é levado para depois do
+// maior id de tasks e tasks_archive. Só age no MySQL, onde a sequence é emulada com a tabela task_seq
+@Component
+@Profile("!mmap & !reactive")
+// depois do EntityManagerFactory: o Hibernate cria a tabela task_seq no ddl-auto=update
+@DependsOn("entityManagerFactory")
+public class TaskSequenceAligner {
+  private static final Logger log = LoggerFactory.getLogger(TaskSequenceAligner.class);
+  // o allocationSize de Task: um valor v de next_val reserva os ids [v - 49, v]
+  static final int ALLOCATION_SIZE = 50;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public TaskSequenceAligner(DataSource dataSource) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  @PostConstruct
+  public void align() {
+    if (!tableExists("task_seq")) {
+      return;
+    }
+    long maxId = Math.max(maxId("tasks"), maxId("tasks_archive"));
+    long nextVal = maxId + ALLOCATION_SIZE;
+    int updated = jdbcTemplate.update("update task_seq set next_val = ? where next_val < ?", nextVal, nextVal);
+    if (updated > 0) {
+      log.info("task_seq.next_val ajustado para {} (maior id existente: {})", nextVal, maxId);
+    }
+  }
+
+  private long maxId(String table) {
+    if (!tableExists(table)) {
+      return 0;
+    }
+    return Objects.requireNonNullElse(jdbcTemplate.queryForObject("select max(id) from " + table, Long.class), 0L);
+  }
+
+  // no H2 a sequence é uma sequence de verdade e não aparece como tabela
+  private boolean tableExists(String table) {
+    return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+      try (ResultSet tables = connection.getMetaData().getTables(connection.getCatalog(), null, table,
+          new String[] {"TABLE"})) {
+        return tables.next();
+      }
+    }));
+  }
+}
@@ -0,0 +1,48 @@
+package com.marcela.todo.repository;
+
+import com.marcela.todo.dto.TaskFilter;
+import org.springframework.data.jpa.domain.Specification;
+
+// monta as consultas filtradas de Task a partir do TaskFilter
+// cada filtro casa com um índice declarado em Task (@Table indexes)
+// genérico para servir também a ArchivedTask, que tem os mesmos atributos
+public final class TaskSpecifications {
+
+  private TaskSpecifications() {
+  }
+
+  public static <T> Specification<T> matching(TaskFilter filter) {
+    // sem restrição até o primeiro filtro; o and() ignora o predicado null
+    Specification<T> spec = (root, query, cb) -> null;
+    if (filter.done() != null) {
+      spec = spec.and((root, query, cb) -> cb.equal(root.get("done"), filter.done()));
+    }
+    if (filter.createdFrom() != null) {
+      spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), filter.createdFrom()));
+    }
+    if (filter.createdTo() != null) {
+      spec = spec.and((root, query, cb) -> cb.lessThan(root.get("createdAt"), filter.createdTo()));
+    }
+    if (filter.completedFrom() != null) {
+      spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("completedAt"), filter.completedFrom()));
+    }
+    if (filter.completedTo() != null) {
+      spec = spec.and((root, query, cb) -> cb.lessThan(root.get("completedAt"), filter.completedTo()));
+    }
+    if (filter.titlePrefix() != null && !filter.titlePrefix().isEmpty()) {
+      // LIKE 'prefixo%' consegue usar o índice de title
+      String pattern = escapeLike(filter.titlePrefix()) + "%";
+      spec = spec.and((root, query, cb) -> cb.like(root.get("title"), pattern, '\\'));
+    }
+    return spec;
+  }
+
+  // usado pela paginação por keyset
+  public static <T> Specification<T> idGreaterThan(long lastId) {
+    return (root, query, cb) -> cb.greaterThan(root.get("id"), lastId);
+  }
+
+  private static String escapeLike(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
@@ -0,0 +1,9 @@
+package com.marcela.todo.repository;
+
+import java.time.LocalDate;
+
+// uma linha da consulta agregada de estatísticas: tasks agrupadas por done e dia de conclusão
+// timedTasks e secondsToComplete contam só as tasks com createdAt e completedAt preenchidos
+public record TaskStatsRow(Boolean done, LocalDate completedOn, Long tasks, Long timedTasks,
+    Long secondsToComplete) {
+}
@@ -0,0 +1,15 @@
+package com.marcela.todo.repository;
+
+import com.marcela.todo.dto.TaskField;
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.dto.TaskView;
+import java.util.List;
+import java.util.Set;
+
+// fragmento dos repositórios de Task e ArchivedTask: listagem com projeção das colunas pedidas
+public interface TaskViewQueries {
+
+  // tasks de entityType que atendem ao filtro, com id > afterId, em ordem de id, até limit
+  // o SELECT traz só as colunas de fields (mais id e version) e não cria entidades
+  <T> List<TaskView> findViews(Class<T> entityType, TaskFilter filter, long afterId, int limit, Set<TaskField> fields);
+}
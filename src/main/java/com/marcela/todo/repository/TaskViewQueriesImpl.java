@@ -0,0 +1,70 @@
+package com.marcela.todo.repository;
+
+import com.marcela.todo.dto.TaskField;
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.dto.TaskView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.data.jpa.domain.Specification;
+
+// consulta por tuplas: o Hibernate devolve os valores das colunas, sem entidade no contexto de persistência
+// (nada de snapshot para dirty checking) e sem ler as colunas que o cliente não pediu
+class TaskViewQueriesImpl implements TaskViewQueries {
+  private final EntityManager entityManager;
+
+  TaskViewQueriesImpl(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  public <T> List<TaskView> findViews(Class<T> entityType, TaskFilter filter, long afterId, int limit,
+      Set<TaskField> fields) {
+    Set<TaskField> columns = EnumSet.of(TaskField.ID, TaskField.VERSION);
+    columns.addAll(fields);
+
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<T> root = query.from(entityType);
+    List<Selection<?>> selections = new ArrayList<>(columns.size());
+    for (TaskField field : columns) {
+      selections.add(root.get(field.property()).alias(field.property()));
+    }
+    query.multiselect(selections);
+    Specification<T> spec = TaskSpecifications.<T>matching(filter).and(TaskSpecifications.idGreaterThan(afterId));
+    Predicate where = spec.toPredicate(root, query, cb);
+    if (where != null) {
+      query.where(where);
+    }
+    query.orderBy(cb.asc(root.get("id")));
+
+    TypedQuery<Tuple> typed = entityManager.createQuery(query);
+    if (limit < Integer.MAX_VALUE) {
+      typed.setMaxResults(limit);
+    }
+    List<Tuple> rows = typed.getResultList();
+    List<TaskView> views = new ArrayList<>(rows.size());
+    for (Tuple row : rows) {
+      views.add(new TaskView(
+          row.get("id", Long.class),
+          columns.contains(TaskField.TITLE) ? row.get("title", String.class) : null,
+          columns.contains(TaskField.DESCRIPTION) ? row.get("description", String.class) : null,
+          columns.contains(TaskField.DONE) ? row.get("done", Boolean.class) : null,
+          columns.contains(TaskField.CREATED_AT) ? row.get("createdAt", LocalDateTime.class) : null,
+          columns.contains(TaskField.COMPLETED_AT) ? row.get("completedAt", LocalDateTime.class) : null,
+          row.get("version", Long.class),
+          fields));
+    }
+    return views;
+  }
+}
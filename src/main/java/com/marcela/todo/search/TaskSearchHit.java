@@ -0,0 +1,5 @@
+package com.marcela.todo.search;
+
+// resultado da busca: só o necessário para listar, sem ir ao banco
+public record TaskSearchHit(Long id, String title, double score) {
+}
@@ -0,0 +1,296 @@
+package com.marcela.todo.search;
+
+import com.marcela.todo.event.TaskEvent;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.replica.ReplicaRouting;
+import com.marcela.todo.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// índice invertido em memória sobre title e description
+// reconstruído na subida da aplicação e atualizado a cada TaskEvent
+// termos ficam num TreeMap para a busca por prefixo ("spri*") ser um subMap
+@Component
+// a reconstrução lê o banco em streaming com o EntityManager; não sobe nos perfis mmap e reactive
+@Profile("!mmap & !reactive")
+public class TaskSearchIndex {
+  private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final int TITLE_WEIGHT = 3;
+  private static final int DESCRIPTION_WEIGHT = 1;
+  private static final int REBUILD_CLEAR_EVERY = 1000;
+  // ids deletados lembrados para recusar eventos atrasados deles; só precisa cobrir a janela entre commits próximos
+  private static final int MAX_TOMBSTONES = 10_000;
+
+  private final TaskRepository taskRepository;
+  private final EntityManager entityManager;
+  private final TransactionTemplate readOnlyTransaction;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private Index index = new Index();
+
+  // eventos que chegam durante a reconstrução são reaplicados no índice novo
+  private List<TaskEvent> rebuildBacklog;
+
+  public TaskSearchIndex(TaskRepository taskRepository, EntityManager entityManager,
+      PlatformTransactionManager transactionManager) {
+    this.taskRepository = taskRepository;
+    this.entityManager = entityManager;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+  }
+
+  // lê todas as tasks em streaming e troca o índice de uma vez no final
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    lock.writeLock().lock();
+    try {
+      rebuildBacklog = new ArrayList<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    // do primário: uma réplica atrasada deixaria de fora tasks que não vão gerar outro evento
+    Index fresh = new Index();
+    ReplicaRouting.onPrimary(() -> readOnlyTransaction.executeWithoutResult(status -> {
+      try (Stream<Task> tasks = taskRepository.streamAllByOrderByIdAsc()) {
+        int count = 0;
+        Iterator<Task> iterator = tasks.iterator();
+        while (iterator.hasNext()) {
+          fresh.put(iterator.next());
+          if (++count % REBUILD_CLEAR_EVERY == 0) {
+            entityManager.clear();
+          }
+        }
+      }
+    }));
+
+    lock.writeLock().lock();
+    try {
+      index = fresh;
+      rebuildBacklog.forEach(this::apply);
+      rebuildBacklog = null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTaskEvent(TaskEvent event) {
+    lock.writeLock().lock();
+    try {
+      if (rebuildBacklog != null) {
+        rebuildBacklog.add(event);
+      }
+      apply(event);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // busca as tasks que contêm todos os termos da consulta, ordenadas por relevância
+  // termos terminados em * casam por prefixo
+  public List<TaskSearchHit> search(String query, int limit) {
+    List<String> terms = new ArrayList<>();
+    List<Boolean> prefixes = new ArrayList<>();
+    for (String raw : query.trim().split("\\s+")) {
+      boolean prefix = raw.endsWith("*");
+      List<String> tokens = tokenize(prefix ? raw.substring(0, raw.length() - 1) : raw);
+      for (int i = 0; i < tokens.size(); i++) {
+        // só o último token de uma palavra com * vira prefixo ("e-mai*" -> "e", "mai*")
+        terms.add(tokens.get(i));
+        prefixes.add(prefix && i == tokens.size() - 1);
+      }
+    }
+    if (terms.isEmpty() || limit < 1) {
+      return List.of();
+    }
+
+    lock.readLock().lock();
+    try {
+      Map<Long, Double> scores = null;
+      for (int i = 0; i < terms.size(); i++) {
+        Map<Long, Double> termScores = score(terms.get(i), prefixes.get(i));
+        scores = scores == null ? termScores : intersect(scores, termScores);
+        if (scores.isEmpty()) {
+          return List.of();
+        }
+      }
+      return top(scores, limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return index.documents.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // o índice cobre só a tabela tasks (é dela que o rebuild lê): tasks arquivadas saem como as deletadas
+  // os eventos after-commit de transações diferentes podem chegar fora de ordem: um evento com versão anterior
+  // à indexada é ignorado, e um id deletado fica como tombstone para um UPDATED atrasado não trazer a task de volta
+  private void apply(TaskEvent event) {
+    if (event.type() == TaskEvent.Type.DELETED || event.type() == TaskEvent.Type.ARCHIVED) {
+      Task removed = event.task() != null ? event.task() : event.previous();
+      index.remove(event.taskId(), removed.getVersion());
+    } else {
+      index.put(event.task());
+    }
+  }
+
+  // pontuação tf-idf do termo (ou de todos os termos com o prefixo) por task
+  private Map<Long, Double> score(String term, boolean prefix) {
+    Map<Long, Double> scores = new HashMap<>();
+    NavigableMap<String, Map<Long, Integer>> postings = index.postings;
+    Map<String, Map<Long, Integer>> matches = prefix
+        ? postings.subMap(term, true, term + Character.MAX_VALUE, true)
+        : (postings.containsKey(term) ? Map.of(term, postings.get(term)) : Map.of());
+    int total = index.documents.size();
+    for (Map<Long, Integer> docs : matches.values()) {
+      double idf = Math.log(1.0 + (double) total / docs.size());
+      docs.forEach((id, weight) -> scores.merge(id, weight * idf, Double::sum));
+    }
+    return scores;
+  }
+
+  private static Map<Long, Double> intersect(Map<Long, Double> left, Map<Long, Double> right) {
+    Map<Long, Double> smaller = left.size() <= right.size() ? left : right;
+    Map<Long, Double> larger = smaller == left ? right : left;
+    Map<Long, Double> result = new HashMap<>();
+    smaller.forEach((id, score) -> {
+      Double other = larger.get(id);
+      if (other != null) {
+        result.put(id, score + other);
+      }
+    });
+    return result;
+  }
+
+  // top-k com heap, sem ordenar todos os candidatos
+  private List<TaskSearchHit> top(Map<Long, Double> scores, int limit) {
+    Comparator<Map.Entry<Long, Double>> byScore = Map.Entry.<Long, Double>comparingByValue()
+        .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+    PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(limit + 1, byScore);
+    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+      heap.offer(entry);
+      if (heap.size() > limit) {
+        heap.poll();
+      }
+    }
+    List<TaskSearchHit> hits = new ArrayList<>(heap.size());
+    while (!heap.isEmpty()) {
+      Map.Entry<Long, Double> entry = heap.poll();
+      hits.add(new TaskSearchHit(entry.getKey(), index.documents.get(entry.getKey()).title(), entry.getValue()));
+    }
+    Collections.reverse(hits);
+    return hits;
+  }
+
+  // minúsculas e sem acento: "Concluída" e "concluida" viram o mesmo termo
+  static List<String> tokenize(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+    List<String> terms = new ArrayList<>();
+    for (String term : SEPARATORS.split(normalized.toLowerCase(Locale.ROOT))) {
+      if (!term.isEmpty()) {
+        terms.add(term);
+      }
+    }
+    return terms;
+  }
+
+  // estrutura do índice; só é acessada com o lock do TaskSearchIndex
+  private static final class Index {
+    // termo -> (id da task -> peso do termo na task)
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // id da task -> documento indexado (para remover os termos antigos e montar o resultado)
+    private final Map<Long, Document> documents = new HashMap<>();
+    // id deletado -> versão em que foi deletado; os mais antigos saem primeiro
+    private final Map<Long, Long> tombstones = new LinkedHashMap<>() {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+        return size() > MAX_TOMBSTONES;
+      }
+    };
+
+    // ignora a task se o índice já tem uma versão igual ou mais nova dela, ou se ela já foi deletada
+    void put(Task task) {
+      Document current = documents.get(task.getId());
+      Long deletedAt = tombstones.get(task.getId());
+      if ((current != null && current.version() >= task.getVersion())
+          || (deletedAt != null && deletedAt >= task.getVersion())) {
+        return;
+      }
+      removeDocument(task.getId());
+      Map<String, Integer> weights = new HashMap<>();
+      for (String term : tokenize(task.getTitle())) {
+        weights.merge(term, TITLE_WEIGHT, Integer::sum);
+      }
+      for (String term : tokenize(task.getDescription())) {
+        weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum);
+      }
+      documents.put(task.getId(), new Document(task.getTitle(), task.getVersion(), weights));
+      weights.forEach((term, weight) ->
+          postings.computeIfAbsent(term, key -> new HashMap<>()).put(task.getId(), weight));
+    }
+
+    // version: a última versão da task antes de sair da tabela tasks
+    void remove(Long id, long version) {
+      Document current = documents.get(id);
+      if (current != null && current.version() > version) {
+        return;
+      }
+      tombstones.merge(id, version, Math::max);
+      removeDocument(id);
+    }
+
+    private void removeDocument(Long id) {
+      Document document = documents.remove(id);
+      if (document == null) {
+        return;
+      }
+      for (String term : document.weights().keySet()) {
+        Map<Long, Integer> docs = postings.get(term);
+        if (docs != null) {
+          docs.remove(id);
+          if (docs.isEmpty()) {
+            postings.remove(term);
+          }
+        }
+      }
+    }
+  }
+
+  private record Document(String title, long version, Map<String, Integer> weights) {
+  }
+}
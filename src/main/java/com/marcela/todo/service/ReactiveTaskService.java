@@ -0,0 +1,121 @@
+package com.marcela.todo.service;
+
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.dto.TaskPage;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.repository.ReactiveTaskRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// mesmas regras do TaskService (If-Match, versão, paginação) sobre o ReactiveTaskRepository
+// nada aqui bloqueia: cada método devolve um Mono/Flux que só vai ao banco quando alguém assina
+// não publica TaskEvent: busca, estatísticas e feed de alterações não sobem no perfil reactive
+@Service
+@Profile("reactive")
+public class ReactiveTaskService {
+  private static final int DELETE_ATTEMPTS = 3;
+
+  private final ReactiveTaskRepository taskRepository;
+
+  public ReactiveTaskService(ReactiveTaskRepository taskRepository) {
+    this.taskRepository = taskRepository;
+  }
+
+  public Mono<Task> createTask(Task task) {
+    return taskRepository.insert(task);
+  }
+
+  // lista em streaming: as linhas saem do banco no ritmo em que a resposta é escrita
+  public Flux<Task> findTasks(TaskFilter filter) {
+    return taskRepository.findAll(filter);
+  }
+
+  public Mono<TaskPage> getTasksPage(TaskFilter filter, String cursor, int limit) {
+    if (limit < 1 || limit > TaskService.MAX_PAGE_SIZE) {
+      return Mono.error(new IllegalArgumentException("limit deve estar entre 1 e " + TaskService.MAX_PAGE_SIZE));
+    }
+    long lastId;
+    try {
+      lastId = TaskCursor.decode(cursor);
+    } catch (IllegalArgumentException e) {
+      return Mono.error(e);
+    }
+    // um item a mais só para saber se existe próxima página
+    return taskRepository.findPage(filter, lastId, limit + 1).collectList().map(tasks -> {
+      if (tasks.size() <= limit) {
+        return new TaskPage(tasks, null);
+      }
+      List<Task> items = tasks.subList(0, limit);
+      return new TaskPage(items, TaskCursor.encode(items.get(limit - 1).getId()));
+    });
+  }
+
+  public Mono<Task> getTaskById(Long id) {
+    return taskRepository.findById(id);
+  }
+
+  // expectedVersion (If-Match) é opcional; sem ele, o UPDATE ainda exige a versão lida
+  public Mono<Task> updateTask(Long id, Task changes, Long expectedVersion) {
+    return taskRepository.findById(id).flatMap(task -> {
+      if (expectedVersion != null && task.getVersion() != expectedVersion) {
+        return Mono.error(versionConflict(id));
+      }
+      long version = task.getVersion();
+      task.setTitle(changes.getTitle());
+      task.setDescription(changes.getDescription());
+      task.setDone(changes.isDone());
+      task.setCompletedAt(changes.getCompletedAt());
+      return taskRepository.update(task, version).flatMap(updated -> {
+        if (updated == 0) {
+          return Mono.error(versionConflict(id));
+        }
+        task.setVersion(version + 1);
+        return Mono.just(task);
+      });
+    });
+  }
+
+  // task já concluída não muda e é devolvida como está
+  public Mono<Task> markTaskAsDone(Long id, Long expectedVersion) {
+    return taskRepository.markAsDone(id, expectedVersion, LocalDateTime.now())
+        .flatMap(updated -> taskRepository.findById(id).flatMap(task -> {
+          if (updated == 0 && expectedVersion != null && task.getVersion() != expectedVersion) {
+            return Mono.error(versionConflict(id));
+          }
+          return Mono.just(task);
+        }));
+  }
+
+  // SELECT e DELETE só na versão lida; sem If-Match tenta de novo se outra requisição alterou a task no meio
+  public Mono<Boolean> deleteTask(Long id, Long expectedVersion) {
+    return deleteTask(id, expectedVersion, 1);
+  }
+
+  private Mono<Boolean> deleteTask(Long id, Long expectedVersion, int attempt) {
+    return taskRepository.findById(id)
+        .flatMap(task -> {
+          if (expectedVersion != null && task.getVersion() != expectedVersion) {
+            return Mono.<Boolean>error(versionConflict(id));
+          }
+          return taskRepository.deleteByIdAndVersion(id, task.getVersion()).flatMap(deleted -> {
+            if (deleted == 1) {
+              return Mono.just(true);
+            }
+            if (expectedVersion != null || attempt == DELETE_ATTEMPTS) {
+              return Mono.error(versionConflict(id));
+            }
+            return deleteTask(id, null, attempt + 1);
+          });
+        })
+        .defaultIfEmpty(false);
+  }
+
+  private static OptimisticLockingFailureException versionConflict(Long id) {
+    return new OptimisticLockingFailureException("A task " + id + " foi alterada por outra requisição");
+  }
+}
@@ -0,0 +1,73 @@
+package com.marcela.todo.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// chamadas simultâneas com a mesma chave dividem uma execução: a primeira executa o loader e as outras esperam
+// e recebem o mesmo resultado (ou a mesma exceção)
+// não é cache: a chave sai do mapa assim que a execução termina, e quem chega depois executa de novo
+// o resultado é entregue a várias threads, então ninguém deve alterá-lo
+final class SingleFlight<K, V> {
+  private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final LongAdder executed = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+
+  V execute(K key, Supplier<V> loader) {
+    CompletableFuture<V> mine = new CompletableFuture<>();
+    CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+    if (running != null) {
+      coalesced.increment();
+      return await(running);
+    }
+    executed.increment();
+    try {
+      V value = loader.get();
+      mine.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      mine.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, mine);
+    }
+  }
+
+  long executed() {
+    return executed.sum();
+  }
+
+  long coalesced() {
+    return coalesced.sum();
+  }
+
+  // task.coalescing.calls{query=..., result=executed|coalesced}
+  void bindTo(MeterRegistry registry, String query) {
+    FunctionCounter.builder("task.coalescing.calls", executed, LongAdder::sum)
+        .description("Leituras que foram ao banco")
+        .tags("query", query, "result", "executed")
+        .register(registry);
+    FunctionCounter.builder("task.coalescing.calls", coalesced, LongAdder::sum)
+        .description("Leituras que aproveitaram uma consulta igual já em andamento")
+        .tags("query", query, "result", "coalesced")
+        .register(registry);
+  }
+
+  private static <V> V await(CompletableFuture<V> running) {
+    try {
+      return running.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
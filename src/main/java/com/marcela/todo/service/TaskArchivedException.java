@@ -0,0 +1,9 @@
+package com.marcela.todo.service;
+
+// escrita numa task que já está em tasks_archive; a API devolve 409
+public class TaskArchivedException extends RuntimeException {
+
+  public TaskArchivedException(Long id) {
+    super("A task " + id + " está arquivada e não pode ser alterada");
+  }
+}
@@ -0,0 +1,147 @@
+package com.marcela.todo.service;
+
+import com.marcela.todo.config.CacheConfig;
+import com.marcela.todo.event.TaskEvent;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.repository.TaskRepository;
+import com.marcela.todo.writebehind.TaskWriteBehind;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// operações em lote: tudo numa transação, gravando em blocos de chunkSize
+// cada bloco vira poucos batches JDBC (hibernate.jdbc.batch_size) e depois a sessão é limpa
+@Service
+// flush/clear do EntityManager; sem JPA (perfis mmap e reactive) não há operações em lote
+@Profile("!mmap & !reactive")
+@Timed(value = "task.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
+public class TaskBatchService {
+  public static final int MAX_BATCH_SIZE = 10_000;
+
+  private final TaskRepository taskRepository;
+  private final EntityManager entityManager;
+  private final ApplicationEventPublisher eventPublisher;
+  private final int chunkSize;
+  // null fora do modo write-behind (task.write-behind.enabled)
+  private final TaskWriteBehind writeBehind;
+
+  public TaskBatchService(TaskRepository taskRepository, EntityManager entityManager,
+      ApplicationEventPublisher eventPublisher, @Value("${task.batch.chunk-size:500}") int chunkSize,
+      ObjectProvider<TaskWriteBehind> writeBehind) {
+    this.taskRepository = taskRepository;
+    this.entityManager = entityManager;
+    this.eventPublisher = eventPublisher;
+    this.chunkSize = chunkSize;
+    this.writeBehind = writeBehind.getIfAvailable();
+  }
+
+  // cria várias tasks; ids enviados pelo cliente são ignorados
+  @Transactional
+  public List<Task> createTasks(List<Task> tasks) {
+    checkSize(tasks.size());
+    for (int start = 0; start < tasks.size(); start += chunkSize) {
+      for (Task task : tasks.subList(start, Math.min(start + chunkSize, tasks.size()))) {
+        task.setId(null);
+        entityManager.persist(task);
+      }
+      flushAndClear();
+    }
+    tasks.forEach(task -> eventPublisher.publishEvent(TaskEvent.created(task)));
+    return tasks;
+  }
+
+  // atualiza várias tasks com os mesmos campos do PUT /tasks/{id}
+  // ids que não existem são ignorados e não aparecem no retorno
+  // lotes são raros, então o cache por id é esvaziado inteiro
+  @Transactional
+  @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, allEntries = true)
+  public List<Task> updateTasks(List<Task> changes) {
+    checkSize(changes.size());
+    List<Task> updated = new ArrayList<>(changes.size());
+    List<Task> previous = new ArrayList<>(changes.size());
+    for (int start = 0; start < changes.size(); start += chunkSize) {
+      List<Task> chunk = changes.subList(start, Math.min(start + chunkSize, changes.size()));
+      List<Long> ids = chunk.stream().map(TaskBatchService::requireId).toList();
+      awaitPendingWrites(ids);
+
+      // um SELECT ... WHERE id IN (...) por bloco
+      Map<Long, Task> existing = taskRepository.findAllById(ids).stream()
+          .collect(Collectors.toMap(Task::getId, Function.identity()));
+      for (Task change : chunk) {
+        Task task = existing.get(change.getId());
+        if (task != null) {
+          previous.add(task.copy());
+          task.setTitle(change.getTitle());
+          task.setDescription(change.getDescription());
+          task.setDone(change.isDone());
+          task.setCompletedAt(change.getCompletedAt());
+          updated.add(task);
+        }
+      }
+      flushAndClear();
+    }
+    for (int i = 0; i < updated.size(); i++) {
+      eventPublisher.publishEvent(TaskEvent.updated(updated.get(i), previous.get(i)));
+    }
+    return updated;
+  }
+
+  // deleta várias tasks e devolve quantas existiam
+  // por bloco, um SELECT ... IN com FOR UPDATE (o estado anterior vai nos eventos) e um DELETE ... IN
+  // o lock garante que o estado publicado é o que foi apagado: um PUT concorrente espera ou é apagado depois
+  @Transactional
+  @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, allEntries = true)
+  public int deleteTasks(List<Long> ids) {
+    checkSize(ids.size());
+    List<Task> deleted = new ArrayList<>();
+    for (int start = 0; start < ids.size(); start += chunkSize) {
+      List<Long> chunk = ids.subList(start, Math.min(start + chunkSize, ids.size()));
+      awaitPendingWrites(chunk);
+      List<Task> existing = taskRepository.findByIdIn(chunk);
+      if (!existing.isEmpty()) {
+        taskRepository.deleteAllByIdIn(existing.stream().map(Task::getId).toList());
+        existing.forEach(task -> deleted.add(task.copy()));
+      }
+      entityManager.clear();
+    }
+    deleted.forEach(task -> eventPublisher.publishEvent(TaskEvent.deleted(task)));
+    return deleted.size();
+  }
+
+  // como no TaskService: uma task com escrita do write-behind pendente só é alterada depois do flush dela
+  // (senão o DELETE não acharia a linha e o INSERT pendente a recriaria)
+  private void awaitPendingWrites(List<Long> ids) {
+    if (writeBehind != null) {
+      ids.forEach(writeBehind::awaitFlushed);
+    }
+  }
+
+  private void flushAndClear() {
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  private static void checkSize(int size) {
+    if (size > MAX_BATCH_SIZE) {
+      throw new IllegalArgumentException("Lote deve ter no máximo " + MAX_BATCH_SIZE + " itens");
+    }
+  }
+
+  private static Long requireId(Task task) {
+    if (task.getId() == null) {
+      throw new IllegalArgumentException("id é obrigatório na atualização em lote");
+    }
+    return task.getId();
+  }
+}
@@ -0,0 +1,35 @@
+package com.marcela.todo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// cursor opaco da listagem paginada (keyset pelo id)
+// o cliente só repassa o valor recebido em nextCursor
+final class TaskCursor {
+  private static final String PREFIX = "id:";
+
+  private TaskCursor() {
+  }
+
+  static String encode(Long lastId) {
+    byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+  }
+
+  // devolve o último id visto; cursor nulo ou vazio significa primeira página
+  static long decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return 0L;
+    }
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      if (!raw.startsWith(PREFIX)) {
+        throw new IllegalArgumentException("Cursor inválido");
+      }
+      return Long.parseLong(raw.substring(PREFIX.length()));
+    } catch (IllegalArgumentException e) {
+      // NumberFormatException também cai aqui
+      throw new IllegalArgumentException("Cursor inválido", e);
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package com.marcela.todo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.repository.TaskRepository;
+import com.marcela.todo.wire.TaskProtobuf;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// exporta todas as tasks em streaming (NDJSON, CSV ou protobuf)
+// lê com cursor do banco e limpa a sessão a cada N linhas, então o heap fica constante
+@Service
+// cursor do JPA; no perfil mmap o TaskController responde 501 na exportação
+@Profile("!mmap & !reactive")
+public class TaskExportService {
+  private final TaskRepository taskRepository;
+  private final EntityManager entityManager;
+  private final TransactionTemplate readOnlyTransaction;
+  private final ObjectWriter jsonWriter;
+  private final int clearEvery;
+
+  public TaskExportService(TaskRepository taskRepository, EntityManager entityManager,
+      PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+      @Value("${task.export.clear-every:500}") int clearEvery) {
+    this.taskRepository = taskRepository;
+    this.entityManager = entityManager;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.jsonWriter = objectMapper.writer();
+    this.clearEvery = clearEvery;
+  }
+
+  // uma task por linha, em JSON
+  public void exportNdjson(OutputStream out) {
+    export(out, (writer, task) -> {
+      writer.write(jsonWriter.writeValueAsString(task));
+      writer.write('\n');
+    }, null);
+  }
+
+  // CSV com cabeçalho
+  public void exportCsv(OutputStream out) {
+    export(out, (writer, task) -> {
+      writer.write(String.valueOf(task.getId()));
+      writer.write(',');
+      writer.write(csv(task.getTitle()));
+      writer.write(',');
+      writer.write(csv(task.getDescription()));
+      writer.write(',');
+      writer.write(String.valueOf(task.isDone()));
+      writer.write(',');
+      writer.write(task.getCreatedAt() != null ? task.getCreatedAt().toString() : "");
+      writer.write(',');
+      writer.write(task.getCompletedAt() != null ? task.getCompletedAt().toString() : "");
+      writer.write('\n');
+    }, "id,title,description,done,createdAt,completedAt\n");
+  }
+
+  // tasks em sequência, cada uma com o tamanho em varint na frente (ver task.proto)
+  public void exportProtobuf(OutputStream out) {
+    BufferedOutputStream buffered = new BufferedOutputStream(out, 8192);
+    TaskProtobuf.DelimitedWriter writer = new TaskProtobuf.DelimitedWriter(buffered);
+    export(buffered, writer::write, null);
+  }
+
+  private void export(OutputStream out, RowWriter rowWriter, String header) {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    export(writer, task -> rowWriter.write(writer, task), header != null ? () -> writer.write(header) : null);
+  }
+
+  private void export(Flushable sink, TaskWriter taskWriter, HeaderWriter headerWriter) {
+    // o stream do JPA precisa de uma transação aberta enquanto é consumido
+    readOnlyTransaction.executeWithoutResult(status -> {
+      try (Stream<Task> tasks = taskRepository.streamAllByOrderByIdAsc()) {
+        if (headerWriter != null) {
+          headerWriter.write();
+        }
+        int count = 0;
+        Iterator<Task> iterator = tasks.iterator();
+        while (iterator.hasNext()) {
+          taskWriter.write(iterator.next());
+          if (++count % clearEvery == 0) {
+            // solta as entidades já escritas do contexto de persistência
+            entityManager.clear();
+            sink.flush();
+          }
+        }
+        sink.flush();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  // aspas só quando o valor tem vírgula, aspas ou quebra de linha
+  static String csv(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+        && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+  @FunctionalInterface
+  private interface RowWriter {
+    void write(Writer writer, Task task) throws IOException;
+  }
+
+  @FunctionalInterface
+  private interface TaskWriter {
+    void write(Task task) throws IOException;
+  }
+
+  @FunctionalInterface
+  private interface HeaderWriter {
+    void write() throws IOException;
+  }
+}
@@ -1,61 +1,346 @@
 package com.marcela.todo.service;
 
+import com.marcela.todo.config.CacheConfig;
+import com.marcela.todo.dto.TaskField;
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.dto.TaskView;
+import com.marcela.todo.dto.TaskViewPage;
+import com.marcela.todo.event.TaskEvent;
+import com.marcela.todo.model.ArchivedTask;
 import com.marcela.todo.model.Task;
-import com.marcela.todo.repository.TaskRepository;
+import com.marcela.todo.repository.ArchivedTaskRepository;
+import com.marcela.todo.repository.TaskPersistence;
+import com.marcela.todo.replica.ReplicaRouting;
+import com.marcela.todo.writebehind.TaskWriteBehind;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
+// no perfil reactive quem atende /tasks é o ReactiveTaskService
+@Profile("!reactive")
+@Timed(value = "task.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 public class TaskService {
-  private final TaskRepository taskRepository;
+  public static final int MAX_PAGE_SIZE = 500;
+  private static final int DELETE_ATTEMPTS = 3;
+
+  private final TaskPersistence taskPersistence;
+  private final ApplicationEventPublisher eventPublisher;
+  // null fora do modo write-behind (task.write-behind.enabled)
+  private final TaskWriteBehind writeBehind;
+  // null no perfil mmap, que não tem tabela de arquivo
+  private final ArchivedTaskRepository archivedTaskRepository;
+  // null no perfil mmap, que não tem JPA
+  private final TransactionTemplate readOnlyTransaction;
+  // incrementada depois do commit de cada alteração (onTaskEvent); vai nas chaves das SingleFlight para uma leitura
+  // que começou depois de uma escrita não receber o resultado de uma consulta que começou antes dela
+  private final AtomicLong generation = new AtomicLong();
+  // geração do início do getTaskById desta thread, conferida pelo unless do @Cacheable
+  private final ThreadLocal<Long> readGeneration = new ThreadLocal<>();
+  private final SingleFlight<TaskKey, Optional<Task>> taskFlights = new SingleFlight<>();
+  private final SingleFlight<ListKey, List<TaskView>> listFlights = new SingleFlight<>();
+  private final SingleFlight<PageKey, TaskViewPage> pageFlights = new SingleFlight<>();
 
   // injeção de dependência via construtor
-  public TaskService(TaskRepository taskRepository) {
-    this.taskRepository = taskRepository;
+  public TaskService(TaskPersistence taskPersistence, ApplicationEventPublisher eventPublisher,
+      ObjectProvider<TaskWriteBehind> writeBehind, ObjectProvider<ArchivedTaskRepository> archivedTaskRepository,
+      ObjectProvider<PlatformTransactionManager> transactionManager, ObjectProvider<MeterRegistry> meterRegistry) {
+    this.taskPersistence = taskPersistence;
+    this.eventPublisher = eventPublisher;
+    this.writeBehind = writeBehind.getIfAvailable();
+    this.archivedTaskRepository = archivedTaskRepository.getIfAvailable();
+    PlatformTransactionManager manager = transactionManager.getIfAvailable();
+    if (manager != null) {
+      this.readOnlyTransaction = new TransactionTemplate(manager);
+      this.readOnlyTransaction.setReadOnly(true);
+    } else {
+      this.readOnlyTransaction = null;
+    }
+    MeterRegistry registry = meterRegistry.getIfAvailable();
+    if (registry != null) {
+      taskFlights.bindTo(registry, "task");
+      listFlights.bindTo(registry, "list");
+      pageFlights.bindTo(registry, "page");
+    }
   }
 
   // cria uma nova task
+  // no modo write-behind, responde assim que a escrita está no log; o INSERT vem depois, em lote
   public Task createTask(Task task) {
-    return taskRepository.save(task);
+    Task savedTask = writeBehind != null ? writeBehind.create(task) : taskPersistence.save(task);
+    eventPublisher.publishEvent(TaskEvent.created(savedTask));
+    return savedTask;
+  }
+
+  // listagem para a API: projeção só das colunas de fields, sem entidades no contexto de persistência
+  // as leituras rodam em transação read-only: com réplicas (task.replica.urls) vão para uma réplica,
+  // e as consultas de uma mesma chamada (ex.: tasks + tasks_archive) veem o mesmo estado
+  // com includeArchived junta as de tasks_archive, na ordem de id
+  // listagens iguais simultâneas dividem a mesma consulta (ver getTaskById)
+  public List<TaskView> findTaskViews(TaskFilter filter, boolean includeArchived, Set<TaskField> fields) {
+    ListKey key = new ListKey(filter, includeArchived, fields, ReplicaRouting.primaryRequired(), generation.get());
+    return listFlights.execute(key, () -> readOnly(() -> {
+      List<TaskView> views = taskPersistence.findViews(filter, 0L, Integer.MAX_VALUE, fields);
+      if (!includeArchived || archivedTaskRepository == null) {
+        return views;
+      }
+      List<TaskView> archived = archivedTaskRepository.findViews(filter, 0L, Integer.MAX_VALUE, fields);
+      return mergeById(views, archived, Integer.MAX_VALUE, TaskView::id);
+    }));
   }
 
-  // lista todas as tasks
-  public List<Task> getAllTasks() {
-    return taskRepository.findAll();
+  // uma página a partir do cursor (keyset pelo id); busca um item a mais só para saber se existe próxima página
+  // com includeArchived, o mesmo keyset é aplicado em tasks_archive e as duas páginas são intercaladas pelo id
+  public TaskViewPage getTaskViewsPage(TaskFilter filter, String cursor, int limit, boolean includeArchived,
+      Set<TaskField> fields) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_PAGE_SIZE);
+    }
+    long lastId = TaskCursor.decode(cursor);
+
+    PageKey key = new PageKey(filter, lastId, limit, includeArchived, fields, ReplicaRouting.primaryRequired(),
+        generation.get());
+    return pageFlights.execute(key, () -> readOnly(() -> {
+      List<TaskView> views = taskPersistence.findViews(filter, lastId, limit + 1, fields);
+      if (includeArchived && archivedTaskRepository != null) {
+        views = mergeById(views, archivedTaskRepository.findViews(filter, lastId, limit + 1, fields), limit + 1,
+            TaskView::id);
+      }
+      if (views.size() <= limit) {
+        return new TaskViewPage(views, null);
+      }
+      List<TaskView> items = views.subList(0, limit);
+      return new TaskViewPage(items, TaskCursor.encode(items.get(limit - 1).id()));
+    }));
   }
 
-  // busca uma task pelo ID
+  // busca uma task pelo ID (passa pelo cache; ids inexistentes não são guardados)
+  // se não estiver na tabela tasks, procura em tasks_archive
+  // na janela de read-your-writes o cache fica de fora: a entrada pode ter vindo de uma réplica atrasada
+  // leituras simultâneas do mesmo id que passaram do cache (ex.: logo depois de uma alteração) fazem uma
+  // consulta só; a chave inclui o read-your-writes para quem precisa do primário não receber dado da réplica
+  // se uma alteração for confirmada durante a leitura, o resultado pode ser anterior a ela e não vai para o cache
+  // (senão sobrescreveria o @CachePut da escrita até o TTL)
+  @Cacheable(cacheNames = CacheConfig.TASKS_CACHE, key = "#id",
+      unless = "#result == null || #root.target.changedDuringRead()",
+      condition = "!T(com.marcela.todo.replica.ReplicaRouting).primaryRequired()")
   public Optional<Task> getTaskById(Long id) {
-    return taskRepository.findById(id);
+    long startedAt = generation.get();
+    readGeneration.set(startedAt);
+    if (writeBehind != null) {
+      Optional<Task> pending = writeBehind.pending(id);
+      if (pending.isPresent()) {
+        return pending;
+      }
+    }
+    return taskFlights.execute(new TaskKey(id, ReplicaRouting.primaryRequired(), startedAt), () -> readOnly(() -> {
+      Optional<Task> task = taskPersistence.findById(id);
+      return task.isPresent() ? task : findArchived(id);
+    }));
   }
 
-  // atualiza uma task
-  public Task updateTask(Task task) {
-    return taskRepository.save(task);
+  // atualiza os campos editáveis de uma task existente
+  // carrega do banco (e não do cache) para não alterar a instância que outros leitores estão usando
+  // expectedVersion (If-Match) é opcional; se não bater com a versão atual, nada é alterado
+  @Transactional
+  @CachePut(cacheNames = CacheConfig.TASKS_CACHE, key = "#id", unless = "#result == null")
+  public Optional<Task> updateTask(Long id, Task changes, Long expectedVersion) {
+    awaitPendingWrites(id);
+    Optional<Task> optionalTask = taskPersistence.findById(id);
+    if (optionalTask.isEmpty()) {
+      if (findArchived(id).isPresent()) {
+        throw new TaskArchivedException(id);
+      }
+      return Optional.empty();
+    }
+    Task task = optionalTask.get();
+    if (expectedVersion != null && task.getVersion() != expectedVersion) {
+      throw versionConflict(id);
+    }
+    Task previous = task.copy();
+    task.setTitle(changes.getTitle());
+    task.setDescription(changes.getDescription());
+    task.setDone(changes.isDone());
+    task.setCompletedAt(changes.getCompletedAt());
+    // o save grava na hora: a versão nova já sai no retorno (e no ETag)
+    // e uma escrita concorrente falha antes de o cache ser atualizado
+    Task savedTask = taskPersistence.save(task);
+    eventPublisher.publishEvent(TaskEvent.updated(savedTask, previous));
+    return Optional.of(savedTask);
   }
 
   // Marca task como concluída
-  public Optional<Task> markTaskAsDone(Long id) {
-    Optional<Task> optionalTask = taskRepository.findById(id);
-    if (optionalTask.isPresent()) {
-      Task task = optionalTask.get();
-      task.setDone(true);
-      task.setCompletedAt(LocalDateTime.now());
-      taskRepository.save(task);
-      return Optional.of(task);
-    }
-    return Optional.empty();
-  }
-
-  // deleta uma task
-  public boolean deleteTask(Long id) {
-    if (taskRepository.existsById(id)) {
-      taskRepository.deleteById(id);
-      return true;
-    } else {
+  // UPDATE direto no banco e depois um SELECT para devolver a task atualizada
+  // task já concluída não muda (mantém o completedAt original) e não gera evento
+  // tasks arquivadas estão todas concluídas, então caem no mesmo caso
+  @Transactional
+  @CachePut(cacheNames = CacheConfig.TASKS_CACHE, key = "#id", unless = "#result == null")
+  public Optional<Task> markTaskAsDone(Long id, Long expectedVersion) {
+    LocalDateTime now = LocalDateTime.now();
+    if (writeBehind != null && expectedVersion == null) {
+      // write-behind: lê o estado atual (pendente ou do banco) e só grava no log
+      Optional<Task> current = writeBehind.pending(id)
+          .or(() -> taskPersistence.findById(id))
+          .or(() -> findArchived(id));
+      if (current.isEmpty() || current.get().isDone()) {
+        return current;
+      }
+      Task doneTask = writeBehind.markDone(current.get(), now);
+      eventPublisher.publishEvent(TaskEvent.done(doneTask));
+      return Optional.of(doneTask);
+    }
+    awaitPendingWrites(id);
+    int updated = expectedVersion == null
+        ? taskPersistence.markAsDone(id, now)
+        : taskPersistence.markAsDone(id, expectedVersion, now);
+    Optional<Task> task = taskPersistence.findById(id);
+    if (updated == 0) {
+      task = task.or(() -> findArchived(id));
+      // inexistente, já concluída ou (com If-Match) em outra versão
+      if (task.isPresent() && expectedVersion != null && task.get().getVersion() != expectedVersion) {
+        throw versionConflict(id);
+      }
+      return task;
+    }
+    task.ifPresent(doneTask -> eventPublisher.publishEvent(TaskEvent.done(doneTask)));
+    return task;
+  }
+
+  // deleta uma task: SELECT do estado atual (vai no evento) e DELETE só nessa versão
+  // se outra requisição alterar a task entre os dois, sem If-Match tenta de novo; com If-Match é 412
+  @Transactional
+  @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
+  public boolean deleteTask(Long id, Long expectedVersion) {
+    awaitPendingWrites(id);
+    for (int attempt = 1; ; attempt++) {
+      Optional<Task> current = taskPersistence.findById(id);
+      if (current.isEmpty()) {
+        return deleteArchived(id, expectedVersion);
+      }
+      Task task = current.get();
+      if (expectedVersion != null && task.getVersion() != expectedVersion) {
+        throw versionConflict(id);
+      }
+      if (taskPersistence.removeByIdAndVersion(id, task.getVersion()) == 1) {
+        eventPublisher.publishEvent(TaskEvent.deleted(task.copy()));
+        return true;
+      }
+      if (expectedVersion != null || attempt == DELETE_ATTEMPTS) {
+        throw versionConflict(id);
+      }
+    }
+  }
+
+  // tasks arquivadas não mudam mais: basta conferir a versão e apagar de tasks_archive
+  private boolean deleteArchived(Long id, Long expectedVersion) {
+    Optional<Task> archived = findArchived(id);
+    if (archived.isEmpty()) {
+      return false;
+    }
+    if (expectedVersion != null && archived.get().getVersion() != expectedVersion) {
+      throw versionConflict(id);
+    }
+    if (archivedTaskRepository.removeById(id) == 0) {
       return false;
     }
+    eventPublisher.publishEvent(TaskEvent.deleted(archived.get()));
+    return true;
+  }
+
+  // depois do commit (ou na hora, fora de transação): leituras que começarem daqui em diante não se juntam
+  // às consultas em andamento
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTaskEvent(TaskEvent event) {
+    generation.incrementAndGet();
+  }
+
+  // também na publicação, ainda dentro da transação: o @CachePut da escrita vem antes do commit, e uma leitura
+  // que já tinha passado pelo banco não pode gravar o estado antigo por cima dele
+  @EventListener
+  public void onTaskEventPublished(TaskEvent event) {
+    generation.incrementAndGet();
+  }
+
+  // true se alguma alteração foi confirmada desde o início do getTaskById desta thread
+  public boolean changedDuringRead() {
+    Long startedAt = readGeneration.get();
+    readGeneration.remove();
+    return startedAt == null || startedAt != generation.get();
+  }
+
+  // a transação (e a conexão) é aberta só por quem executa a consulta; quem espera na SingleFlight não segura
+  // conexão do pool. Sem gerenciador de transação (perfil mmap) roda direto
+  private <T> T readOnly(Supplier<T> query) {
+    return readOnlyTransaction != null ? readOnlyTransaction.execute(status -> query.get()) : query.get();
+  }
+
+  private Optional<Task> findArchived(Long id) {
+    if (archivedTaskRepository == null) {
+      return Optional.empty();
+    }
+    return archivedTaskRepository.findById(id).map(ArchivedTask::toTask);
+  }
+
+  // intercala duas listas ordenadas por id, até max itens
+  // a tabela tasks é lida antes de tasks_archive: uma task arquivada entre as duas consultas aparece nas duas
+  // (e fica uma vez só), nunca em nenhuma
+  private static <T> List<T> mergeById(List<T> hot, List<T> archived, int max, ToLongFunction<T> id) {
+    List<T> merged = new ArrayList<>(Math.min(max, hot.size() + archived.size()));
+    int i = 0;
+    int j = 0;
+    while (merged.size() < max && (i < hot.size() || j < archived.size())) {
+      if (j == archived.size() || (i < hot.size() && id.applyAsLong(hot.get(i)) < id.applyAsLong(archived.get(j)))) {
+        merged.add(hot.get(i++));
+      } else if (i == hot.size() || id.applyAsLong(archived.get(j)) < id.applyAsLong(hot.get(i))) {
+        merged.add(archived.get(j++));
+      } else {
+        merged.add(hot.get(i++));
+        j++;
+      }
+    }
+    return merged;
+  }
+
+  // escritas síncronas sobre uma task com escrita pendente esperam o flush dela
+  private void awaitPendingWrites(Long id) {
+    if (writeBehind != null) {
+      writeBehind.awaitFlushed(id);
+    }
+  }
+
+  private static OptimisticLockingFailureException versionConflict(Long id) {
+    return new OptimisticLockingFailureException("A task " + id + " foi alterada por outra requisição");
+  }
+
+  // chaves das SingleFlight: os argumentos da consulta, se a thread precisa ler do primário e a geração
+  private record TaskKey(Long id, boolean primary, long generation) {
+  }
+
+  private record ListKey(TaskFilter filter, boolean includeArchived, Set<TaskField> fields, boolean primary,
+      long generation) {
+  }
+
+  private record PageKey(TaskFilter filter, long lastId, int limit, boolean includeArchived, Set<TaskField> fields,
+      boolean primary, long generation) {
   }
 }
@@ -0,0 +1,123 @@
+package com.marcela.todo.stats;
+
+import com.marcela.todo.dto.TaskStats;
+import com.marcela.todo.event.TaskEvent;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.replica.ReplicaRouting;
+import com.marcela.todo.repository.ArchivedTaskRepository;
+import com.marcela.todo.repository.TaskPersistence;
+import com.marcela.todo.repository.TaskStatsRow;
+import com.marcela.todo.writebehind.TaskWriteBehind;
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// contadores de GET /tasks/stats: abertas x concluídas, conclusões por dia e tempo médio até concluir
+// carregados uma vez na subida com um GROUP BY e depois atualizados a cada TaskEvent:
+// o estado anterior da task (event.previous) sai das contas e o novo entra, sem ler o banco
+// a leitura custa O(dias pedidos), não importa quantas tasks existam
+// tasks arquivadas continuam contando (ARCHIVED não muda nada aqui)
+@Component
+// o seed lê os agregados pelo TaskPersistence e os contadores dependem dos TaskEvent do TaskService
+@Profile("!reactive")
+public class TaskStatistics {
+  private final TaskPersistence taskPersistence;
+  // null no perfil mmap, que não tem tabela de arquivo
+  private final ArchivedTaskRepository archivedTaskRepository;
+
+  private long open;
+  private long done;
+  // concluídas com createdAt e completedAt, que entram no tempo médio
+  private long timed;
+  private long secondsToComplete;
+  private final NavigableMap<LocalDate, Long> completionsPerDay = new TreeMap<>();
+
+  public TaskStatistics(TaskPersistence taskPersistence,
+      ObjectProvider<ArchivedTaskRepository> archivedTaskRepository, ObjectProvider<TaskWriteBehind> writeBehind) {
+    this.taskPersistence = taskPersistence;
+    this.archivedTaskRepository = archivedTaskRepository.getIfAvailable();
+    // o write-behind grava no banco o log pendente ao subir; pedir o bean antes faz a contagem já incluir essas tasks
+    writeBehind.getIfAvailable();
+  }
+
+  // roda antes de o servidor aceitar requisições, então nenhum evento chega durante a consulta
+  // lê do primário: daqui em diante só os eventos atualizam os contadores
+  @PostConstruct
+  public void seed() {
+    List<TaskStatsRow> rows = new ArrayList<>();
+    ReplicaRouting.onPrimary(() -> {
+      rows.addAll(taskPersistence.aggregateStats());
+      if (archivedTaskRepository != null) {
+        rows.addAll(archivedTaskRepository.aggregateStats());
+      }
+    });
+    synchronized (this) {
+      open = 0;
+      done = 0;
+      timed = 0;
+      secondsToComplete = 0;
+      completionsPerDay.clear();
+      for (TaskStatsRow row : rows) {
+        if (!row.done()) {
+          open += row.tasks();
+          continue;
+        }
+        done += row.tasks();
+        if (row.completedOn() != null) {
+          completionsPerDay.merge(row.completedOn(), row.tasks(), Long::sum);
+          timed += row.timedTasks();
+          secondsToComplete += row.secondsToComplete() != null ? row.secondsToComplete() : 0;
+        }
+      }
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onTaskEvent(TaskEvent event) {
+    if (event.previous() != null) {
+      count(event.previous(), -1);
+    }
+    if (event.task() != null) {
+      count(event.task(), 1);
+    }
+  }
+
+  // conclusões a partir de hoje - (days - 1)
+  public synchronized TaskStats snapshot(int days) {
+    LocalDate from = LocalDate.now().minusDays(days - 1L);
+    return new TaskStats(open + done, open, done,
+        timed > 0 ? (double) secondsToComplete / timed : null,
+        new LinkedHashMap<>(completionsPerDay.tailMap(from, true)));
+  }
+
+  // mesmas regras da consulta agregada; sign = -1 tira a task das contas
+  private void count(Task task, int sign) {
+    if (!task.isDone()) {
+      open += sign;
+      return;
+    }
+    done += sign;
+    LocalDateTime completedAt = task.getCompletedAt();
+    if (completedAt == null) {
+      return;
+    }
+    completionsPerDay.compute(completedAt.toLocalDate(), (day, count) -> {
+      long updated = (count != null ? count : 0) + sign;
+      return updated != 0 ? updated : null;
+    });
+    if (task.getCreatedAt() != null) {
+      timed += sign;
+      secondsToComplete += sign * ChronoUnit.SECONDS.between(task.getCreatedAt(), completedAt);
+    }
+  }
+}
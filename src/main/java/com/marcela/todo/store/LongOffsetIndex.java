@@ -0,0 +1,101 @@
+package com.marcela.todo.store;
+
+import java.util.Arrays;
+
+// índice id -> posição do registro no arquivo, em arrays primitivos ordenados pelo id
+// busca binária no lookup; ids novos são sempre maiores, então inserir é acrescentar no fim
+// remover só marca a posição com -1 (a entrada sai de vez na compactação)
+final class LongOffsetIndex {
+  static final int ABSENT = -1;
+
+  private long[] keys;
+  private int[] offsets;
+  private int size;
+  private int live;
+
+  LongOffsetIndex(int initialCapacity) {
+    keys = new long[Math.max(16, initialCapacity)];
+    offsets = new int[keys.length];
+  }
+
+  int get(long key) {
+    int slot = Arrays.binarySearch(keys, 0, size, key);
+    return slot >= 0 ? offsets[slot] : ABSENT;
+  }
+
+  // retorna a posição anterior (ABSENT se não existia ou estava removido)
+  int put(long key, int offset) {
+    if (size > 0 && key > keys[size - 1]) {
+      append(key, offset);
+      return ABSENT;
+    }
+    int slot = Arrays.binarySearch(keys, 0, size, key);
+    if (slot >= 0) {
+      int previous = offsets[slot];
+      offsets[slot] = offset;
+      if (previous == ABSENT) {
+        live++;
+      }
+      return previous;
+    }
+    // fora de ordem (só acontece lendo arquivo antigo): abre espaço no meio
+    int insertAt = -slot - 1;
+    grow();
+    System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+    System.arraycopy(offsets, insertAt, offsets, insertAt + 1, size - insertAt);
+    keys[insertAt] = key;
+    offsets[insertAt] = offset;
+    size++;
+    live++;
+    return ABSENT;
+  }
+
+  // retorna a posição removida (ABSENT se não existia)
+  int remove(long key) {
+    int slot = Arrays.binarySearch(keys, 0, size, key);
+    if (slot < 0 || offsets[slot] == ABSENT) {
+      return ABSENT;
+    }
+    int previous = offsets[slot];
+    offsets[slot] = ABSENT;
+    live--;
+    return previous;
+  }
+
+  // primeira entrada (viva ou não) com id maior que key
+  int firstSlotAfter(long key) {
+    int slot = Arrays.binarySearch(keys, 0, size, key);
+    return slot >= 0 ? slot + 1 : -slot - 1;
+  }
+
+  long keyAt(int slot) {
+    return keys[slot];
+  }
+
+  int offsetAt(int slot) {
+    return offsets[slot];
+  }
+
+  int slots() {
+    return size;
+  }
+
+  int live() {
+    return live;
+  }
+
+  private void append(long key, int offset) {
+    grow();
+    keys[size] = key;
+    offsets[size] = offset;
+    size++;
+    live++;
+  }
+
+  private void grow() {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, keys.length * 2);
+      offsets = Arrays.copyOf(offsets, offsets.length * 2);
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package com.marcela.todo.store;
+
+import com.marcela.todo.dto.TaskField;
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.dto.TaskView;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.repository.TaskPersistence;
+import com.marcela.todo.repository.TaskStatsRow;
+import jakarta.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+// TaskPersistence sobre o MappedTaskStore, para rodar sem banco (perfil mmap)
+@Repository
+@Profile("mmap")
+public class MappedTaskPersistence implements TaskPersistence {
+  // tasks lidas do arquivo por vez numa listagem filtrada
+  private static final int SCAN_PAGE = 1000;
+
+  private final MappedTaskStore store;
+
+  public MappedTaskPersistence(@Value("${task.mmap.file:data/tasks.dat}") Path file,
+      @Value("${task.mmap.force-writes:true}") boolean forceWrites) {
+    this.store = new MappedTaskStore(file, forceWrites);
+  }
+
+  @PreDestroy
+  public void close() {
+    store.close();
+  }
+
+  public MappedTaskStore store() {
+    return store;
+  }
+
+  @Override
+  public Task save(Task task) {
+    Task saved = store.save(task);
+    // como no JPA, devolve a mesma instância atualizada: copiamos id, versão e createdAt de volta
+    task.setId(saved.getId());
+    task.setVersion(saved.getVersion());
+    task.setCreatedAt(saved.getCreatedAt());
+    return task;
+  }
+
+  @Override
+  public Optional<Task> findById(Long id) {
+    return store.find(id);
+  }
+
+  // sem índices além do id: com filtro, percorre o arquivo em ordem de id até juntar limit tasks
+  @Override
+  public List<TaskView> findViews(TaskFilter filter, long afterId, int limit, Set<TaskField> fields) {
+    if (filter.isEmpty()) {
+      return store.scan(afterId, limit).stream().map(task -> TaskView.of(task, fields)).toList();
+    }
+    List<TaskView> views = new ArrayList<>();
+    long lastId = afterId;
+    List<Task> page;
+    do {
+      page = store.scan(lastId, SCAN_PAGE);
+      for (Task task : page) {
+        if (matches(filter, task)) {
+          views.add(TaskView.of(task, fields));
+          if (views.size() == limit) {
+            return views;
+          }
+        }
+      }
+      if (!page.isEmpty()) {
+        lastId = page.get(page.size() - 1).getId();
+      }
+    } while (page.size() == SCAN_PAGE);
+    return views;
+  }
+
+  @Override
+  public int markAsDone(Long id, LocalDateTime completedAt) {
+    return markAsDone(id, null, completedAt);
+  }
+
+  @Override
+  public int markAsDone(Long id, long version, LocalDateTime completedAt) {
+    return markAsDone(id, Long.valueOf(version), completedAt);
+  }
+
+  @Override
+  public int removeByIdAndVersion(Long id, long version) {
+    Optional<Task> task = store.find(id);
+    if (task.isEmpty() || task.get().getVersion() != version) {
+      return 0;
+    }
+    return store.delete(id, version) ? 1 : 0;
+  }
+
+  // mesmo agrupamento da consulta JPQL, lendo o arquivo uma vez
+  @Override
+  public List<TaskStatsRow> aggregateStats() {
+    Map<StatsKey, long[]> groups = new LinkedHashMap<>();
+    store.forEach(task -> {
+      LocalDate completedOn = task.getCompletedAt() != null ? task.getCompletedAt().toLocalDate() : null;
+      long[] group = groups.computeIfAbsent(new StatsKey(task.isDone(), completedOn), key -> new long[3]);
+      group[0]++;
+      if (task.getCreatedAt() != null) {
+        group[1]++;
+        if (task.getCompletedAt() != null) {
+          group[2] += ChronoUnit.SECONDS.between(task.getCreatedAt(), task.getCompletedAt());
+        }
+      }
+    });
+    List<TaskStatsRow> rows = new ArrayList<>(groups.size());
+    groups.forEach((key, group) -> rows.add(new TaskStatsRow(key.done(), key.completedOn(), group[0], group[1],
+        key.completedOn() != null ? group[2] : null)));
+    return rows;
+  }
+
+  // mesma semântica do UPDATE em JPQL: 0 se não existir, se já estiver concluída ou se a versão não bater
+  private int markAsDone(Long id, Long version, LocalDateTime completedAt) {
+    Optional<Task> current = store.find(id);
+    if (current.isEmpty() || current.get().isDone()
+        || (version != null && current.get().getVersion() != version)) {
+      return 0;
+    }
+    Task task = current.get();
+    task.setDone(true);
+    task.setCompletedAt(completedAt);
+    store.save(task);
+    return 1;
+  }
+
+  // as mesmas regras das TaskSpecifications: intervalos [from, to) e data ausente nunca casa com um intervalo
+  static boolean matches(TaskFilter filter, Task task) {
+    if (filter.done() != null && task.isDone() != filter.done()) {
+      return false;
+    }
+    if (!within(task.getCreatedAt(), filter.createdFrom(), filter.createdTo())) {
+      return false;
+    }
+    if (!within(task.getCompletedAt(), filter.completedFrom(), filter.completedTo())) {
+      return false;
+    }
+    String prefix = filter.titlePrefix();
+    return prefix == null || prefix.isEmpty() || (task.getTitle() != null && task.getTitle().startsWith(prefix));
+  }
+
+  private static boolean within(LocalDateTime value, LocalDateTime from, LocalDateTime to) {
+    if (from == null && to == null) {
+      return true;
+    }
+    return value != null && (from == null || !value.isBefore(from)) && (to == null || value.isBefore(to));
+  }
+
+  private record StatsKey(boolean done, LocalDate completedOn) {
+  }
+}
@@ -0,0 +1,370 @@
+package com.marcela.todo.store;
+
+import com.marcela.todo.model.Task;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+// armazenamento de tasks num único arquivo mapeado em memória, só de acréscimo
+// cabeçalho: magic(4) formato(4) próximo id(8); depois registros: tamanho(4) crc32(4) dados
+// salvar grava uma versão nova do registro no fim; deletar grava um tombstone
+// o LongOffsetIndex aponta cada id para a versão atual e é reconstruído lendo o arquivo na abertura
+// versões antigas e tombstones viram espaço morto, recuperado pela compactação
+// limite: o arquivo mapeado não passa de 1 GB
+public class MappedTaskStore implements AutoCloseable {
+  private static final int MAGIC = 0x5441534B;
+  private static final int FORMAT = 1;
+  private static final int HEADER_SIZE = 16;
+  private static final int RECORD_HEADER_SIZE = 8;
+  private static final int MIN_CAPACITY = 1 << 20;
+  // compacta sozinho quando o espaço morto passa do vivo e de 4 MB
+  private static final long AUTO_COMPACT_MIN_DEAD = 4L << 20;
+
+  private final Path file;
+  private final boolean forceWrites;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private FileChannel channel;
+  private MappedByteBuffer buffer;
+  private LongOffsetIndex index;
+  private int writePosition;
+  private long nextId;
+  private long deadBytes;
+
+  // forceWrites: cada escrita só retorna depois de chegar ao disco (msync do trecho alterado)
+  public MappedTaskStore(Path file, boolean forceWrites) {
+    this.file = file;
+    this.forceWrites = forceWrites;
+    try {
+      if (file.getParent() != null) {
+        Files.createDirectories(file.getParent());
+      }
+      open();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Não foi possível abrir " + file, e);
+    }
+  }
+
+  public Optional<Task> find(long id) {
+    lock.readLock().lock();
+    try {
+      int offset = index.get(id);
+      return offset == LongOffsetIndex.ABSENT ? Optional.empty() : Optional.of(read(offset));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public boolean exists(long id) {
+    lock.readLock().lock();
+    try {
+      return index.get(id) != LongOffsetIndex.ABSENT;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public long count() {
+    lock.readLock().lock();
+    try {
+      return index.live();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // até limit tasks com id maior que afterId, em ordem de id
+  public List<Task> scan(long afterId, int limit) {
+    lock.readLock().lock();
+    try {
+      List<Task> tasks = new ArrayList<>(Math.min(limit, index.live()));
+      for (int slot = index.firstSlotAfter(afterId); slot < index.slots() && tasks.size() < limit; slot++) {
+        int offset = index.offsetAt(slot);
+        if (offset != LongOffsetIndex.ABSENT) {
+          tasks.add(read(offset));
+        }
+      }
+      return tasks;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // percorre todas as tasks em ordem de id, em blocos, sem segurar o lock durante o consumer
+  public void forEach(Consumer<Task> consumer) {
+    long lastId = 0;
+    List<Task> page;
+    do {
+      page = scan(lastId, 1000);
+      page.forEach(consumer);
+      if (!page.isEmpty()) {
+        lastId = page.get(page.size() - 1).getId();
+      }
+    } while (!page.isEmpty());
+  }
+
+  // grava a task: sem id, cria (id novo, versão 0, createdAt); com id, exige a mesma versão do arquivo
+  public Task save(Task task) {
+    lock.writeLock().lock();
+    try {
+      Task stored = task.copy();
+      if (stored.getId() == null) {
+        stored.setId(nextId++);
+        stored.setVersion(0);
+        if (stored.getCreatedAt() == null) {
+          stored.setCreatedAt(LocalDateTime.now());
+        }
+        buffer.putLong(8, nextId);
+        force(8, 8);
+      } else {
+        int offset = index.get(stored.getId());
+        if (offset != LongOffsetIndex.ABSENT && read(offset).getVersion() != stored.getVersion()) {
+          throw new OptimisticLockingFailureException("A task " + stored.getId() + " foi alterada por outra requisição");
+        }
+        if (offset != LongOffsetIndex.ABSENT) {
+          stored.setVersion(stored.getVersion() + 1);
+        }
+        if (stored.getId() >= nextId) {
+          nextId = stored.getId() + 1;
+          buffer.putLong(8, nextId);
+          force(8, 8);
+        }
+      }
+      int previous = index.put(stored.getId(), append(TaskRecordCodec.encode(stored)));
+      addDead(previous);
+      compactIfWorthIt();
+      return stored;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // remove a task; com expectedVersion, só se a versão bater
+  // retorna false se não existir; versão diferente lança OptimisticLockingFailureException
+  public boolean delete(long id, Long expectedVersion) {
+    lock.writeLock().lock();
+    try {
+      int offset = index.get(id);
+      if (offset == LongOffsetIndex.ABSENT) {
+        return false;
+      }
+      if (expectedVersion != null && read(offset).getVersion() != expectedVersion) {
+        throw new OptimisticLockingFailureException("A task " + id + " foi alterada por outra requisição");
+      }
+      int tombstone = append(TaskRecordCodec.encodeTombstone(id));
+      addDead(index.remove(id));
+      deadBytes += recordSize(tombstone);
+      compactIfWorthIt();
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // reescreve o arquivo só com as versões atuais, em ordem de id, e troca o arquivo de uma vez
+  public void compact() {
+    lock.writeLock().lock();
+    try {
+      Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+      long liveBytes = (long) writePosition - HEADER_SIZE - deadBytes;
+      int capacity = capacityFor(HEADER_SIZE + liveBytes);
+      LongOffsetIndex compactedIndex = new LongOffsetIndex(index.live());
+      try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        MappedByteBuffer out = target.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        writeHeader(out, nextId);
+        int position = HEADER_SIZE;
+        for (int slot = 0; slot < index.slots(); slot++) {
+          int offset = index.offsetAt(slot);
+          if (offset == LongOffsetIndex.ABSENT) {
+            continue;
+          }
+          int size = recordSize(offset);
+          out.put(position, buffer, offset, size);
+          compactedIndex.put(index.keyAt(slot), position);
+          position += size;
+        }
+        out.force();
+        channel.close();
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        index = compactedIndex;
+        writePosition = position;
+        deadBytes = 0;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Falha ao compactar " + file, e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public long deadBytes() {
+    lock.readLock().lock();
+    try {
+      return deadBytes;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public long sizeOnDisk() {
+    lock.readLock().lock();
+    try {
+      return writePosition;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    lock.writeLock().lock();
+    try {
+      buffer.force();
+      channel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Falha ao fechar " + file, e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // lê o arquivo do início e reconstrói o índice
+  // a leitura para no primeiro registro vazio ou corrompido (escrita interrompida por uma queda)
+  private void open() throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    long fileSize = channel.size();
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityFor(fileSize));
+    index = new LongOffsetIndex(1024);
+    if (fileSize == 0) {
+      writeHeader(buffer, 1);
+      force(0, HEADER_SIZE);
+      nextId = 1;
+      writePosition = HEADER_SIZE;
+      return;
+    }
+    if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+      throw new IOException(file + " não é um arquivo de tasks");
+    }
+    nextId = buffer.getLong(8);
+    int position = HEADER_SIZE;
+    while (position + RECORD_HEADER_SIZE <= buffer.capacity()) {
+      int length = buffer.getInt(position);
+      if (length == 0) {
+        break;
+      }
+      if (length < 0 || position + RECORD_HEADER_SIZE + length > buffer.capacity()
+          || buffer.getInt(position + 4) != crc(position + RECORD_HEADER_SIZE, length)) {
+        // registro pela metade: limpa o resto para não ser confundido com dados depois
+        for (int i = position; i < buffer.capacity(); i++) {
+          buffer.put(i, (byte) 0);
+        }
+        buffer.force();
+        break;
+      }
+      int data = position + RECORD_HEADER_SIZE;
+      long id = TaskRecordCodec.id(buffer, data);
+      if (TaskRecordCodec.kind(buffer, data) == TaskRecordCodec.TOMBSTONE) {
+        addDead(index.remove(id));
+        deadBytes += RECORD_HEADER_SIZE + length;
+      } else {
+        addDead(index.put(id, position));
+      }
+      nextId = Math.max(nextId, id + 1);
+      position += RECORD_HEADER_SIZE + length;
+    }
+    writePosition = position;
+  }
+
+  // os dados e o CRC são gravados antes do tamanho: um registro só "existe" depois de completo
+  private int append(byte[] data) {
+    int size = RECORD_HEADER_SIZE + data.length;
+    ensureCapacity(size);
+    int position = writePosition;
+    buffer.put(position + RECORD_HEADER_SIZE, data);
+    buffer.putInt(position + 4, crc(position + RECORD_HEADER_SIZE, data.length));
+    buffer.putInt(position, data.length);
+    force(position, size);
+    writePosition += size;
+    return position;
+  }
+
+  private void ensureCapacity(int size) {
+    long required = (long) writePosition + size;
+    if (required <= buffer.capacity()) {
+      return;
+    }
+    try {
+      buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityFor(required));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Não foi possível aumentar " + file, e);
+    }
+  }
+
+  private Task read(int offset) {
+    return TaskRecordCodec.decode(buffer, offset + RECORD_HEADER_SIZE);
+  }
+
+  private int recordSize(int offset) {
+    return RECORD_HEADER_SIZE + buffer.getInt(offset);
+  }
+
+  private void addDead(int previousOffset) {
+    if (previousOffset != LongOffsetIndex.ABSENT) {
+      deadBytes += recordSize(previousOffset);
+    }
+  }
+
+  private void compactIfWorthIt() {
+    long liveBytes = (long) writePosition - HEADER_SIZE - deadBytes;
+    if (deadBytes > AUTO_COMPACT_MIN_DEAD && deadBytes > liveBytes) {
+      compact();
+    }
+  }
+
+  private int crc(int position, int length) {
+    CRC32 crc = new CRC32();
+    crc.update(buffer.slice(position, length));
+    return (int) crc.getValue();
+  }
+
+  private void force(int position, int length) {
+    if (forceWrites) {
+      buffer.force(position, length);
+    }
+  }
+
+  // dobra a capacidade mapeada até caber (mínimo de 1 MB, máximo de 1 GB)
+  private static int capacityFor(long size) {
+    long capacity = MIN_CAPACITY;
+    while (capacity < size) {
+      capacity *= 2;
+    }
+    if (capacity > Integer.MAX_VALUE) {
+      throw new IllegalStateException("Arquivo de tasks passou do limite de 1 GB");
+    }
+    return (int) capacity;
+  }
+
+  private static void writeHeader(MappedByteBuffer target, long nextId) {
+    target.putInt(0, MAGIC);
+    target.putInt(4, FORMAT);
+    target.putLong(8, nextId);
+  }
+}
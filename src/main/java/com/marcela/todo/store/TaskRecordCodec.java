@@ -0,0 +1,101 @@
+package com.marcela.todo.store;
+
+import com.marcela.todo.model.Task;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// formato binário de um registro (sem o cabeçalho de tamanho e CRC, que é do MappedTaskStore)
+// kind(1) id(8) e, para TASK: version(8) done(1) createdAt(12) completedAt(12) title description
+// datas: segundos + nanos em UTC; texto: tamanho em bytes (-1 = null) + UTF-8
+final class TaskRecordCodec {
+  static final byte TASK = 1;
+  static final byte TOMBSTONE = 2;
+  private static final long NULL_DATE = Long.MIN_VALUE;
+
+  private TaskRecordCodec() {
+  }
+
+  static byte[] encode(Task task) {
+    byte[] title = bytes(task.getTitle());
+    byte[] description = bytes(task.getDescription());
+    int size = 1 + 8 + 8 + 1 + 12 + 12 + textSize(title) + textSize(description);
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    buffer.put(TASK);
+    buffer.putLong(task.getId());
+    buffer.putLong(task.getVersion());
+    buffer.put((byte) (task.isDone() ? 1 : 0));
+    putDate(buffer, task.getCreatedAt());
+    putDate(buffer, task.getCompletedAt());
+    putText(buffer, title);
+    putText(buffer, description);
+    return buffer.array();
+  }
+
+  static byte[] encodeTombstone(long id) {
+    return ByteBuffer.allocate(1 + 8).put(TOMBSTONE).putLong(id).array();
+  }
+
+  static byte kind(ByteBuffer buffer, int offset) {
+    return buffer.get(offset);
+  }
+
+  static long id(ByteBuffer buffer, int offset) {
+    return buffer.getLong(offset + 1);
+  }
+
+  static Task decode(ByteBuffer buffer, int offset) {
+    int position = offset + 1;
+    Task task = new Task();
+    task.setId(buffer.getLong(position));
+    task.setVersion(buffer.getLong(position + 8));
+    task.setDone(buffer.get(position + 16) == 1);
+    position += 17;
+    task.setCreatedAt(getDate(buffer, position));
+    task.setCompletedAt(getDate(buffer, position + 12));
+    position += 24;
+    int titleLength = buffer.getInt(position);
+    task.setTitle(getText(buffer, position + 4, titleLength));
+    position += 4 + Math.max(0, titleLength);
+    task.setDescription(getText(buffer, position + 4, buffer.getInt(position)));
+    return task;
+  }
+
+  private static byte[] bytes(String text) {
+    return text != null ? text.getBytes(StandardCharsets.UTF_8) : null;
+  }
+
+  private static int textSize(byte[] text) {
+    return 4 + (text != null ? text.length : 0);
+  }
+
+  private static void putText(ByteBuffer buffer, byte[] text) {
+    buffer.putInt(text != null ? text.length : -1);
+    if (text != null) {
+      buffer.put(text);
+    }
+  }
+
+  private static String getText(ByteBuffer buffer, int position, int length) {
+    if (length < 0) {
+      return null;
+    }
+    byte[] text = new byte[length];
+    buffer.get(position, text);
+    return new String(text, StandardCharsets.UTF_8);
+  }
+
+  private static void putDate(ByteBuffer buffer, LocalDateTime date) {
+    buffer.putLong(date != null ? date.toEpochSecond(ZoneOffset.UTC) : NULL_DATE);
+    buffer.putInt(date != null ? date.getNano() : 0);
+  }
+
+  private static LocalDateTime getDate(ByteBuffer buffer, int position) {
+    long seconds = buffer.getLong(position);
+    if (seconds == NULL_DATE) {
+      return null;
+    }
+    return LocalDateTime.ofEpochSecond(seconds, buffer.getInt(position + 8), ZoneOffset.UTC);
+  }
+}
@@ -0,0 +1,98 @@
+package com.marcela.todo.wire;
+
+import java.nio.charset.StandardCharsets;
+
+// leitura do wire format do protobuf sobre um array de bytes
+// campos desconhecidos são pulados pelo tipo, então versões novas do schema continuam legíveis
+final class ProtoReader {
+  private static final int FIXED64 = 1;
+  private static final int FIXED32 = 5;
+
+  private final byte[] bytes;
+  private int position;
+  private final int limit;
+
+  ProtoReader(byte[] bytes, int offset, int length) {
+    this.bytes = bytes;
+    this.position = offset;
+    this.limit = offset + length;
+  }
+
+  boolean hasMore() {
+    return position < limit;
+  }
+
+  // próxima tag (campo << 3 | tipo)
+  int readTag() {
+    long tag = readVarint();
+    if (tag >>> 3 == 0 || tag > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Tag protobuf inválida: " + tag);
+    }
+    return (int) tag;
+  }
+
+  void expectWireType(int tag, int wireType) {
+    if ((tag & 0x7) != wireType) {
+      throw new IllegalArgumentException("Campo protobuf " + (tag >>> 3) + " com tipo inesperado: " + (tag & 0x7));
+    }
+  }
+
+  long readVarint() {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = next();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Varint protobuf inválido");
+  }
+
+  String readString() {
+    int length = readLength();
+    String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+    position += length;
+    return value;
+  }
+
+  // mensagem aninhada: um reader limitado aos bytes dela
+  ProtoReader readMessage() {
+    int length = readLength();
+    ProtoReader message = new ProtoReader(bytes, position, length);
+    position += length;
+    return message;
+  }
+
+  void skip(int tag) {
+    switch (tag & 0x7) {
+      case ProtoWriter.VARINT -> readVarint();
+      case FIXED64 -> advance(8);
+      case ProtoWriter.LENGTH_DELIMITED -> advance(readLength());
+      case FIXED32 -> advance(4);
+      default -> throw new IllegalArgumentException("Tipo de campo protobuf não suportado: " + (tag & 0x7));
+    }
+  }
+
+  private int readLength() {
+    long length = readVarint();
+    if (length < 0 || length > limit - position) {
+      throw new IllegalArgumentException("Mensagem protobuf truncada");
+    }
+    return (int) length;
+  }
+
+  private void advance(int count) {
+    if (count > limit - position) {
+      throw new IllegalArgumentException("Mensagem protobuf truncada");
+    }
+    position += count;
+  }
+
+  private byte next() {
+    if (position >= limit) {
+      throw new IllegalArgumentException("Mensagem protobuf truncada");
+    }
+    return bytes[position++];
+  }
+}
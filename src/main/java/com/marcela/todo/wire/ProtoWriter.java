@@ -0,0 +1,84 @@
+package com.marcela.todo.wire;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// buffer de bytes com as primitivas do wire format do protobuf (varint, tag, campo com tamanho)
+final class ProtoWriter {
+  static final int VARINT = 0;
+  static final int LENGTH_DELIMITED = 2;
+
+  private byte[] bytes;
+  private int size;
+
+  ProtoWriter(int capacity) {
+    bytes = new byte[capacity];
+  }
+
+  int size() {
+    return size;
+  }
+
+  void reset() {
+    size = 0;
+  }
+
+  void writeTag(int field, int wireType) {
+    writeVarint((field << 3) | wireType);
+  }
+
+  void writeVarint(long value) {
+    ensure(10);
+    while ((value & ~0x7FL) != 0) {
+      bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    bytes[size++] = (byte) value;
+  }
+
+  void writeInt64(int field, long value) {
+    writeTag(field, VARINT);
+    writeVarint(value);
+  }
+
+  void writeBool(int field, boolean value) {
+    writeTag(field, VARINT);
+    writeVarint(value ? 1 : 0);
+  }
+
+  void writeString(int field, String value) {
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    writeTag(field, LENGTH_DELIMITED);
+    writeVarint(utf8.length);
+    write(utf8, 0, utf8.length);
+  }
+
+  // mensagem aninhada: tag, tamanho e os bytes já codificados em outro writer
+  void writeMessage(int field, ProtoWriter message) {
+    writeTag(field, LENGTH_DELIMITED);
+    writeVarint(message.size);
+    write(message.bytes, 0, message.size);
+  }
+
+  void write(byte[] source, int offset, int length) {
+    ensure(length);
+    System.arraycopy(source, offset, bytes, size, length);
+    size += length;
+  }
+
+  void writeTo(OutputStream out) throws IOException {
+    out.write(bytes, 0, size);
+  }
+
+  byte[] toByteArray() {
+    return Arrays.copyOf(bytes, size);
+  }
+
+  private void ensure(int extra) {
+    if (size + extra > bytes.length) {
+      bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package com.marcela.todo.wire;
+
+import com.marcela.todo.dto.TaskPage;
+import com.marcela.todo.model.Task;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.http.MediaType;
+
+// codifica tasks no wire format do protobuf, sem depender de código gerado
+// o schema está em src/main/resources/proto/task.proto; clientes podem gerar as classes a partir dele
+// datas viram epoch em milissegundos (a LocalDateTime é lida como UTC); campos null não são escritos
+public final class TaskProtobuf {
+  public static final String MEDIA_TYPE_VALUE = "application/x-protobuf";
+  public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+  // campos de Task
+  private static final int ID = 1;
+  private static final int TITLE = 2;
+  private static final int DESCRIPTION = 3;
+  private static final int DONE = 4;
+  private static final int CREATED_AT = 5;
+  private static final int COMPLETED_AT = 6;
+  private static final int VERSION = 7;
+
+  // campos de TaskList
+  private static final int TASKS = 1;
+  private static final int NEXT_CURSOR = 2;
+
+  // acima disso a lista vai sendo despejada no OutputStream em vez de crescer o buffer
+  private static final int FLUSH_BYTES = 8192;
+
+  private TaskProtobuf() {
+  }
+
+  public static byte[] encode(Task task) {
+    ProtoWriter writer = new ProtoWriter(128);
+    writeTask(writer, task);
+    return writer.toByteArray();
+  }
+
+  // TaskList com as tasks e o cursor (null fora da listagem paginada)
+  public static void writeList(List<Task> tasks, String nextCursor, OutputStream out) throws IOException {
+    ProtoWriter list = new ProtoWriter(FLUSH_BYTES + 256);
+    ProtoWriter item = new ProtoWriter(256);
+    for (Task task : tasks) {
+      item.reset();
+      writeTask(item, task);
+      list.writeMessage(TASKS, item);
+      if (list.size() >= FLUSH_BYTES) {
+        list.writeTo(out);
+        list.reset();
+      }
+    }
+    if (nextCursor != null) {
+      list.writeString(NEXT_CURSOR, nextCursor);
+    }
+    list.writeTo(out);
+  }
+
+  // tasks em sequência, cada uma prefixada pelo tamanho em varint (como o writeDelimitedTo do protobuf)
+  // usado no export em streaming; reaproveita o buffer de uma task para a próxima
+  public static final class DelimitedWriter {
+    private final OutputStream out;
+    private final ProtoWriter task = new ProtoWriter(256);
+    private final ProtoWriter length = new ProtoWriter(10);
+
+    public DelimitedWriter(OutputStream out) {
+      this.out = out;
+    }
+
+    public void write(Task value) throws IOException {
+      task.reset();
+      writeTask(task, value);
+      length.reset();
+      length.writeVarint(task.size());
+      length.writeTo(out);
+      task.writeTo(out);
+    }
+  }
+
+  public static Task decode(byte[] bytes) {
+    return readTask(new ProtoReader(bytes, 0, bytes.length));
+  }
+
+  public static TaskPage decodeList(byte[] bytes) {
+    ProtoReader reader = new ProtoReader(bytes, 0, bytes.length);
+    List<Task> tasks = new ArrayList<>();
+    String nextCursor = null;
+    while (reader.hasMore()) {
+      int tag = reader.readTag();
+      int field = tag >>> 3;
+      if (field == TASKS || field == NEXT_CURSOR) {
+        reader.expectWireType(tag, ProtoWriter.LENGTH_DELIMITED);
+      }
+      switch (field) {
+        case TASKS -> tasks.add(readTask(reader.readMessage()));
+        case NEXT_CURSOR -> nextCursor = reader.readString();
+        default -> reader.skip(tag);
+      }
+    }
+    return new TaskPage(tasks, nextCursor);
+  }
+
+  private static void writeTask(ProtoWriter writer, Task task) {
+    if (task.getId() != null) {
+      writer.writeInt64(ID, task.getId());
+    }
+    if (task.getTitle() != null) {
+      writer.writeString(TITLE, task.getTitle());
+    }
+    if (task.getDescription() != null) {
+      writer.writeString(DESCRIPTION, task.getDescription());
+    }
+    if (task.isDone()) {
+      writer.writeBool(DONE, true);
+    }
+    if (task.getCreatedAt() != null) {
+      writer.writeInt64(CREATED_AT, toEpochMilli(task.getCreatedAt()));
+    }
+    if (task.getCompletedAt() != null) {
+      writer.writeInt64(COMPLETED_AT, toEpochMilli(task.getCompletedAt()));
+    }
+    if (task.getVersion() != 0) {
+      writer.writeInt64(VERSION, task.getVersion());
+    }
+  }
+
+  private static Task readTask(ProtoReader reader) {
+    Task task = new Task();
+    while (reader.hasMore()) {
+      int tag = reader.readTag();
+      int field = tag >>> 3;
+      if (field >= ID && field <= VERSION) {
+        reader.expectWireType(tag, field == TITLE || field == DESCRIPTION
+            ? ProtoWriter.LENGTH_DELIMITED : ProtoWriter.VARINT);
+      }
+      switch (field) {
+        case ID -> task.setId(reader.readVarint());
+        case TITLE -> task.setTitle(reader.readString());
+        case DESCRIPTION -> task.setDescription(reader.readString());
+        case DONE -> task.setDone(reader.readVarint() != 0);
+        case CREATED_AT -> task.setCreatedAt(fromEpochMilli(reader.readVarint()));
+        case COMPLETED_AT -> task.setCompletedAt(fromEpochMilli(reader.readVarint()));
+        case VERSION -> task.setVersion(reader.readVarint());
+        default -> reader.skip(tag);
+      }
+    }
+    return task;
+  }
+
+  private static long toEpochMilli(LocalDateTime date) {
+    return date.toEpochSecond(ZoneOffset.UTC) * 1000 + date.getNano() / 1_000_000;
+  }
+
+  private static LocalDateTime fromEpochMilli(long millis) {
+    return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+        Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+  }
+}
@@ -0,0 +1,110 @@
+package com.marcela.todo.wire;
+
+import com.marcela.todo.dto.TaskPage;
+import com.marcela.todo.dto.TaskView;
+import com.marcela.todo.dto.TaskViewPage;
+import com.marcela.todo.model.Task;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+// application/x-protobuf para Task, List<Task> e TaskPage (os dois últimos como TaskList)
+// as projeções (TaskView, List<TaskView>, TaskViewPage) só são escritas, nas mesmas mensagens
+// outros tipos (erros, mapas) não são convertidos e seguem para o JSON
+public class TaskProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+  public TaskProtobufHttpMessageConverter() {
+    super(TaskProtobuf.MEDIA_TYPE);
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return clazz == Task.class || clazz == TaskPage.class || clazz == TaskView.class || clazz == TaskViewPage.class;
+  }
+
+  // List<Task> só é reconhecida pelo tipo genérico
+  @Override
+  public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+    return isTaskType(ResolvableType.forType(type), false) && canRead(mediaType);
+  }
+
+  @Override
+  public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+    ResolvableType resolved = type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz);
+    return isTaskType(resolved, true) && canWrite(mediaType);
+  }
+
+  // o Spring pergunta os media types só pela classe (ex.: ImmutableCollections.List12)
+  // o tipo genérico da lista já foi conferido no canWrite acima
+  @Override
+  public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+    return supports(clazz) || List.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : List.of();
+  }
+
+  @Override
+  public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+    return decode(ResolvableType.forType(type).resolve(Object.class), inputMessage);
+  }
+
+  @Override
+  protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+    return decode(clazz, inputMessage);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+    if (value instanceof Task task) {
+      outputMessage.getBody().write(TaskProtobuf.encode(task));
+    } else if (value instanceof TaskView view) {
+      outputMessage.getBody().write(TaskProtobuf.encode(view.toTask()));
+    } else if (value instanceof TaskPage page) {
+      TaskProtobuf.writeList(page.items(), page.nextCursor(), outputMessage.getBody());
+    } else if (value instanceof TaskViewPage page) {
+      TaskProtobuf.writeList(toTasks(page.items()), page.nextCursor(), outputMessage.getBody());
+    } else {
+      List<?> items = (List<?>) value;
+      if (!items.isEmpty() && items.get(0) instanceof TaskView) {
+        TaskProtobuf.writeList(toTasks((List<TaskView>) items), null, outputMessage.getBody());
+      } else {
+        TaskProtobuf.writeList((List<Task>) items, null, outputMessage.getBody());
+      }
+    }
+  }
+
+  private Object decode(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+    byte[] body = inputMessage.getBody().readAllBytes();
+    try {
+      if (clazz == Task.class) {
+        return TaskProtobuf.decode(body);
+      }
+      TaskPage page = TaskProtobuf.decodeList(body);
+      return clazz == TaskPage.class ? page : page.items();
+    } catch (IllegalArgumentException e) {
+      throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+    }
+  }
+
+  // campos fora do fields saem com o valor padrão e não são escritos na mensagem
+  private static List<Task> toTasks(List<TaskView> views) {
+    return views.stream().map(TaskView::toTask).toList();
+  }
+
+  private static boolean isTaskType(ResolvableType type, boolean includeViews) {
+    Class<?> raw = type.resolve();
+    if (raw == Task.class || raw == TaskPage.class) {
+      return true;
+    }
+    if (includeViews && (raw == TaskView.class || raw == TaskViewPage.class)) {
+      return true;
+    }
+    Class<?> element = raw == List.class ? type.getGeneric(0).resolve() : null;
+    return element == Task.class || (includeViews && element == TaskView.class);
+  }
+}
@@ -0,0 +1,12 @@
+package com.marcela.todo.writebehind;
+
+import com.marcela.todo.model.Task;
+
+// uma escrita aceita e ainda não gravada no banco; é o que vai para o log (uma linha JSON)
+// task é o estado completo da task depois da escrita, então reaplicar é idempotente
+public record PendingWrite(Type type, Task task) {
+
+  public enum Type {
+    CREATE, DONE
+  }
+}
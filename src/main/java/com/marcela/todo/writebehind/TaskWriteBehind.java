@@ -0,0 +1,458 @@
+package com.marcela.todo.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marcela.todo.model.Task;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+// modo write-behind (task.write-behind.enabled=true)
+// createTask e markTaskAsDone respondem assim que a escrita está no TaskWriteLog (com fsync)
+// uma thread grava as escritas no banco em lotes, numa transação por lote
+// - fila limitada: com task.write-behind.queue-capacity escritas pendentes, novas esperam até
+//   offer-timeout e depois são recusadas (503)
+// - getTaskById enxerga as escritas pendentes; listagens e busca no banco só depois do flush
+// - na subida, o que ficou no log é gravado no banco antes de aceitar novas escritas
+// - a escrita é conferida contra as colunas de tasks antes de ser aceita; o que o banco ainda assim recusar
+//   (ou um DONE cuja versão mudou no meio do caminho) vai para o dead-letter.log, reaplicado a cada subida
+@Component
+@ConditionalOnProperty(name = "task.write-behind.enabled", havingValue = "true")
+public class TaskWriteBehind {
+  private static final Logger log = LoggerFactory.getLogger(TaskWriteBehind.class);
+  // mesmo allocationSize da sequence de Task: uma ida ao banco a cada 50 ids
+  private static final int ID_BLOCK = 50;
+  private static final Duration AWAIT_FLUSH_TIMEOUT = Duration.ofSeconds(5);
+  private static final long RETRY_BACKOFF_MILLIS = 1000;
+
+  private static final String INSERT_SQL = "insert into tasks "
+      + "(id, title, description, done, created_at, completed_at, version) values (?, ?, ?, ?, ?, ?, ?)";
+  // só a partir da versão em que o DONE foi aceito: um PUT ou lote gravado depois não é sobrescrito
+  private static final String DONE_SQL = "update tasks set done = true, completed_at = ?, version = ? "
+      + "where id = ? and version = ? and done = false";
+
+  private final TaskWriteLog writeLog;
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedJdbcTemplate;
+  private final EntityManager entityManager;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+  private final long offerTimeoutMillis;
+  private final Semaphore capacity;
+  private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+  // id -> último estado aceito e ainda não gravado
+  private final Map<Long, Task> pending = new ConcurrentHashMap<>();
+  private final Deque<Long> ids = new ArrayDeque<>();
+  private final Object flushed = new Object();
+  private final Thread flusher = new Thread(this::runFlusher, "task-write-behind");
+
+  private volatile boolean running = true;
+  // tamanho das colunas de texto, lido do banco na subida
+  private int titleLength = Integer.MAX_VALUE;
+  private int descriptionLength = Integer.MAX_VALUE;
+
+  public TaskWriteBehind(ObjectMapper objectMapper, JdbcTemplate jdbcTemplate, EntityManager entityManager,
+      PlatformTransactionManager transactionManager,
+      @Value("${task.write-behind.dir:data/write-behind}") Path directory,
+      @Value("${task.write-behind.segment-size:64MB}") DataSize segmentSize,
+      @Value("${task.write-behind.queue-capacity:10000}") int queueCapacity,
+      @Value("${task.write-behind.batch-size:500}") int batchSize,
+      @Value("${task.write-behind.offer-timeout:100ms}") Duration offerTimeout) {
+    this.writeLog = new TaskWriteLog(directory, segmentSize.toBytes(), objectMapper);
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    this.entityManager = entityManager;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+    this.offerTimeoutMillis = offerTimeout.toMillis();
+    this.capacity = new Semaphore(queueCapacity);
+    this.flusher.setDaemon(true);
+  }
+
+  // recuperação: grava no banco o que a execução anterior aceitou e não chegou a gravar
+  @PostConstruct
+  public void start() throws IOException {
+    readColumnLengths();
+    List<PendingWrite> replay = writeLog.open();
+    for (int from = 0; from < replay.size(); from += batchSize) {
+      List<PendingWrite> writes = replay.subList(from, Math.min(from + batchSize, replay.size()));
+      try {
+        deadLetter(write(writes));
+      } catch (NonTransientDataAccessException e) {
+        if (!isolate(writes)) {
+          throw new IOException("Não foi possível gravar o dead-letter do write-behind", e);
+        }
+      }
+    }
+    writeLog.deleteReplayed();
+    if (!replay.isEmpty()) {
+      log.info("{} escritas pendentes do log gravadas no banco", replay.size());
+    }
+    retryDeadLetters();
+    flusher.start();
+  }
+
+  // para de aceitar escritas e espera a fila esvaziar
+  // se o banco estiver fora, o que sobrar continua no log e é gravado na próxima subida
+  @PreDestroy
+  public void stop() throws InterruptedException, IOException {
+    running = false;
+    flusher.join(TimeUnit.SECONDS.toMillis(30));
+    writeLog.close();
+  }
+
+  public Task create(Task task) {
+    checkColumns(task);
+    Task accepted = new Task();
+    accepted.setId(nextId());
+    accepted.setTitle(task.getTitle());
+    accepted.setDescription(task.getDescription());
+    accepted.setDone(task.isDone());
+    accepted.setCompletedAt(task.getCompletedAt());
+    accepted.setCreatedAt(LocalDateTime.now());
+    submit(new PendingWrite(PendingWrite.Type.CREATE, accepted));
+    return accepted;
+  }
+
+  // current é o estado atual (do banco ou pendente); não é alterado
+  public Task markDone(Task current, LocalDateTime completedAt) {
+    Task done = current.copy();
+    done.setDone(true);
+    done.setCompletedAt(completedAt);
+    done.setVersion(current.getVersion() + 1);
+    checkColumns(done);
+    submit(new PendingWrite(PendingWrite.Type.DONE, done));
+    return done;
+  }
+
+  // estado pendente da task, se houver escrita aceita e ainda não gravada
+  public Optional<Task> pending(Long id) {
+    return Optional.ofNullable(pending.get(id)).map(Task::copy);
+  }
+
+  // true enquanto há escrita aceita que as listagens do banco ainda não enxergam
+  public boolean hasPendingWrites() {
+    return !pending.isEmpty();
+  }
+
+  // espera as escritas pendentes da task chegarem ao banco (antes de update/delete síncronos)
+  public void awaitFlushed(Long id) {
+    long deadline = System.nanoTime() + AWAIT_FLUSH_TIMEOUT.toNanos();
+    synchronized (flushed) {
+      while (pending.containsKey(id)) {
+        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remaining <= 0) {
+          throw new RejectedExecutionException("A task " + id + " ainda está sendo gravada; tente de novo em instantes");
+        }
+        try {
+          flushed.wait(remaining);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new RejectedExecutionException("Interrompido esperando a gravação da task " + id, e);
+        }
+      }
+    }
+  }
+
+  public int queueDepth() {
+    return queue.size();
+  }
+
+  private void submit(PendingWrite write) {
+    if (!running) {
+      throw new RejectedExecutionException("Aplicação encerrando; tente de novo em instantes");
+    }
+    try {
+      if (!capacity.tryAcquire(offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+        throw new RejectedExecutionException("Fila de escrita cheia; tente de novo em instantes");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RejectedExecutionException("Interrompido esperando espaço na fila de escrita", e);
+    }
+    long segment;
+    try {
+      segment = writeLog.append(write);
+    } catch (IOException e) {
+      capacity.release();
+      throw new UncheckedIOException("Não foi possível gravar no log de escrita", e);
+    }
+    pending.put(write.task().getId(), write.task());
+    queue.add(new Entry(write, segment));
+  }
+
+  // ids reservados na sequence do Hibernate, os mesmos que um persist normal usaria
+  private synchronized Long nextId() {
+    if (ids.isEmpty()) {
+      transactionTemplate.executeWithoutResult(status -> {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory()
+            .getMappingMetamodel().getEntityDescriptor(Task.class).getGenerator();
+        for (int i = 0; i < ID_BLOCK; i++) {
+          ids.add(((Number) generator.generate(session, null, null, EventType.INSERT)).longValue());
+        }
+      });
+    }
+    return ids.poll();
+  }
+
+  private void runFlusher() {
+    while (running || !queue.isEmpty()) {
+      Entry first;
+      try {
+        first = queue.poll(100, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      if (first == null) {
+        continue;
+      }
+      List<Entry> batch = new ArrayList<>(batchSize);
+      batch.add(first);
+      queue.drainTo(batch, batchSize - 1);
+      if (!flush(batch)) {
+        return;
+      }
+      complete(batch);
+    }
+  }
+
+  // grava o lote; erro transitório (banco fora, timeout) tenta de novo até conseguir ou a aplicação parar
+  // erro permanente isola a escrita problemática, que vai para o dead-letter para não travar a fila
+  // o lote só sai do log (complete) depois que cada escrita está no banco ou no dead-letter
+  private boolean flush(List<Entry> batch) {
+    List<PendingWrite> writes = batch.stream().map(Entry::write).toList();
+    while (true) {
+      try {
+        deadLetter(write(writes));
+        return true;
+      } catch (NonTransientDataAccessException e) {
+        if (isolate(writes)) {
+          return true;
+        }
+      } catch (IOException | RuntimeException e) {
+        log.warn("Falha ao gravar {} escritas pendentes; tentando de novo", writes.size(), e);
+      }
+      if (!running) {
+        return false;
+      }
+      try {
+        Thread.sleep(RETRY_BACKOFF_MILLIS);
+      } catch (InterruptedException interrupted) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+  }
+
+  // grava as escritas uma a uma; as que o banco recusa vão para o dead-letter
+  // false se não deu para terminar (erro transitório ou falha no arquivo): o lote inteiro é tentado de novo,
+  // e reaplicar o que já foi gravado não muda nada
+  private boolean isolate(List<PendingWrite> writes) {
+    for (PendingWrite write : writes) {
+      try {
+        deadLetter(write(List.of(write)));
+      } catch (NonTransientDataAccessException e) {
+        log.error("Escrita {} da task {} recusada pelo banco; guardada no dead-letter", write.type(),
+            write.task().getId(), e);
+        try {
+          writeLog.deadLetter(write);
+        } catch (IOException io) {
+          log.error("Não foi possível gravar o dead-letter da task {}", write.task().getId(), io);
+          return false;
+        }
+      } catch (IOException | RuntimeException e) {
+        log.warn("Falha ao gravar a escrita {} da task {}", write.type(), write.task().getId(), e);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void deadLetter(List<PendingWrite> conflicts) throws IOException {
+    for (PendingWrite conflict : conflicts) {
+      log.error("Escrita {} da task {} não aplicada: a task mudou depois de aceita; guardada no dead-letter",
+          conflict.type(), conflict.task().getId());
+      writeLog.deadLetter(conflict);
+    }
+  }
+
+  // na subida, tenta de novo o que está no dead-letter (ex.: depois de alargar uma coluna)
+  // o que continuar recusado fica no arquivo e é avisado no log
+  private void retryDeadLetters() throws IOException {
+    List<PendingWrite> deadLetters = writeLog.deadLetters();
+    if (deadLetters.isEmpty()) {
+      return;
+    }
+    List<PendingWrite> remaining = new ArrayList<>();
+    for (PendingWrite write : deadLetters) {
+      try {
+        remaining.addAll(write(List.of(write)));
+      } catch (NonTransientDataAccessException e) {
+        remaining.add(write);
+      }
+    }
+    writeLog.replaceDeadLetters(remaining);
+    if (!remaining.isEmpty()) {
+      log.error("{} escritas confirmadas aos clientes continuam fora do banco; veja {}", remaining.size(),
+          TaskWriteLog.DEAD_LETTER_FILE);
+    }
+  }
+
+  // inserts antes dos updates: um DONE de uma task criada no mesmo lote encontra a linha
+  // CREATE de id que já existe (replay de um lote já gravado) é ignorado, e DONE já aplicado também
+  // devolve os DONE que não acharam a task na versão em que foram aceitos
+  private List<PendingWrite> write(List<PendingWrite> writes) {
+    return transactionTemplate.execute(status -> {
+      List<Task> creates = new ArrayList<>();
+      List<PendingWrite> dones = new ArrayList<>();
+      for (PendingWrite write : writes) {
+        if (write.type() == PendingWrite.Type.CREATE) {
+          creates.add(write.task());
+        } else {
+          dones.add(write);
+        }
+      }
+      if (!creates.isEmpty()) {
+        Set<Long> existing = existingIds(creates.stream().map(Task::getId).toList());
+        List<Task> inserts = creates.stream().filter(task -> !existing.contains(task.getId())).toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(), (ps, task) -> {
+          ps.setLong(1, task.getId());
+          ps.setString(2, task.getTitle());
+          ps.setString(3, task.getDescription());
+          ps.setBoolean(4, task.isDone());
+          ps.setTimestamp(5, timestamp(task.getCreatedAt()));
+          ps.setTimestamp(6, timestamp(task.getCompletedAt()));
+          ps.setLong(7, task.getVersion());
+        });
+      }
+      if (dones.isEmpty()) {
+        return List.of();
+      }
+      int[][] counts = jdbcTemplate.batchUpdate(DONE_SQL, dones, dones.size(), (ps, write) -> {
+        Task task = write.task();
+        ps.setTimestamp(1, timestamp(task.getCompletedAt()));
+        ps.setLong(2, task.getVersion());
+        ps.setLong(3, task.getId());
+        ps.setLong(4, task.getVersion() - 1);
+      });
+      List<PendingWrite> missed = new ArrayList<>();
+      for (int i = 0; i < dones.size(); i++) {
+        // contagem negativa (SUCCESS_NO_INFO) é de driver que não informa linhas: conta como aplicado
+        if (counts[0][i] == 0) {
+          missed.add(dones.get(i));
+        }
+      }
+      return missed.isEmpty() ? missed : conflicts(missed);
+    });
+  }
+
+  // DONE que não alterou nada: ou já estava aplicado (replay) ou a task mudou/sumiu depois de ele ser aceito
+  private List<PendingWrite> conflicts(List<PendingWrite> missed) {
+    Map<Long, Long> versions = new HashMap<>();
+    namedJdbcTemplate.query("select id, version from tasks where id in (:ids) and done = true",
+        Map.of("ids", missed.stream().map(write -> write.task().getId()).toList()),
+        (RowCallbackHandler) row -> versions.put(row.getLong(1), row.getLong(2)));
+    return missed.stream()
+        .filter(write -> !Long.valueOf(write.task().getVersion()).equals(versions.get(write.task().getId())))
+        .toList();
+  }
+
+  // recusa na hora (400) o que não cabe nas colunas, em vez de confirmar e descobrir só no flush
+  private void checkColumns(Task task) {
+    if (task.getTitle() == null || task.getTitle().isBlank()) {
+      throw new IllegalArgumentException("Título é obrigatório");
+    }
+    if (task.getTitle().length() > titleLength) {
+      throw new IllegalArgumentException("title deve ter no máximo " + titleLength + " caracteres");
+    }
+    if (task.getDescription() != null && task.getDescription().length() > descriptionLength) {
+      throw new IllegalArgumentException("description deve ter no máximo " + descriptionLength + " caracteres");
+    }
+  }
+
+  private void readColumnLengths() {
+    jdbcTemplate.query("select title, description from tasks where 1 = 0", (ResultSetExtractor<Void>) rs -> {
+      ResultSetMetaData metaData = rs.getMetaData();
+      titleLength = columnLength(metaData.getPrecision(1));
+      descriptionLength = columnLength(metaData.getPrecision(2));
+      return null;
+    });
+  }
+
+  // 0 quando o driver não informa (ex.: text): sem limite conhecido
+  private static int columnLength(int precision) {
+    return precision > 0 ? precision : Integer.MAX_VALUE;
+  }
+
+  private Set<Long> existingIds(Collection<Long> candidates) {
+    return new HashSet<>(namedJdbcTemplate.queryForList(
+        "select id from tasks where id in (:ids)", Map.of("ids", candidates), Long.class));
+  }
+
+  private void complete(List<Entry> batch) {
+    for (Entry entry : batch) {
+      pending.remove(entry.write().task().getId(), entry.write().task());
+    }
+    Map<Long, Long> perSegment = batch.stream()
+        .collect(Collectors.groupingBy(Entry::segment, Collectors.counting()));
+    perSegment.forEach((segment, count) -> {
+      try {
+        writeLog.flushed(segment, count.intValue());
+      } catch (IOException e) {
+        log.warn("Não foi possível apagar o segmento {} do log", segment, e);
+      }
+    });
+    capacity.release(batch.size());
+    synchronized (flushed) {
+      flushed.notifyAll();
+    }
+  }
+
+  private static Timestamp timestamp(LocalDateTime value) {
+    return value != null ? Timestamp.valueOf(value) : null;
+  }
+
+  private record Entry(PendingWrite write, long segment) {
+  }
+}
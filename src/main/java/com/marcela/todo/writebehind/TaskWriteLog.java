@@ -0,0 +1,243 @@
+package com.marcela.todo.writebehind;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// log local só de acréscimo com as escritas pendentes, dividido em segmentos (tasks-<n>.log)
+// append só retorna depois do fsync; escritas concorrentes dividem o mesmo fsync (group commit)
+// um segmento é apagado quando todas as suas escritas já estão no banco
+// escritas aceitas que o banco recusou de vez vão para dead-letter.log, fora dos segmentos
+class TaskWriteLog implements AutoCloseable {
+  private static final Pattern SEGMENT_NAME = Pattern.compile("tasks-(\\d+)\\.log");
+  static final String DEAD_LETTER_FILE = "dead-letter.log";
+
+  private final Path directory;
+  private final long segmentBytes;
+  private final ObjectMapper objectMapper;
+  // escritas ainda não gravadas no banco, por segmento
+  private final Map<Long, AtomicInteger> unflushed = new ConcurrentHashMap<>();
+  private final Map<Long, FileChannel> retired = new ConcurrentHashMap<>();
+  private final List<Path> replayed = new ArrayList<>();
+  private final Object syncLock = new Object();
+
+  // protegidos pelo lock do próprio log
+  private long segment;
+  private FileChannel channel;
+  private long segmentSize;
+  private long appended;
+
+  private volatile long synced;
+
+  TaskWriteLog(Path directory, long segmentBytes, ObjectMapper objectMapper) {
+    this.directory = directory;
+    this.segmentBytes = segmentBytes;
+    this.objectMapper = objectMapper;
+  }
+
+  // lê os segmentos deixados pela execução anterior e abre um segmento novo para as próximas escritas
+  // uma última linha incompleta (queda no meio de um append, nunca confirmado) é ignorada
+  synchronized List<PendingWrite> open() throws IOException {
+    Files.createDirectories(directory);
+    List<PendingWrite> writes = new ArrayList<>();
+    long last = 0;
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.sorted().toList()) {
+        Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+        if (!matcher.matches()) {
+          continue;
+        }
+        last = Math.max(last, Long.parseLong(matcher.group(1)));
+        readSegment(file, writes);
+        replayed.add(file);
+      }
+    }
+    segment = last;
+    roll();
+    return writes;
+  }
+
+  // apaga os segmentos lidos no open(); chamar depois de gravar no banco o que eles continham
+  synchronized void deleteReplayed() throws IOException {
+    for (Path file : replayed) {
+      Files.deleteIfExists(file);
+    }
+    replayed.clear();
+  }
+
+  // grava a escrita de forma durável e retorna o segmento em que ela ficou
+  long append(PendingWrite write) throws IOException {
+    ByteBuffer line = ByteBuffer.wrap((toJson(write) + "\n").getBytes(StandardCharsets.UTF_8));
+    long writtenSegment;
+    long end;
+    synchronized (this) {
+      if (segmentSize > 0 && segmentSize + line.remaining() > segmentBytes) {
+        roll();
+      }
+      int length = line.remaining();
+      while (line.hasRemaining()) {
+        channel.write(line);
+      }
+      segmentSize += length;
+      appended += length;
+      end = appended;
+      writtenSegment = segment;
+      unflushed.computeIfAbsent(segment, key -> new AtomicInteger()).incrementAndGet();
+    }
+    sync(end);
+    return writtenSegment;
+  }
+
+  // count escritas do segmento chegaram ao banco
+  void flushed(long flushedSegment, int count) throws IOException {
+    AtomicInteger remaining = unflushed.get(flushedSegment);
+    if (remaining != null && remaining.addAndGet(-count) <= 0) {
+      deleteIfRetired(flushedSegment);
+    }
+  }
+
+  // guarda (com fsync) uma escrita já confirmada ao cliente que não pôde ser gravada no banco
+  synchronized void deadLetter(PendingWrite write) throws IOException {
+    try (FileChannel deadLetters = FileChannel.open(directory.resolve(DEAD_LETTER_FILE),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+      ByteBuffer line = ByteBuffer.wrap((toJson(write) + "\n").getBytes(StandardCharsets.UTF_8));
+      while (line.hasRemaining()) {
+        deadLetters.write(line);
+      }
+      deadLetters.force(false);
+    }
+  }
+
+  synchronized List<PendingWrite> deadLetters() throws IOException {
+    List<PendingWrite> writes = new ArrayList<>();
+    Path file = directory.resolve(DEAD_LETTER_FILE);
+    if (Files.exists(file)) {
+      readSegment(file, writes);
+    }
+    return writes;
+  }
+
+  // troca o conteúdo do dead-letter pelas escritas que continuam sem gravar (arquivo temporário + rename)
+  synchronized void replaceDeadLetters(List<PendingWrite> writes) throws IOException {
+    Path file = directory.resolve(DEAD_LETTER_FILE);
+    if (writes.isEmpty()) {
+      Files.deleteIfExists(file);
+      return;
+    }
+    Path temporary = directory.resolve(DEAD_LETTER_FILE + ".tmp");
+    try (FileChannel out = FileChannel.open(temporary,
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      for (PendingWrite write : writes) {
+        ByteBuffer line = ByteBuffer.wrap((toJson(write) + "\n").getBytes(StandardCharsets.UTF_8));
+        while (line.hasRemaining()) {
+          out.write(line);
+        }
+      }
+      out.force(false);
+    }
+    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (channel != null) {
+      channel.force(false);
+      channel.close();
+    }
+    for (FileChannel old : retired.values()) {
+      old.close();
+    }
+  }
+
+  // quem chega enquanto outro thread faz fsync espera e, na maioria das vezes, já sai coberto por ele
+  private void sync(long end) throws IOException {
+    if (synced >= end) {
+      return;
+    }
+    synchronized (syncLock) {
+      if (synced >= end) {
+        return;
+      }
+      long upTo;
+      FileChannel current;
+      synchronized (this) {
+        upTo = appended;
+        current = channel;
+      }
+      current.force(false);
+      synced = upTo;
+    }
+  }
+
+  // fecha o segmento atual para escrita (já com fsync) e abre o próximo
+  // o canal antigo só é fechado quando o segmento é apagado: um fsync em andamento pode estar usando
+  private void roll() throws IOException {
+    if (channel != null) {
+      channel.force(false);
+      retired.put(segment, channel);
+      long previous = segment;
+      AtomicInteger remaining = unflushed.get(previous);
+      if (remaining == null || remaining.get() <= 0) {
+        deleteIfRetired(previous);
+      }
+    }
+    segment++;
+    channel = FileChannel.open(segmentPath(segment),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    segmentSize = 0;
+  }
+
+  private void deleteIfRetired(long oldSegment) throws IOException {
+    FileChannel old = retired.remove(oldSegment);
+    if (old != null) {
+      old.close();
+      unflushed.remove(oldSegment);
+      Files.deleteIfExists(segmentPath(oldSegment));
+    }
+  }
+
+  private void readSegment(Path file, List<PendingWrite> writes) throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        try {
+          writes.add(objectMapper.readValue(line, PendingWrite.class));
+        } catch (JsonProcessingException e) {
+          // linha truncada: o append dela não chegou a ser confirmado
+          break;
+        }
+      }
+    }
+  }
+
+  private String toJson(PendingWrite write) {
+    try {
+      return objectMapper.writeValueAsString(write);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Não foi possível serializar a escrita da task " + write.task().getId(), e);
+    }
+  }
+
+  private Path segmentPath(long number) {
+    return directory.resolve(String.format("tasks-%010d.log", number));
+  }
+}
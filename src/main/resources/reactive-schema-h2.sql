@@ -0,0 +1,15 @@
+-- schema de tasks como o Hibernate cria no H2 (ddl-auto), para a pilha reativa num H2 (testes e benchmark)
+create sequence if not exists task_seq start with 1 increment by 50;
+create table if not exists tasks (
+  id bigint not null,
+  title varchar(255),
+  description varchar(255),
+  done boolean not null,
+  created_at timestamp(6),
+  completed_at timestamp(6),
+  version bigint not null,
+  primary key (id)
+);
+create index if not exists idx_tasks_done_created_at on tasks (done, created_at);
+create index if not exists idx_tasks_completed_at on tasks (completed_at);
+create index if not exists idx_tasks_title on tasks (title);
@@ -0,0 +1,19 @@
+-- schema de tasks como o Hibernate cria no MySQL (ddl-auto), para a pilha reativa subir num banco vazio
+-- task_seq é a tabela com que o Hibernate emula o sequence no MySQL
+create table if not exists task_seq (
+  next_val bigint
+) engine=InnoDB;
+insert into task_seq (next_val) select 1 from dual where not exists (select * from task_seq);
+create table if not exists tasks (
+  id bigint not null,
+  title varchar(255),
+  description varchar(255),
+  done bit not null,
+  created_at datetime(6),
+  completed_at datetime(6),
+  version bigint not null,
+  primary key (id),
+  index idx_tasks_done_created_at (done, created_at),
+  index idx_tasks_completed_at (completed_at),
+  index idx_tasks_title (title)
+) engine=InnoDB;
@@ -0,0 +1,100 @@
+package com.marcela.todo.archive;
+
+import com.marcela.todo.event.TaskEvent;
+import com.marcela.todo.model.ArchivedTask;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.repository.ArchivedTaskRepository;
+import com.marcela.todo.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+class TaskArchiverTest {
+
+  @Autowired
+  private TaskRepository taskRepository;
+
+  @Autowired
+  private ArchivedTaskRepository archivedTaskRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+  private TaskArchiver archiver;
+
+  @BeforeEach
+  void setup() {
+    // blocos de 2 para o teste passar por mais de um
+    archiver = new TaskArchiver(taskRepository, archivedTaskRepository, eventPublisher, transactionManager,
+        Duration.ofDays(30), 2, new SimpleMeterRegistry());
+  }
+
+  private Task save(String title, LocalDateTime completedAt) {
+    Task task = new Task();
+    task.setTitle(title);
+    task = taskRepository.save(task);
+    if (completedAt != null) {
+      task.setDone(true);
+      task.setCompletedAt(completedAt);
+      task = taskRepository.save(task);
+    }
+    return task;
+  }
+
+  @Test
+  @DisplayName("Deve mover só as tasks concluídas antes do corte, em blocos")
+  void archive_movesOldCompletedTasks() {
+    // Arrange
+    LocalDateTime old = LocalDateTime.now().minusDays(60);
+    Task first = save("Antiga 1", old);
+    save("Antiga 2", old.plusHours(1));
+    save("Antiga 3", old.plusHours(2));
+    Task recent = save("Recente", LocalDateTime.now().minusDays(1));
+    Task open = save("Aberta", null);
+
+    // Act
+    int moved = archiver.archive();
+
+    // Assert
+    assertThat(moved).isEqualTo(3);
+    assertThat(taskRepository.findAll()).extracting(Task::getId).containsExactlyInAnyOrder(recent.getId(), open.getId());
+    List<ArchivedTask> archived = archivedTaskRepository.findAll();
+    assertThat(archived).hasSize(3);
+    Task archivedFirst = archivedTaskRepository.findById(first.getId()).get().toTask();
+    assertThat(archivedFirst.getTitle()).isEqualTo("Antiga 1");
+    assertThat(archivedFirst.getCompletedAt()).isEqualTo(first.getCompletedAt());
+    assertThat(archivedFirst.getVersion()).isEqualTo(first.getVersion());
+    verify(eventPublisher, times(3)).publishEvent(any(TaskEvent.class));
+  }
+
+  @Test
+  @DisplayName("Sem nada antes do corte, não deve mover nada")
+  void archive_nothingToMove() {
+    // Arrange
+    save("Recente", LocalDateTime.now().minusDays(1));
+
+    // Act
+    int moved = archiver.archive();
+
+    // Assert
+    assertThat(moved).isZero();
+    assertThat(archivedTaskRepository.count()).isZero();
+  }
+}
@@ -0,0 +1,169 @@
+package com.marcela.todo.cache;
+
+import com.marcela.todo.event.TaskEvent;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.writebehind.TaskWriteBehind;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TaskListCacheFilterTest {
+  private static final String BODY = "[{\"id\":1,\"title\":\"Comprar leite\"}]";
+  private static final Duration TTL = Duration.ofSeconds(60);
+
+  // relógio do Caffeine controlado pelo teste
+  private final AtomicLong nanos = new AtomicLong();
+
+  private TaskListResponseCache cache;
+  private TaskListCacheFilter filter;
+  private AtomicInteger calls;
+  private FilterChain controller;
+
+  @BeforeEach
+  void setup() {
+    cache = new TaskListResponseCache(1024 * 1024, TTL, null, new SimpleMeterRegistry(), nanos::get);
+    filter = new TaskListCacheFilter(cache, true, 16);
+    calls = new AtomicInteger();
+    // faz o papel do TaskController: conta as chamadas e escreve a lista com ETag
+    controller = (request, response) -> {
+      calls.incrementAndGet();
+      response.setContentType("application/json");
+      ((HttpServletResponse) response).setHeader("ETag", "\"l1-abc\"");
+      response.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+    };
+  }
+
+  @Test
+  @DisplayName("Segunda chamada igual deve sair do cache sem chegar ao controller")
+  void repeatedRequest_servedFromCache() throws Exception {
+    // Act
+    MockHttpServletResponse first = perform(get(null));
+    MockHttpServletResponse second = perform(get(null));
+
+    // Assert
+    assertThat(calls).hasValue(1);
+    assertThat(second.getContentAsString()).isEqualTo(BODY).isEqualTo(first.getContentAsString());
+    assertThat(second.getContentType()).isEqualTo("application/json");
+    assertThat(second.getHeader("ETag")).isEqualTo("\"l1-abc\"");
+  }
+
+  @Test
+  @DisplayName("Alteração de task deve limpar o cache")
+  void taskEvent_invalidates() throws Exception {
+    // Arrange
+    perform(get(null));
+
+    // Act
+    Task deleted = new Task();
+    deleted.setId(1L);
+    cache.onTaskEvent(TaskEvent.deleted(deleted));
+    perform(get(null));
+
+    // Assert
+    assertThat(calls).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("Resposta guardada deve vencer depois do ttl mesmo sem alteração de task")
+  void entryExpiresWithoutEvent() throws Exception {
+    // Arrange
+    perform(get(null));
+    nanos.addAndGet(TTL.minusSeconds(1).toNanos());
+    perform(get(null));
+
+    // Act
+    nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+    perform(get(null));
+
+    // Assert
+    assertThat(calls).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("Com Accept-Encoding gzip deve guardar e devolver o corpo comprimido")
+  void gzip() throws Exception {
+    // Act
+    perform(get("gzip, deflate"));
+    MockHttpServletResponse cached = perform(get("gzip, deflate"));
+
+    // Assert
+    assertThat(calls).hasValue(1);
+    assertThat(cached.getHeader("Content-Encoding")).isEqualTo("gzip");
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(cached.getContentAsByteArray()))) {
+      assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+    }
+  }
+
+  @Test
+  @DisplayName("If-None-Match com o ETag guardado deve responder 304")
+  void ifNoneMatch_notModified() throws Exception {
+    // Arrange
+    perform(get(null));
+    MockHttpServletRequest request = get(null);
+    request.addHeader("If-None-Match", "\"l1-abc\"");
+
+    // Act
+    MockHttpServletResponse response = perform(request);
+
+    // Assert
+    assertThat(response.getStatus()).isEqualTo(304);
+    assertThat(response.getContentAsByteArray()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Com escritas do write-behind pendentes a resposta não deve ser guardada")
+  void pendingWrites_notCached() throws Exception {
+    // Arrange
+    TaskWriteBehind writeBehind = mock(TaskWriteBehind.class);
+    when(writeBehind.hasPendingWrites()).thenReturn(true);
+    cache = new TaskListResponseCache(1024 * 1024, TTL, writeBehind, new SimpleMeterRegistry(), nanos::get);
+    filter = new TaskListCacheFilter(cache, true, 16);
+
+    // Act
+    perform(get(null));
+    perform(get(null));
+
+    // Assert
+    assertThat(calls).hasValue(2);
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("Deve preferir gzip e ignorar codificações com q=0")
+  void contentEncoding() {
+    assertThat(TaskListCacheFilter.contentEncoding("deflate, gzip;q=0.5")).isEqualTo("gzip");
+    assertThat(TaskListCacheFilter.contentEncoding("gzip;q=0, deflate")).isEqualTo("deflate");
+    assertThat(TaskListCacheFilter.contentEncoding("br")).isNull();
+    assertThat(TaskListCacheFilter.contentEncoding(null)).isNull();
+  }
+
+  private static MockHttpServletRequest get(String acceptEncoding) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+    request.setQueryString("done=false");
+    if (acceptEncoding != null) {
+      request.addHeader("Accept-Encoding", acceptEncoding);
+    }
+    return request;
+  }
+
+  private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, controller);
+    return response;
+  }
+}
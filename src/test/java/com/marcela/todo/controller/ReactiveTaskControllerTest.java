@@ -0,0 +1,263 @@
+package com.marcela.todo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.marcela.todo.dto.TaskPage;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.service.TaskService;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+// pilha reativa inteira (WebFlux + R2DBC) sobre um H2 em memória com o schema criado por script
+@SpringBootTest(properties = {
+    "spring.main.web-application-type=reactive",
+    "spring.r2dbc.url=r2dbc:h2:mem:///reactive?options=DB_CLOSE_DELAY=-1",
+    "spring.r2dbc.username=sa",
+    "spring.r2dbc.password=",
+    "spring.sql.init.platform=h2"
+})
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+class ReactiveTaskControllerTest {
+
+  @Autowired
+  private WebTestClient client;
+
+  @Autowired
+  private ApplicationContext context;
+
+  private Task create(String title) {
+    return client.post().uri("/tasks")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(Map.of("title", title))
+        .exchange()
+        .expectStatus().isCreated()
+        .expectBody(Task.class)
+        .returnResult().getResponseBody();
+  }
+
+  @Test
+  @DisplayName("Perfil reactive: sem JPA, /tasks atendido pelo controller reativo")
+  void reactiveProfile_replacesServletStack() {
+    // Assert
+    assertThat(context.getBeanNamesForType(TaskService.class)).isEmpty();
+    assertThat(context.getBeanNamesForType(TaskController.class)).isEmpty();
+    assertThat(context.getBean(ReactiveTaskController.class)).isNotNull();
+  }
+
+  @Test
+  @DisplayName("POST cria a task e GET por id devolve com ETag")
+  void createAndGetById() {
+    // Act
+    Task created = create("Reativa");
+
+    // Assert
+    assertThat(created.getId()).isNotNull();
+    assertThat(created.getCreatedAt()).isNotNull();
+    assertThat(created.getVersion()).isZero();
+    client.get().uri("/tasks/{id}", created.getId())
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + created.getId() + "-0\"")
+        .expectBody()
+        .jsonPath("$.title").isEqualTo("Reativa")
+        .jsonPath("$.done").isEqualTo(false);
+  }
+
+  @Test
+  @DisplayName("GET por id inexistente retorna 404")
+  void getById_notFound() {
+    // Act + Assert
+    client.get().uri("/tasks/{id}", 999_999).exchange().expectStatus().isNotFound();
+  }
+
+  @Test
+  @DisplayName("POST sem título retorna 400")
+  void create_withoutTitle() {
+    // Act + Assert
+    client.post().uri("/tasks")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(Map.of("description", "sem título"))
+        .exchange()
+        .expectStatus().isBadRequest();
+  }
+
+  @Test
+  @DisplayName("GET /tasks lista em JSON e em NDJSON, com filtro")
+  void list_jsonAndNdjson() {
+    // Arrange
+    Task open = create("Lista aberta");
+    Task done = create("Lista concluída");
+    client.patch().uri("/tasks/{id}/done", done.getId()).exchange().expectStatus().isOk();
+
+    // Act
+    List<Task> all = client.get().uri("/tasks")
+        .accept(MediaType.APPLICATION_JSON)
+        .exchange()
+        .expectStatus().isOk()
+        .expectBodyList(Task.class)
+        .returnResult().getResponseBody();
+    List<Task> ndjson = client.get().uri("/tasks?done=true&titlePrefix=Lista")
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+        .returnResult(Task.class)
+        .getResponseBody()
+        .collectList()
+        .block();
+
+    // Assert
+    assertThat(all).extracting(Task::getId).contains(open.getId(), done.getId()).isSorted();
+    assertThat(ndjson).extracting(Task::getId).containsExactly(done.getId());
+  }
+
+  @Test
+  @DisplayName("fields recorta a resposta também na pilha reativa; campo desconhecido retorna 400")
+  void list_fields() {
+    // Arrange
+    Task task = create("Só o título");
+
+    // Act + Assert
+    client.get().uri("/tasks/{id}?fields=title", task.getId())
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + task.getId() + "-0\"")
+        .expectBody().json("{\"title\":\"Só o título\"}", JsonCompareMode.STRICT);
+    client.get().uri("/tasks?fields=id,title&titlePrefix=Só o")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$[0].id").isEqualTo(task.getId())
+        .jsonPath("$[0].done").doesNotExist();
+    client.get().uri("/tasks?fields=owner").exchange().expectStatus().isBadRequest();
+  }
+
+  @Test
+  @DisplayName("Paginação por cursor percorre as tasks sem repetir")
+  void page_withCursor() {
+    // Arrange
+    for (int i = 0; i < 3; i++) {
+      create("Página " + i);
+    }
+
+    // Act
+    TaskPage first = client.get().uri("/tasks?limit=2&titlePrefix=Página")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().exists(HttpHeaders.ETAG)
+        .expectBody(TaskPage.class)
+        .returnResult().getResponseBody();
+    TaskPage second = client.get().uri("/tasks?limit=2&titlePrefix=Página&cursor={cursor}", first.nextCursor())
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody(TaskPage.class)
+        .returnResult().getResponseBody();
+
+    // Assert
+    assertThat(first.items()).hasSize(2);
+    assertThat(second.items()).hasSize(1);
+    assertThat(second.nextCursor()).isNull();
+    assertThat(second.items().get(0).getId()).isGreaterThan(first.items().get(1).getId());
+  }
+
+  @Test
+  @DisplayName("limit fora do intervalo e includeArchived retornam 400 e 501")
+  void page_invalidRequests() {
+    // Act + Assert
+    client.get().uri("/tasks?limit=0").exchange().expectStatus().isBadRequest();
+    client.get().uri("/tasks?includeArchived=true").exchange().expectStatus().isEqualTo(501);
+  }
+
+  @Test
+  @DisplayName("PUT com If-Match da versão atual atualiza; com versão antiga retorna 412")
+  void update_ifMatch() {
+    // Arrange
+    Task task = create("Antes");
+    Task changes = new Task();
+    changes.setTitle("Depois");
+
+    // Act + Assert
+    client.put().uri("/tasks/{id}", task.getId())
+        .header(HttpHeaders.IF_MATCH, "\"" + task.getId() + "-0\"")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(changes)
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + task.getId() + "-1\"")
+        .expectBody().jsonPath("$.title").isEqualTo("Depois");
+    client.put().uri("/tasks/{id}", task.getId())
+        .header(HttpHeaders.IF_MATCH, "\"" + task.getId() + "-0\"")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(changes)
+        .exchange()
+        .expectStatus().isEqualTo(412);
+  }
+
+  @Test
+  @DisplayName("PATCH done conclui uma vez e mantém o completedAt nas chamadas seguintes")
+  void markAsDone_idempotent() {
+    // Arrange
+    Task task = create("Concluir");
+
+    // Act
+    Task first = client.patch().uri("/tasks/{id}/done", task.getId())
+        .exchange().expectStatus().isOk()
+        .expectBody(Task.class).returnResult().getResponseBody();
+    Task second = client.patch().uri("/tasks/{id}/done", task.getId())
+        .exchange().expectStatus().isOk()
+        .expectBody(Task.class).returnResult().getResponseBody();
+
+    // Assert
+    assertThat(first.isDone()).isTrue();
+    assertThat(first.getVersion()).isEqualTo(1);
+    assertThat(second.getCompletedAt()).isEqualTo(first.getCompletedAt());
+    assertThat(second.getVersion()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("DELETE apaga a task; If-Match antigo retorna 412 e id inexistente 404")
+  void delete() {
+    // Arrange
+    Task task = create("Apagar");
+    client.patch().uri("/tasks/{id}/done", task.getId()).exchange().expectStatus().isOk();
+
+    // Act + Assert
+    client.delete().uri("/tasks/{id}", task.getId())
+        .header(HttpHeaders.IF_MATCH, "\"" + task.getId() + "-0\"")
+        .exchange().expectStatus().isEqualTo(412);
+    client.delete().uri("/tasks/{id}", task.getId()).exchange().expectStatus().isNoContent();
+    client.delete().uri("/tasks/{id}", task.getId()).exchange().expectStatus().isNotFound();
+  }
+
+  @Test
+  @DisplayName("Criações simultâneas recebem ids distintos dos blocos do task_seq")
+  void concurrentCreates_distinctIds() {
+    // Act
+    List<Long> ids = Flux.range(0, 120)
+        .flatMap(i -> client.post().uri("/tasks")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(Map.of("title", "Concorrente " + i))
+            .exchange()
+            .returnResult(Task.class)
+            .getResponseBody(), 32)
+        .map(Task::getId)
+        .collectList()
+        .block();
+
+    // Assert
+    assertThat(ids).hasSize(120).doesNotHaveDuplicates().allMatch(id -> id > 0);
+  }
+}
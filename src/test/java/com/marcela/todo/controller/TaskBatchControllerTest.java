@@ -0,0 +1,93 @@
+package com.marcela.todo.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.service.TaskBatchService;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TaskBatchController.class)
+class TaskBatchControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockBean
+  private TaskBatchService taskBatchService;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private Task task(Long id, String title) {
+    Task task = new Task();
+    task.setId(id);
+    task.setTitle(title);
+    return task;
+  }
+
+  @Test
+  @DisplayName("POST /tasks/batch - cria as tasks e retorna 201")
+  void createTasks_success() throws Exception {
+    when(taskBatchService.createTasks(anyList()))
+        .thenReturn(List.of(task(1L, "Task 1"), task(2L, "Task 2")));
+
+    mockMvc.perform(post("/tasks/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(List.of(task(null, "Task 1"), task(null, "Task 2")))))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.length()", is(2)))
+        .andExpect(jsonPath("$[1].id").value(2));
+  }
+
+  @Test
+  @DisplayName("POST /tasks/batch - item sem título retorna 400")
+  void createTasks_invalidItem() throws Exception {
+    mockMvc.perform(post("/tasks/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(List.of(task(null, "Ok"), task(null, "")))))
+        .andExpect(status().isBadRequest());
+
+    verify(taskBatchService, never()).createTasks(anyList());
+  }
+
+  @Test
+  @DisplayName("PATCH /tasks/batch - devolve as tasks atualizadas")
+  void updateTasks_success() throws Exception {
+    when(taskBatchService.updateTasks(anyList())).thenReturn(List.of(task(1L, "Nova")));
+
+    mockMvc.perform(patch("/tasks/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(List.of(task(1L, "Nova")))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].title").value("Nova"));
+  }
+
+  @Test
+  @DisplayName("DELETE /tasks/batch - devolve a quantidade deletada")
+  void deleteTasks_success() throws Exception {
+    when(taskBatchService.deleteTasks(List.of(1L, 2L))).thenReturn(2);
+
+    mockMvc.perform(delete("/tasks/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[1, 2]"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.deleted").value(2));
+  }
+}
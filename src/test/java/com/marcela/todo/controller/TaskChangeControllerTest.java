@@ -0,0 +1,95 @@
+package com.marcela.todo.controller;
+
+import com.marcela.todo.event.TaskEvent;
+import com.marcela.todo.feed.TaskChangeFeed;
+import com.marcela.todo.model.Task;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@WebMvcTest(TaskChangeController.class)
+@Import(TaskChangeFeed.class)
+class TaskChangeControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private TaskChangeFeed taskChangeFeed;
+
+  private static Task task(Long id, String title) {
+    Task task = new Task();
+    task.setId(id);
+    task.setTitle(title);
+    return task;
+  }
+
+  // o envio roda em outra thread; espera o conteúdo aparecer na resposta
+  private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    String content = response.getContentAsString();
+    while (!content.contains(expected) && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+      content = response.getContentAsString();
+    }
+    return content;
+  }
+
+  @Test
+  @DisplayName("GET /tasks/changes - envia as alterações publicadas depois da conexão")
+  void changes_streamsNewEvents() throws Exception {
+    // Arrange
+    taskChangeFeed.onTaskEvent(TaskEvent.created(task(1L, "Antes da conexão")));
+    MvcResult result = mockMvc.perform(get("/tasks/changes"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    // Act
+    taskChangeFeed.onTaskEvent(TaskEvent.created(task(2L, "Nova")));
+    taskChangeFeed.onTaskEvent(TaskEvent.deleted(task(2L, "Nova")));
+
+    // Assert
+    String content = awaitContent(result.getResponse(), "\"DELETED\"");
+    assertThat(content).contains("event:task", "\"title\":\"Nova\"", "\"type\":\"DELETED\"");
+    assertThat(content).doesNotContain("Antes da conexão");
+    assertThat(content.indexOf("CREATED")).isLessThan(content.indexOf("DELETED"));
+  }
+
+  @Test
+  @DisplayName("GET /tasks/changes - com Last-Event-ID, reenvia o que o cliente perdeu")
+  void changes_resumesFromLastEventId() throws Exception {
+    // Arrange: descobre o id do último evento recebido por um primeiro cliente
+    MvcResult first = mockMvc.perform(get("/tasks/changes")).andReturn();
+    taskChangeFeed.onTaskEvent(TaskEvent.created(task(10L, "Vista")));
+    String firstContent = awaitContent(first.getResponse(), "Vista");
+    String lastEventId = firstContent.substring(firstContent.indexOf("id:") + 3, firstContent.indexOf('\n', firstContent.indexOf("id:")));
+    taskChangeFeed.onTaskEvent(TaskEvent.created(task(11L, "Perdida")));
+
+    // Act
+    MvcResult resumed = mockMvc.perform(get("/tasks/changes").header("Last-Event-ID", lastEventId)).andReturn();
+
+    // Assert
+    String content = awaitContent(resumed.getResponse(), "Perdida");
+    assertThat(content).contains("Perdida").doesNotContain("Vista");
+  }
+
+  @Test
+  @DisplayName("GET /tasks/changes - Last-Event-ID desconhecido recebe reset")
+  void changes_unknownLastEventIdGetsReset() throws Exception {
+    // Act
+    MvcResult result = mockMvc.perform(get("/tasks/changes").header("Last-Event-ID", "outro-processo-42")).andReturn();
+
+    // Assert
+    assertThat(awaitContent(result.getResponse(), "event:reset")).contains("event:reset");
+  }
+}
@@ -1,11 +1,24 @@
 package com.marcela.todo.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marcela.todo.dto.TaskField;
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.dto.TaskPage;
+import com.marcela.todo.dto.TaskView;
+import com.marcela.todo.dto.TaskViewPage;
 import com.marcela.todo.model.Task;
+import com.marcela.todo.service.TaskArchivedException;
+import com.marcela.todo.service.TaskExportService;
 import com.marcela.todo.service.TaskService;
+import com.marcela.todo.wire.TaskProtobuf;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,19 +26,27 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TaskController.class)
@@ -37,6 +58,9 @@ class TaskControllerTest {
   @MockBean
   private TaskService taskService;
 
+  @MockBean
+  private TaskExportService taskExportService;
+
   @Autowired
   private ObjectMapper objectMapper; // para converter objetos para JSON
 
@@ -60,6 +84,10 @@ class TaskControllerTest {
     task2.setCreatedAt(LocalDateTime.now());
   }
 
+  private static List<TaskView> views(Task... tasks) {
+    return Stream.of(tasks).map(TaskView::of).toList();
+  }
+
   // -----------------------
   // POST /tasks - sucesso
   // -----------------------
@@ -108,7 +136,7 @@ class TaskControllerTest {
   @Test
   @DisplayName("GET /tasks - retorna lista de tasks")
   void getAllTasks_success() throws Exception {
-    when(taskService.getAllTasks()).thenReturn(List.of(task1, task2));
+    when(taskService.findTaskViews(TaskFilter.NONE, false, TaskField.ALL)).thenReturn(views(task1, task2));
 
     mockMvc.perform(get("/tasks"))
         .andExpect(status().isOk())
@@ -117,6 +145,196 @@ class TaskControllerTest {
         .andExpect(jsonPath("$[1].title").value("Estudar Java"));
   }
 
+  @Test
+  @DisplayName("GET /tasks?done=&createdFrom= - repassa os filtros para o service")
+  void getAllTasks_filtered() throws Exception {
+    TaskFilter filter = new TaskFilter(false, LocalDateTime.of(2025, 10, 20, 0, 0), null, null, null, "Com");
+    when(taskService.findTaskViews(filter, false, TaskField.ALL)).thenReturn(views(task1));
+
+    mockMvc.perform(get("/tasks")
+            .param("done", "false")
+            .param("createdFrom", "2025-10-20T00:00:00")
+            .param("titlePrefix", "Com"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()", is(1)))
+        .andExpect(jsonPath("$[0].title").value("Comprar leite"));
+  }
+
+  @Test
+  @DisplayName("GET /tasks?includeArchived=true - lista também as tasks arquivadas")
+  void getAllTasks_includeArchived() throws Exception {
+    when(taskService.findTaskViews(TaskFilter.NONE, true, TaskField.ALL)).thenReturn(views(task1, task2));
+
+    mockMvc.perform(get("/tasks").param("includeArchived", "true"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()", is(2)));
+  }
+
+  // -----------------------
+  // GET /tasks?limit= - paginação
+  // -----------------------
+  @Test
+  @DisplayName("GET /tasks?limit= - retorna página com cursor da próxima")
+  void getTasksPage_success() throws Exception {
+    when(taskService.getTaskViewsPage(TaskFilter.NONE, null, 2, false, TaskField.ALL))
+        .thenReturn(new TaskViewPage(views(task1, task2), "abc"));
+
+    mockMvc.perform(get("/tasks").param("limit", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()", is(2)))
+        .andExpect(jsonPath("$.nextCursor").value("abc"));
+  }
+
+  @Test
+  @DisplayName("GET /tasks?limit= - cursor inválido retorna 400")
+  void getTasksPage_invalidCursor() throws Exception {
+    when(taskService.getTaskViewsPage(TaskFilter.NONE, "xyz", 2, false, TaskField.ALL)).thenThrow(new IllegalArgumentException("Cursor inválido"));
+
+    mockMvc.perform(get("/tasks").param("limit", "2").param("cursor", "xyz"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value("Cursor inválido"));
+  }
+
+  // -----------------------
+  // GET /tasks/export - streaming
+  // -----------------------
+  @Test
+  @DisplayName("GET /tasks/export - devolve NDJSON em streaming")
+  void exportTasks_ndjson() throws Exception {
+    doAnswer(invocation -> {
+      OutputStream out = invocation.getArgument(0);
+      out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+      return null;
+    }).when(taskExportService).exportNdjson(any(OutputStream.class));
+
+    var result = mockMvc.perform(get("/tasks/export"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+        .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+  }
+
+  @Test
+  @DisplayName("GET /tasks/export - formato desconhecido retorna 400")
+  void exportTasks_invalidFormat() throws Exception {
+    mockMvc.perform(get("/tasks/export").param("format", "xml"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("GET /tasks/export - com Accept protobuf usa a exportação binária")
+  void exportTasks_protobuf() throws Exception {
+    doAnswer(invocation -> {
+      OutputStream out = invocation.getArgument(0);
+      out.write(new byte[] {2, 8, 1});
+      return null;
+    }).when(taskExportService).exportProtobuf(any(OutputStream.class));
+
+    var result = mockMvc.perform(get("/tasks/export").accept(TaskProtobuf.MEDIA_TYPE))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(TaskProtobuf.MEDIA_TYPE))
+        .andExpect(content().bytes(new byte[] {2, 8, 1}));
+  }
+
+  // -----------------------
+  // application/x-protobuf
+  // -----------------------
+  @Test
+  @DisplayName("GET /tasks - sem Accept específico continua em JSON")
+  void getAllTasks_jsonByDefault() throws Exception {
+    when(taskService.findTaskViews(TaskFilter.NONE, false, TaskField.ALL)).thenReturn(views(task1, task2));
+
+    mockMvc.perform(get("/tasks").accept(MediaType.ALL))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+        .andExpect(header().string("Vary", containsString("Accept")));
+  }
+
+  @Test
+  @DisplayName("GET /tasks - com Accept protobuf devolve a lista em binário")
+  void getAllTasks_protobuf() throws Exception {
+    when(taskService.findTaskViews(TaskFilter.NONE, false, TaskField.ALL)).thenReturn(views(task1, task2));
+
+    byte[] body = mockMvc.perform(get("/tasks").accept(TaskProtobuf.MEDIA_TYPE))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(TaskProtobuf.MEDIA_TYPE))
+        .andReturn().getResponse().getContentAsByteArray();
+
+    assertThat(TaskProtobuf.decodeList(body).items())
+        .extracting(Task::getTitle).containsExactly("Comprar leite", "Estudar Java");
+  }
+
+  @Test
+  @DisplayName("GET /tasks?limit - página em protobuf leva o cursor")
+  void getTasksPage_protobuf() throws Exception {
+    when(taskService.getTaskViewsPage(any(TaskFilter.class), eq(null), eq(1), eq(false), eq(TaskField.ALL)))
+        .thenReturn(new TaskViewPage(views(task1), "c1"));
+
+    byte[] body = mockMvc.perform(get("/tasks").param("limit", "1").accept(TaskProtobuf.MEDIA_TYPE))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsByteArray();
+
+    TaskPage page = TaskProtobuf.decodeList(body);
+    assertThat(page.items()).extracting(Task::getId).containsExactly(1L);
+    assertThat(page.nextCursor()).isEqualTo("c1");
+  }
+
+  @Test
+  @DisplayName("POST /tasks - aceita corpo em protobuf e responde no formato pedido")
+  void createTask_protobuf() throws Exception {
+    when(taskService.createTask(any(Task.class))).thenAnswer(invocation -> {
+      Task saved = invocation.getArgument(0);
+      saved.setId(10L);
+      return saved;
+    });
+    Task request = new Task();
+    request.setTitle("Via protobuf");
+
+    mockMvc.perform(post("/tasks")
+            .contentType(TaskProtobuf.MEDIA_TYPE)
+            .content(TaskProtobuf.encode(request)))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.id").value(10))
+        .andExpect(jsonPath("$.title").value("Via protobuf"));
+  }
+
+  @Test
+  @DisplayName("POST /tasks - protobuf sem título falha na validação; corpo inválido retorna 400")
+  void createTask_protobufInvalid() throws Exception {
+    mockMvc.perform(post("/tasks")
+            .contentType(TaskProtobuf.MEDIA_TYPE)
+            .content(new byte[0]))
+        .andExpect(status().isBadRequest());
+
+    mockMvc.perform(post("/tasks")
+            .contentType(TaskProtobuf.MEDIA_TYPE)
+            .content(new byte[] {0x12, 0x05, 'a'}))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("PUT /tasks/{id} - erro com Accept protobuf continua em JSON")
+  void updateTask_protobufError() throws Exception {
+    when(taskService.updateTask(eq(1L), any(Task.class), eq(9L)))
+        .thenThrow(new OptimisticLockingFailureException("versão antiga"));
+
+    mockMvc.perform(put("/tasks/1")
+            .header("If-Match", "\"1-9\"")
+            .accept(TaskProtobuf.MEDIA_TYPE)
+            .contentType(TaskProtobuf.MEDIA_TYPE)
+            .content(TaskProtobuf.encode(task1)))
+        .andExpect(status().isPreconditionFailed())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.error").exists());
+  }
+
   // -----------------------
   // GET /tasks/{id} - sucesso / not found
   // -----------------------
@@ -131,6 +349,78 @@ class TaskControllerTest {
         .andExpect(jsonPath("$.title").value("Comprar leite"));
   }
 
+  @Test
+  @DisplayName("GET /tasks?fields= - só os campos pedidos, na ordem de Task; campo pedido e nulo sai como null")
+  void getAllTasks_fields() throws Exception {
+    task1.setDescription(null);
+    Set<TaskField> fields = EnumSet.of(TaskField.ID, TaskField.TITLE, TaskField.DESCRIPTION);
+    when(taskService.findTaskViews(TaskFilter.NONE, false, fields))
+        .thenReturn(List.of(TaskView.of(task1, fields)));
+
+    String json = mockMvc.perform(get("/tasks").param("fields", "description,title,id"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].description").value(nullValue()))
+        .andReturn().getResponse().getContentAsString();
+
+    assertThat(json).isEqualTo("[{\"id\":1,\"title\":\"Comprar leite\",\"description\":null}]");
+  }
+
+  @Test
+  @DisplayName("GET /tasks?fields= - campo desconhecido retorna 400")
+  void getAllTasks_unknownField() throws Exception {
+    mockMvc.perform(get("/tasks").param("fields", "title,owner"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value(containsString("owner")));
+  }
+
+  @Test
+  @DisplayName("GET /tasks/{id}?fields= - recorta a task do cache; em protobuf os outros campos não vão")
+  void getTaskById_fieldsProtobuf() throws Exception {
+    when(taskService.getTaskById(1L)).thenReturn(Optional.of(task1));
+
+    byte[] body = mockMvc.perform(get("/tasks/1").param("fields", "title").accept(TaskProtobuf.MEDIA_TYPE))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"1-0\""))
+        .andReturn().getResponse().getContentAsByteArray();
+
+    Task decoded = TaskProtobuf.decode(body);
+    assertThat(decoded.getTitle()).isEqualTo("Comprar leite");
+    assertThat(decoded.getId()).isNull();
+    assertThat(decoded.getDescription()).isNull();
+    assertThat(decoded.getCreatedAt()).isNull();
+  }
+
+  @Test
+  @DisplayName("GET /tasks/{id} - retorna 304 sem corpo quando o If-None-Match bate com o ETag")
+  void getTaskById_notModified() throws Exception {
+    when(taskService.getTaskById(1L)).thenReturn(Optional.of(task1));
+
+    String etag = mockMvc.perform(get("/tasks/1"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader("ETag");
+
+    mockMvc.perform(get("/tasks/1").header("If-None-Match", etag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  @DisplayName("GET /tasks - o ETag da lista muda quando a versão de uma task muda")
+  void getAllTasks_etagChangesWithVersion() throws Exception {
+    when(taskService.findTaskViews(TaskFilter.NONE, false, TaskField.ALL))
+        .thenAnswer(invocation -> views(task1, task2));
+    String etag = mockMvc.perform(get("/tasks"))
+        .andReturn().getResponse().getHeader("ETag");
+
+    mockMvc.perform(get("/tasks").header("If-None-Match", etag))
+        .andExpect(status().isNotModified());
+
+    task2.setVersion(1);
+    mockMvc.perform(get("/tasks").header("If-None-Match", etag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(2)));
+  }
+
   @Test
   @DisplayName("GET /tasks/{id} - quando não existe retorna 404")
   void getTaskById_notFound() throws Exception {
@@ -152,8 +442,7 @@ class TaskControllerTest {
     updated.setDescription("Ir ao mercado");
     updated.setDone(false);
 
-    when(taskService.getTaskById(1L)).thenReturn(Optional.of(task1));
-    when(taskService.updateTask(any(Task.class))).thenReturn(updated);
+    when(taskService.updateTask(eq(1L), any(Task.class), eq(null))).thenReturn(Optional.of(updated));
 
     mockMvc.perform(put("/tasks/1")
             .contentType(MediaType.APPLICATION_JSON)
@@ -163,10 +452,53 @@ class TaskControllerTest {
         .andExpect(jsonPath("$.description").value("Ir ao mercado"));
   }
 
+  @Test
+  @DisplayName("PUT /tasks/{id} - repassa a versão do If-Match e retorna o novo ETag")
+  void updateTask_ifMatch() throws Exception {
+    Task updated = new Task();
+    updated.setId(1L);
+    updated.setTitle("Comprar ovos");
+    updated.setVersion(4);
+    when(taskService.updateTask(eq(1L), any(Task.class), eq(3L))).thenReturn(Optional.of(updated));
+
+    mockMvc.perform(put("/tasks/1")
+            .header("If-Match", "\"1-3\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(updated)))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"1-4\""));
+  }
+
+  @Test
+  @DisplayName("PUT /tasks/{id} - retorna 412 quando a versão do If-Match está desatualizada")
+  void updateTask_preconditionFailed() throws Exception {
+    when(taskService.updateTask(eq(1L), any(Task.class), eq(3L)))
+        .thenThrow(new OptimisticLockingFailureException("versão antiga"));
+
+    mockMvc.perform(put("/tasks/1")
+            .header("If-Match", "\"1-3\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(task1)))
+        .andExpect(status().isPreconditionFailed())
+        .andExpect(jsonPath("$.error").isNotEmpty());
+  }
+
+  @Test
+  @DisplayName("PUT /tasks/{id} - retorna 409 quando a task está arquivada")
+  void updateTask_archived() throws Exception {
+    when(taskService.updateTask(eq(1L), any(Task.class), eq(null))).thenThrow(new TaskArchivedException(1L));
+
+    mockMvc.perform(put("/tasks/1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(task1)))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.error").isNotEmpty());
+  }
+
   @Test
   @DisplayName("PUT /tasks/{id} - retorna 404 quando id não existe")
   void updateTask_notFound() throws Exception {
-    when(taskService.getTaskById(99L)).thenReturn(Optional.empty());
+    when(taskService.updateTask(eq(99L), any(Task.class), eq(null))).thenReturn(Optional.empty());
 
     mockMvc.perform(put("/tasks/99")
             .contentType(MediaType.APPLICATION_JSON)
@@ -186,7 +518,7 @@ class TaskControllerTest {
     doneTask.setDone(true);
     doneTask.setCompletedAt(LocalDateTime.now());
 
-    when(taskService.markTaskAsDone(1L)).thenReturn(Optional.of(doneTask));
+    when(taskService.markTaskAsDone(1L, null)).thenReturn(Optional.of(doneTask));
 
     mockMvc.perform(patch("/tasks/1/done"))
         .andExpect(status().isOk())
@@ -197,7 +529,7 @@ class TaskControllerTest {
   @Test
   @DisplayName("PATCH /tasks/{id}/done - retorna 404 quando id não existe")
   void markAsDone_notFound() throws Exception {
-    when(taskService.markTaskAsDone(99L)).thenReturn(Optional.empty());
+    when(taskService.markTaskAsDone(99L, null)).thenReturn(Optional.empty());
 
     mockMvc.perform(patch("/tasks/99/done"))
         .andExpect(status().isNotFound());
@@ -209,7 +541,7 @@ class TaskControllerTest {
   @Test
   @DisplayName("DELETE /tasks/{id} - retorna 204 quando deletado")
   void deleteTask_success() throws Exception {
-    when(taskService.deleteTask(1L)).thenReturn(true);
+    when(taskService.deleteTask(1L, null)).thenReturn(true);
 
     mockMvc.perform(delete("/tasks/1"))
         .andExpect(status().isNoContent());
@@ -218,9 +550,18 @@ class TaskControllerTest {
   @Test
   @DisplayName("DELETE /tasks/{id} - retorna 404 quando id inexistente")
   void deleteTask_notFound() throws Exception {
-    when(taskService.deleteTask(99L)).thenReturn(false);
+    when(taskService.deleteTask(99L, null)).thenReturn(false);
 
     mockMvc.perform(delete("/tasks/99"))
         .andExpect(status().isNotFound());
   }
+
+  @Test
+  @DisplayName("DELETE /tasks/{id} - If-Match de outra task nunca bate com a versão atual")
+  void deleteTask_ifMatchOtherTask() throws Exception {
+    when(taskService.deleteTask(1L, -1L)).thenThrow(new OptimisticLockingFailureException("versão antiga"));
+
+    mockMvc.perform(delete("/tasks/1").header("If-Match", "\"2-0\""))
+        .andExpect(status().isPreconditionFailed());
+  }
 }
@@ -0,0 +1,46 @@
+package com.marcela.todo.controller;
+
+import com.marcela.todo.search.TaskSearchHit;
+import com.marcela.todo.search.TaskSearchIndex;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TaskSearchController.class)
+class TaskSearchControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockBean
+  private TaskSearchIndex taskSearchIndex;
+
+  @Test
+  @DisplayName("GET /tasks/search - retorna os resultados do índice")
+  void search_success() throws Exception {
+    when(taskSearchIndex.search("spri*", 20)).thenReturn(List.of(new TaskSearchHit(1L, "Estudar Spring", 2.5)));
+
+    mockMvc.perform(get("/tasks/search").param("q", "spri*"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()", is(1)))
+        .andExpect(jsonPath("$[0].id").value(1))
+        .andExpect(jsonPath("$[0].title").value("Estudar Spring"));
+  }
+
+  @Test
+  @DisplayName("GET /tasks/search - limit fora do intervalo retorna 400")
+  void search_invalidLimit() throws Exception {
+    mockMvc.perform(get("/tasks/search").param("q", "spring").param("limit", "1000"))
+        .andExpect(status().isBadRequest());
+  }
+}
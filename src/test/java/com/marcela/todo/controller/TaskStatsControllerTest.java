@@ -0,0 +1,49 @@
+package com.marcela.todo.controller;
+
+import com.marcela.todo.dto.TaskStats;
+import com.marcela.todo.stats.TaskStatistics;
+import java.time.LocalDate;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TaskStatsController.class)
+class TaskStatsControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockBean
+  private TaskStatistics taskStatistics;
+
+  @Test
+  @DisplayName("GET /tasks/stats - retorna os contadores dos últimos 30 dias por padrão")
+  void stats_success() throws Exception {
+    when(taskStatistics.snapshot(30)).thenReturn(
+        new TaskStats(3, 1, 2, 90.0, Map.of(LocalDate.of(2025, 10, 23), 2L)));
+
+    mockMvc.perform(get("/tasks/stats"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total").value(3))
+        .andExpect(jsonPath("$.open").value(1))
+        .andExpect(jsonPath("$.done").value(2))
+        .andExpect(jsonPath("$.averageSecondsToComplete").value(90.0))
+        .andExpect(jsonPath("$.completionsPerDay['2025-10-23']").value(2));
+  }
+
+  @Test
+  @DisplayName("GET /tasks/stats - days fora do intervalo retorna 400")
+  void stats_invalidDays() throws Exception {
+    mockMvc.perform(get("/tasks/stats").param("days", "0"))
+        .andExpect(status().isBadRequest());
+  }
+}
@@ -0,0 +1,71 @@
+package com.marcela.todo.feed;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskChangeBufferTest {
+
+  @Test
+  @DisplayName("Deve devolver as alterações depois da sequência informada, em ordem")
+  void readAfter_inOrder() {
+    // Arrange
+    TaskChangeBuffer buffer = new TaskChangeBuffer(4);
+    buffer.append("a");
+    buffer.append("b");
+    buffer.append("c");
+
+    // Act
+    TaskChangeBuffer.Slice slice = buffer.readAfter(1, 10);
+
+    // Assert
+    assertThat(slice.gap()).isFalse();
+    assertThat(slice.changes()).extracting(TaskChange::json).containsExactly("b", "c");
+    assertThat(slice.changes()).extracting(TaskChange::sequence).containsExactly(2L, 3L);
+  }
+
+  @Test
+  @DisplayName("Deve respeitar o máximo por leitura")
+  void readAfter_max() {
+    // Arrange
+    TaskChangeBuffer buffer = new TaskChangeBuffer(4);
+    buffer.append("a");
+    buffer.append("b");
+    buffer.append("c");
+
+    // Act
+    TaskChangeBuffer.Slice slice = buffer.readAfter(0, 2);
+
+    // Assert
+    assertThat(slice.changes()).extracting(TaskChange::json).containsExactly("a", "b");
+  }
+
+  @Test
+  @DisplayName("Deve sinalizar gap quando as alterações pedidas já foram sobrescritas")
+  void readAfter_overwritten() {
+    // Arrange
+    TaskChangeBuffer buffer = new TaskChangeBuffer(2);
+    buffer.append("a");
+    buffer.append("b");
+    buffer.append("c");
+
+    // Act + Assert
+    assertThat(buffer.readAfter(0, 10).gap()).isTrue();
+    assertThat(buffer.readAfter(1, 10).changes()).extracting(TaskChange::json).containsExactly("b", "c");
+    assertThat(buffer.readAfter(3, 10).changes()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Deve sinalizar gap para sequência desconhecida")
+  void readAfter_unknownSequence() {
+    // Arrange
+    TaskChangeBuffer buffer = new TaskChangeBuffer(2);
+    buffer.append("a");
+
+    // Act + Assert
+    assertThat(buffer.readAfter(5, 10).gap()).isTrue();
+    assertThat(buffer.readAfter(-1, 10).gap()).isTrue();
+    assertThat(buffer.readAfter(5, 10).lastSequence()).isEqualTo(1);
+  }
+}
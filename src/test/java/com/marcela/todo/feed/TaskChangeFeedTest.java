@@ -0,0 +1,33 @@
+package com.marcela.todo.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaskChangeFeedTest {
+
+  private final TaskChangeFeed feed = new TaskChangeFeed(new ObjectMapper(), 16, Duration.ofMinutes(1), 2, 1);
+
+  @AfterEach
+  void cleanup() {
+    feed.shutdown();
+  }
+
+  @Test
+  @DisplayName("subscribe - recusa novas conexões acima de max-subscribers")
+  void subscribe_rejectsAboveMaxSubscribers() {
+    // Arrange
+    feed.subscribe(null);
+    feed.subscribe(null);
+
+    // Act + Assert
+    assertThrows(RejectedExecutionException.class, () -> feed.subscribe(null));
+    assertThat(feed.subscriberCount()).isEqualTo(2);
+  }
+}
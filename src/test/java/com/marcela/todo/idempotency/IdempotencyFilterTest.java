@@ -0,0 +1,229 @@
+package com.marcela.todo.idempotency;
+
+import com.marcela.todo.ratelimit.ClientKeyResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private IdempotencyStore store;
+  private IdempotencyFilter filter;
+  private AtomicInteger created;
+  private int nextStatus;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    store = new IdempotencyStore(1024 * 1024, Duration.ofHours(1), Duration.ofMinutes(1), null, Clock.systemUTC());
+    filter = new IdempotencyFilter(store, new ClientKeyResolver("X-Client-Id"), 64, meterRegistry);
+    created = new AtomicInteger();
+    nextStatus = 201;
+  }
+
+  // faz o papel do controller: lê o corpo e "cria" uma task com id novo
+  private final FilterChain controller = (req, res) -> {
+    String body = new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    int id = created.incrementAndGet();
+    HttpServletResponse response = (HttpServletResponse) res;
+    response.setStatus(nextStatus);
+    response.setHeader(HttpHeaders.LOCATION, "/tasks/" + id);
+    response.setContentType("application/json");
+    response.getWriter().write("{\"id\":" + id + ",\"echo\":" + body + "}");
+  };
+
+  private MockHttpServletResponse post(String uri, String key, String body) throws ServletException, IOException {
+    return post(uri, key, body, null);
+  }
+
+  private MockHttpServletResponse post(String uri, String key, String body, String client)
+      throws ServletException, IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+    request.setRequestURI(uri);
+    request.setContentType("application/json");
+    request.setContent(body.getBytes(StandardCharsets.UTF_8));
+    if (key != null) {
+      request.addHeader(IdempotencyFilter.HEADER, key);
+    }
+    if (client != null) {
+      request.addHeader("X-Client-Id", client);
+    }
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, controller);
+    return response;
+  }
+
+  @Test
+  @DisplayName("Repetir a chave devolve a resposta original sem chamar o controller de novo")
+  void sameKey_replaysStoredResponse() throws Exception {
+    // Act
+    MockHttpServletResponse first = post("/tasks", "chave-1", "{\"title\":\"A\"}");
+    MockHttpServletResponse retry = post("/tasks", "chave-1", "{\"title\":\"A\"}");
+
+    // Assert
+    assertThat(created).hasValue(1);
+    assertThat(first.getStatus()).isEqualTo(201);
+    assertThat(first.getContentAsString()).isEqualTo("{\"id\":1,\"echo\":{\"title\":\"A\"}}");
+    assertThat(first.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    assertThat(retry.getStatus()).isEqualTo(201);
+    assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+    assertThat(retry.getHeader(HttpHeaders.LOCATION)).isEqualTo("/tasks/1");
+    assertThat(retry.getContentType()).startsWith("application/json");
+    assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    assertThat(meterRegistry.get("task.idempotency.requests").tag("result", "replayed").counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Sem o header, com outra chave ou em outra rota, cada POST executa")
+  void differentKeysOrRoutes_execute() throws Exception {
+    // Act
+    post("/tasks", null, "{}");
+    post("/tasks", null, "{}");
+    post("/tasks", "chave-1", "{}");
+    post("/tasks", "chave-2", "{}");
+    post("/tasks/batch", "chave-1", "{}");
+
+    // Assert
+    assertThat(created).hasValue(5);
+  }
+
+  @Test
+  @DisplayName("A mesma chave enviada por outro cliente executa e não recebe a resposta do primeiro")
+  void sameKeyOtherClient_executes() throws Exception {
+    // Arrange
+    post("/tasks", "chave-1", "{}", "cliente-a");
+
+    // Act
+    MockHttpServletResponse other = post("/tasks", "chave-1", "{}", "cliente-b");
+    MockHttpServletResponse retry = post("/tasks", "chave-1", "{}", "cliente-a");
+
+    // Assert
+    assertThat(other.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    assertThat(other.getHeader(HttpHeaders.LOCATION)).isEqualTo("/tasks/2");
+    assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    assertThat(created).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("A mesma chave com outro corpo recebe 422 e não cria nada")
+  void sameKeyDifferentBody_422() throws Exception {
+    // Arrange
+    post("/tasks", "chave-1", "{\"title\":\"A\"}");
+
+    // Act
+    MockHttpServletResponse response = post("/tasks", "chave-1", "{\"title\":\"B\"}");
+
+    // Assert
+    assertThat(response.getStatus()).isEqualTo(422);
+    assertThat(response.getContentAsString()).contains("\"error\"");
+    assertThat(created).hasValue(1);
+  }
+
+  @Test
+  @DisplayName("Resposta de erro não fica guardada: o retry com a mesma chave executa de novo")
+  void errorResponse_isNotStored() throws Exception {
+    // Arrange
+    nextStatus = 400;
+    post("/tasks", "chave-1", "{}");
+    nextStatus = 201;
+
+    // Act
+    MockHttpServletResponse retry = post("/tasks", "chave-1", "{}");
+
+    // Assert
+    assertThat(retry.getStatus()).isEqualTo(201);
+    assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    assertThat(created).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("Chave ainda em execução recebe 409 com Retry-After; chave vazia recebe 400")
+  void inProgressAndInvalidKey() throws Exception {
+    // Arrange: outra requisição com a chave está no meio da execução
+    MockHttpServletRequest probe = new MockHttpServletRequest("POST", "/tasks");
+    probe.setContentType("application/json");
+    probe.setContent("{}".getBytes(StandardCharsets.UTF_8));
+    probe.addHeader(IdempotencyFilter.HEADER, "chave-1");
+    MockHttpServletResponse[] concurrent = new MockHttpServletResponse[1];
+    filter.doFilter(probe, new MockHttpServletResponse(),
+        (req, res) -> concurrent[0] = post("/tasks", "chave-1", "{}"));
+
+    // Act
+    MockHttpServletResponse blank = post("/tasks", " ", "{}");
+
+    // Assert
+    assertThat(concurrent[0].getStatus()).isEqualTo(409);
+    assertThat(concurrent[0].getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    assertThat(blank.getStatus()).isEqualTo(400);
+    assertThat(created).hasValue(0);
+  }
+
+  @Test
+  @DisplayName("Corpo acima do limite recebe 413 sem chegar ao controller")
+  void bodyTooLarge_413() throws Exception {
+    // Act
+    MockHttpServletResponse response = post("/tasks", "chave-1", "{\"title\":\"" + "x".repeat(64) + "\"}");
+
+    // Assert
+    assertThat(response.getStatus()).isEqualTo(413);
+    assertThat(response.getContentAsString()).contains("\"error\"");
+    assertThat(created).hasValue(0);
+  }
+
+  @Test
+  @DisplayName("O corpo entregue ao controller também pode ser lido com ReadListener (leitura assíncrona)")
+  void readListener_receivesWholeBody() throws Exception {
+    // Arrange
+    ByteArrayOutputStream read = new ByteArrayOutputStream();
+    boolean[] finished = new boolean[1];
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/tasks");
+    request.setContent("{\"title\":\"A\"}".getBytes(StandardCharsets.UTF_8));
+    request.addHeader(IdempotencyFilter.HEADER, "chave-1");
+
+    // Act
+    filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+      ServletInputStream in = req.getInputStream();
+      in.setReadListener(new ReadListener() {
+        @Override
+        public void onDataAvailable() throws IOException {
+          while (in.isReady() && !in.isFinished()) {
+            read.write(in.read());
+          }
+        }
+
+        @Override
+        public void onAllDataRead() {
+          finished[0] = true;
+        }
+
+        @Override
+        public void onError(Throwable error) {
+          throw new AssertionError(error);
+        }
+      });
+    });
+
+    // Assert
+    assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo("{\"title\":\"A\"}");
+    assertThat(finished[0]).isTrue();
+  }
+}
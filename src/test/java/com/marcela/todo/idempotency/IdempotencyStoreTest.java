@@ -0,0 +1,127 @@
+package com.marcela.todo.idempotency;
+
+import com.marcela.todo.repository.IdempotencyRecordRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// cada store faz o papel de uma instância; sem transação no teste, cada chamada ao repositório commita
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyStoreTest {
+
+  private static final Instant NOW = Instant.parse("2025-11-01T12:00:00Z");
+  private static final Duration TTL = Duration.ofHours(24);
+  private static final Duration LOCK_TIMEOUT = Duration.ofMinutes(1);
+
+  @Autowired
+  private IdempotencyRecordRepository repository;
+
+  @AfterEach
+  void cleanup() {
+    repository.deleteAll();
+  }
+
+  private IdempotencyStore storeAt(Instant instant) {
+    return new IdempotencyStore(1024 * 1024, TTL, LOCK_TIMEOUT, repository, Clock.fixed(instant, ZoneOffset.UTC));
+  }
+
+  private static IdempotentResponse response(String requestHash) {
+    return new IdempotentResponse(requestHash, 201, "application/json", "/tasks/7", "\"7-0\"",
+        "{\"id\":7}".getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  @DisplayName("Resposta gravada na tabela é devolvida por outra instância (depois de um restart)")
+  void persistedResponse_survivesRestart() {
+    // Arrange
+    IdempotencyStore before = storeAt(NOW);
+    assertThat(before.claim("k", "h").outcome()).isEqualTo(IdempotencyStore.Outcome.ACQUIRED);
+    before.complete("k", response("h"));
+
+    // Act
+    IdempotencyStore.Claim claim = storeAt(NOW.plusSeconds(60)).claim("k", "h");
+
+    // Assert
+    assertThat(claim.outcome()).isEqualTo(IdempotencyStore.Outcome.REPLAY);
+    assertThat(claim.response().status()).isEqualTo(201);
+    assertThat(claim.response().location()).isEqualTo("/tasks/7");
+    assertThat(claim.response().body()).isEqualTo("{\"id\":7}".getBytes(StandardCharsets.UTF_8));
+    assertThat(storeAt(NOW.plusSeconds(60)).claim("k", "outro").outcome())
+        .isEqualTo(IdempotencyStore.Outcome.MISMATCH);
+  }
+
+  @Test
+  @DisplayName("Chave vencida é ignorada na leitura e apagada pela limpeza")
+  void expiredKey_ignoredAndPurged() {
+    // Arrange
+    IdempotencyStore before = storeAt(NOW);
+    before.claim("velha", "h");
+    before.complete("velha", response("h"));
+    before.claim("esquecida", "h");
+    before.complete("esquecida", response("h"));
+    IdempotencyStore later = storeAt(NOW.plus(TTL).plusSeconds(1));
+    later.claim("nova", "h");
+    later.complete("nova", response("h"));
+
+    // Act
+    IdempotencyStore.Claim claim = later.claim("velha", "h");
+    later.release("velha");
+    int purged = later.purgeExpired();
+
+    // Assert
+    assertThat(claim.outcome()).isEqualTo(IdempotencyStore.Outcome.ACQUIRED);
+    assertThat(purged).isEqualTo(1);
+    assertThat(repository.findAll()).extracting(record -> record.getId()).containsExactly("nova");
+  }
+
+  @Test
+  @DisplayName("Chave em execução numa instância recebe 409 (ou 422 com outro corpo) na outra até terminar")
+  void reservedKey_blocksOtherInstances() {
+    // Arrange
+    IdempotencyStore first = storeAt(NOW);
+    IdempotencyStore second = storeAt(NOW.plusSeconds(1));
+    assertThat(first.claim("k", "h").outcome()).isEqualTo(IdempotencyStore.Outcome.ACQUIRED);
+
+    // Act
+    IdempotencyStore.Outcome running = second.claim("k", "h").outcome();
+    IdempotencyStore.Outcome otherBody = second.claim("k", "outro").outcome();
+    first.complete("k", response("h"));
+    IdempotencyStore.Outcome done = second.claim("k", "h").outcome();
+
+    // Assert
+    assertThat(running).isEqualTo(IdempotencyStore.Outcome.IN_PROGRESS);
+    assertThat(otherBody).isEqualTo(IdempotencyStore.Outcome.MISMATCH);
+    assertThat(done).isEqualTo(IdempotencyStore.Outcome.REPLAY);
+  }
+
+  @Test
+  @DisplayName("Reserva liberada depois de um erro, ou abandonada há mais de lock-timeout, pode ser assumida")
+  void releasedOrAbandonedReservation_canBeTaken() {
+    // Arrange
+    IdempotencyStore first = storeAt(NOW);
+    first.claim("liberada", "h");
+    first.release("liberada");
+    first.claim("abandonada", "h");
+
+    // Act
+    IdempotencyStore later = storeAt(NOW.plus(LOCK_TIMEOUT).plusSeconds(1));
+    IdempotencyStore.Outcome released = later.claim("liberada", "h").outcome();
+    IdempotencyStore.Outcome abandoned = later.claim("abandonada", "h").outcome();
+
+    // Assert
+    assertThat(released).isEqualTo(IdempotencyStore.Outcome.ACQUIRED);
+    assertThat(abandoned).isEqualTo(IdempotencyStore.Outcome.ACQUIRED);
+  }
+}
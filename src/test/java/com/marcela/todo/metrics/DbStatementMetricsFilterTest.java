@@ -0,0 +1,77 @@
+package com.marcela.todo.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DbStatementMetricsFilterTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private DbStatementMetricsFilter filter;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    filter = new DbStatementMetricsFilter(meterRegistry);
+  }
+
+  @Test
+  @DisplayName("Deve registrar a quantidade de comandos SQL da requisição por rota")
+  void shouldRecordStatementsPerRequest() throws Exception {
+    // Arrange
+    DbStatementCounter counter = new DbStatementCounter();
+    counter.inspect("select 1"); // sobra de outra requisição na mesma thread
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks/1");
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/tasks/{id}");
+
+    // Act
+    filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+      counter.inspect("select * from tasks where id=?");
+      counter.inspect("update tasks set done=? where id=?");
+    });
+
+    // Assert
+    DistributionSummary summary = meterRegistry.get(DbStatementMetricsFilter.METRIC)
+        .tag("method", "GET")
+        .tag("uri", "/tasks/{id}")
+        .summary();
+    assertThat(summary.count()).isEqualTo(1);
+    assertThat(summary.totalAmount()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Deve registrar só a espera por conexão feita durante a requisição")
+  void shouldRecordPoolWaitPerRequest() throws Exception {
+    // Arrange
+    IMetricsTracker tracker = new ConnectionWaitTracker((poolName, poolStats) -> new IMetricsTracker() { })
+        .create("todo", null);
+    tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(500)); // sobra de outra requisição
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/tasks");
+
+    // Act
+    filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+      tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(3));
+      tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(4));
+    });
+
+    // Assert
+    Timer timer = meterRegistry.get(DbStatementMetricsFilter.POOL_WAIT_METRIC)
+        .tag("method", "GET")
+        .tag("uri", "/tasks")
+        .timer();
+    assertThat(timer.count()).isEqualTo(1);
+    assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(7.0);
+  }
+}
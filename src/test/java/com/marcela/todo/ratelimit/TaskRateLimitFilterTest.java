@@ -0,0 +1,140 @@
+package com.marcela.todo.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskRateLimitFilterTest {
+
+  private final AtomicLong clock = new AtomicLong();
+  private SimpleMeterRegistry meterRegistry;
+  private ConcurrencyLimiter concurrency;
+  private TaskRateLimitFilter filter;
+  private int passed;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    concurrency = new ConcurrencyLimiter(2, Duration.ZERO);
+    // leitura: 10/s com rajada de 3; escrita: 1/s com rajada de 1
+    filter = new TaskRateLimitFilter(
+        new GcraRateLimiter(10, 3, 1000, clock::get),
+        new GcraRateLimiter(1, 1, 1000, clock::get),
+        concurrency, "X-Client-Id", meterRegistry);
+    passed = 0;
+  }
+
+  private MockHttpServletResponse call(String method, String client) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, "/tasks");
+    if (client != null) {
+      request.addHeader("X-Client-Id", client);
+    }
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, (req, res) -> passed++);
+    return response;
+  }
+
+  @Test
+  @DisplayName("Passa a rajada; o pedido seguinte recebe 429 com Retry-After até o balde encher de novo")
+  void rateLimit_burstThen429() throws Exception {
+    // Act
+    for (int i = 0; i < 3; i++) {
+      assertThat(call("GET", "importador").getStatus()).isEqualTo(200);
+    }
+    MockHttpServletResponse limited = call("GET", "importador");
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+    MockHttpServletResponse afterRefill = call("GET", "importador");
+
+    // Assert
+    assertThat(limited.getStatus()).isEqualTo(429);
+    assertThat(limited.getHeader("Retry-After")).isEqualTo("1");
+    assertThat(limited.getContentAsString()).contains("\"error\"");
+    assertThat(afterRefill.getStatus()).isEqualTo(200);
+    assertThat(passed).isEqualTo(4);
+    assertThat(meterRegistry.get("task.requests.rejected").tags("kind", "read", "reason", "rate-limit")
+        .counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Cada cliente e cada tipo de pedido (leitura/escrita) tem o seu balde")
+  void rateLimit_separateBuckets() throws Exception {
+    // Arrange
+    for (int i = 0; i < 3; i++) {
+      call("GET", "importador");
+    }
+
+    // Act + Assert
+    assertThat(call("GET", "importador").getStatus()).isEqualTo(429);
+    assertThat(call("GET", "outro").getStatus()).isEqualTo(200);
+    assertThat(call("GET", null).getStatus()).isEqualTo(200);
+    assertThat(call("POST", "importador").getStatus()).isEqualTo(200);
+    assertThat(call("PUT", "importador").getStatus()).isEqualTo(429);
+  }
+
+  @Test
+  @DisplayName("Sem vaga de concorrência a requisição recebe 503 sem chegar ao controller")
+  void concurrency_shedsWith503() throws Exception {
+    // Arrange: as duas vagas ocupadas por requisições em andamento
+    assertThat(concurrency.tryAcquire()).isTrue();
+    assertThat(concurrency.tryAcquire()).isTrue();
+
+    // Act
+    MockHttpServletResponse shed = call("GET", "cliente");
+    concurrency.release();
+    MockHttpServletResponse served = call("GET", "cliente");
+
+    // Assert
+    assertThat(shed.getStatus()).isEqualTo(503);
+    assertThat(shed.getHeader("Retry-After")).isEqualTo("1");
+    assertThat(served.getStatus()).isEqualTo(200);
+    assertThat(passed).isEqualTo(1);
+    assertThat(concurrency.active()).isEqualTo(1);
+    assertThat(meterRegistry.get("task.requests.rejected").tags("kind", "read", "reason", "overload")
+        .counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Com muitas threads na mesma chave, passam exatamente burst pedidos")
+  void gcra_concurrentCallers() throws Exception {
+    // Arrange: relógio parado, então nada é reposto durante o teste
+    GcraRateLimiter limiter = new GcraRateLimiter(1, 50, 1000, () -> 0L);
+    AtomicInteger accepted = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    try {
+      // Act
+      List<Future<?>> calls = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        calls.add(executor.submit(() -> {
+          for (int j = 0; j < 100; j++) {
+            if (limiter.tryAcquire("k") == 0) {
+              accepted.incrementAndGet();
+            }
+          }
+        }));
+      }
+      for (Future<?> call : calls) {
+        call.get(5, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Assert
+    assertThat(accepted).hasValue(50);
+  }
+}
@@ -0,0 +1,119 @@
+package com.marcela.todo.replica;
+
+import com.jayway.jsonpath.JsonPath;
+import com.marcela.todo.dto.TaskField;
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.dto.TaskView;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.service.TaskService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// primário e réplica são dois H2 em memória; a "replicação" é o SCRIPT do primário executado na réplica,
+// então entre uma chamada e outra de replicate() a réplica fica atrasada
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "task.replica.urls=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+    "task.replica.max-lag=5s",
+    "task.archive.enabled=false"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private TaskService taskService;
+
+  private final JdbcTemplate primary = jdbc("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1");
+  private final JdbcTemplate replica = jdbc("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1");
+
+  private static JdbcTemplate jdbc(String url) {
+    return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+  }
+
+  @BeforeEach
+  void replicate() {
+    List<String> script = primary.queryForList("SCRIPT", String.class);
+    replica.execute("DROP ALL OBJECTS");
+    script.forEach(replica::execute);
+  }
+
+  private static Task task(String title) {
+    Task task = new Task();
+    task.setTitle(title);
+    return task;
+  }
+
+  private List<TaskView> allTasks() {
+    return taskService.findTaskViews(TaskFilter.NONE, false, TaskField.ALL);
+  }
+
+  @Test
+  @DisplayName("Leituras read-only vão para a réplica e escritas para o primário")
+  void readsGoToReplica() {
+    // Arrange
+    int before = allTasks().size();
+
+    // Act
+    taskService.createTask(task("Escrita no primário"));
+
+    // Assert
+    assertThat(allTasks()).hasSize(before);
+    assertThat(ReplicaRouting.onPrimary(() -> allTasks())).hasSize(before + 1);
+    replicate();
+    assertThat(allTasks()).hasSize(before + 1);
+  }
+
+  @Test
+  @DisplayName("Depois de uma escrita, o mesmo cliente lê do primário dentro da janela")
+  void readYourWrites() throws Exception {
+    // Arrange
+    MvcResult created = mockMvc.perform(post("/tasks")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"title\":\"Ler o que escrevi\"}"))
+        .andExpect(status().isCreated())
+        .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE))
+        .andReturn();
+    Cookie lastWrite = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+    long id = ((Number) JsonPath.read(created.getResponse().getContentAsString(), "$.id"))
+        .longValue();
+
+    // Act + Assert: com o cookie, vem do primário
+    mockMvc.perform(get("/tasks/{id}", id).cookie(lastWrite))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/tasks").cookie(lastWrite))
+        .andExpect(jsonPath("$[*].id", hasItem((int) id)));
+
+    // sem o cookie, da réplica, que ainda não tem a task
+    mockMvc.perform(get("/tasks/{id}", id))
+        .andExpect(status().isNotFound());
+    mockMvc.perform(get("/tasks"))
+        .andExpect(jsonPath("$[*].id", not(hasItem((int) id))));
+  }
+}
@@ -1,13 +1,22 @@
 package com.marcela.todo.repository;
 
+import com.marcela.todo.dto.TaskField;
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.dto.TaskView;
 import com.marcela.todo.model.Task;
+import org.hibernate.Session;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
 
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -17,6 +26,9 @@ class TaskRepositoryTest {
   @Autowired
   private TaskRepository taskRepository;
 
+  @Autowired
+  private TestEntityManager entityManager;
+
   @Test
   @DisplayName("Deve salvar uma task no banco")
   void saveTask_success() {
@@ -46,6 +58,41 @@ class TaskRepositoryTest {
     assertThat(tasks).hasSize(2);
   }
 
+  @Test
+  @DisplayName("Deve paginar por keyset a partir do último id")
+  void findViews_keyset() {
+    Task first = null;
+    for (int i = 1; i <= 3; i++) {
+      Task task = new Task();
+      task.setTitle("Task " + i);
+      task = taskRepository.save(task);
+      if (first == null) {
+        first = task;
+      }
+    }
+
+    List<TaskView> page = taskRepository.findViews(TaskFilter.NONE, first.getId(), 5, TaskField.ALL);
+    List<TaskView> limited = taskRepository.findViews(TaskFilter.NONE, first.getId(), 1, TaskField.ALL);
+
+    assertThat(page).extracting(TaskView::title).containsExactly("Task 2", "Task 3");
+    assertThat(limited).extracting(TaskView::title).containsExactly("Task 2");
+  }
+
+  @Test
+  @DisplayName("Deve ler todas as tasks em streaming ordenadas por id")
+  void streamAll_success() {
+    for (int i = 1; i <= 3; i++) {
+      Task task = new Task();
+      task.setTitle("Task " + i);
+      taskRepository.save(task);
+    }
+
+    // @DataJpaTest já roda dentro de uma transação, exigida pelo stream
+    try (Stream<Task> tasks = taskRepository.streamAllByOrderByIdAsc()) {
+      assertThat(tasks.map(Task::getTitle)).containsExactly("Task 1", "Task 2", "Task 3");
+    }
+  }
+
   @Test
   @DisplayName("Deve buscar task por ID")
   void findById_success() {
@@ -71,4 +118,157 @@ class TaskRepositoryTest {
     Optional<Task> deleted = taskRepository.findById(task.getId());
     assertThat(deleted).isEmpty();
   }
+
+  @Test
+  @DisplayName("Deve marcar como concluída com um único UPDATE")
+  void markAsDone_success() {
+    Task task = new Task();
+    task.setTitle("Concluir");
+    task = taskRepository.save(task);
+    LocalDateTime completedAt = LocalDateTime.of(2025, 10, 23, 17, 0);
+
+    int updated = taskRepository.markAsDone(task.getId(), completedAt);
+    int missing = taskRepository.markAsDone(-1L, completedAt);
+
+    assertThat(updated).isEqualTo(1);
+    assertThat(missing).isZero();
+    Task saved = taskRepository.findById(task.getId()).get();
+    assertThat(saved.isDone()).isTrue();
+    assertThat(saved.getCompletedAt()).isEqualTo(completedAt);
+    assertThat(saved.getVersion()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Não deve concluir de novo uma task já concluída")
+  void markAsDone_alreadyDone() {
+    Task task = new Task();
+    task.setTitle("Concluir");
+    task = taskRepository.save(task);
+    LocalDateTime first = LocalDateTime.of(2025, 10, 23, 17, 0);
+    taskRepository.markAsDone(task.getId(), first);
+
+    int updated = taskRepository.markAsDone(task.getId(), LocalDateTime.of(2025, 10, 24, 9, 0));
+
+    assertThat(updated).isZero();
+    assertThat(taskRepository.findById(task.getId()).get().getCompletedAt()).isEqualTo(first);
+  }
+
+  @Test
+  @DisplayName("Deve agregar as estatísticas por done e dia de conclusão")
+  void aggregateStats() {
+    LocalDateTime day = LocalDateTime.of(2025, 10, 20, 8, 0);
+    Task open = new Task();
+    open.setTitle("Aberta");
+    taskRepository.save(open);
+    for (int hours = 1; hours <= 2; hours++) {
+      Task done = new Task();
+      done.setTitle("Concluída " + hours);
+      done = taskRepository.save(done);
+      done.setCreatedAt(day);
+      done.setDone(true);
+      done.setCompletedAt(day.plusHours(hours));
+      taskRepository.save(done);
+    }
+
+    List<TaskStatsRow> rows = taskRepository.aggregateStats();
+
+    assertThat(rows).containsExactlyInAnyOrder(
+        new TaskStatsRow(false, null, 1L, 1L, null),
+        new TaskStatsRow(true, day.toLocalDate(), 2L, 2L, 3L * 3600));
+  }
+
+  @Test
+  @DisplayName("Deve concluir e deletar só na versão esperada")
+  void versionedUpdateAndDelete() {
+    Task task = new Task();
+    task.setTitle("Versionada");
+    task = taskRepository.save(task);
+    LocalDateTime completedAt = LocalDateTime.of(2025, 10, 23, 17, 0);
+
+    assertThat(taskRepository.markAsDone(task.getId(), 5L, completedAt)).isZero();
+    assertThat(taskRepository.markAsDone(task.getId(), 0L, completedAt)).isEqualTo(1);
+    assertThat(taskRepository.removeByIdAndVersion(task.getId(), 0L)).isZero();
+    assertThat(taskRepository.removeByIdAndVersion(task.getId(), 1L)).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Deve deletar em lote só os ids informados")
+  void deleteAllByIdIn_success() {
+    Task keep = new Task();
+    keep.setTitle("Manter");
+    keep = taskRepository.save(keep);
+    Task remove = new Task();
+    remove.setTitle("Remover");
+    remove = taskRepository.save(remove);
+
+    List<Task> locked = taskRepository.findByIdIn(List.of(remove.getId(), 999_999L));
+
+    assertThat(locked).extracting(Task::getId).containsExactly(remove.getId());
+    assertThat(taskRepository.deleteAllByIdIn(List.of(remove.getId()))).isEqualTo(1);
+    assertThat(taskRepository.findById(keep.getId())).isPresent();
+  }
+
+  @Test
+  @DisplayName("Deve filtrar por done, intervalo de conclusão e prefixo do título")
+  void findAllMatching_filters() {
+    LocalDateTime base = LocalDateTime.of(2025, 10, 20, 12, 0);
+    Task open = new Task();
+    open.setTitle("Comprar pão");
+    taskRepository.save(open);
+
+    Task doneInRange = new Task();
+    doneInRange.setTitle("Comprar leite");
+    doneInRange.setDone(true);
+    doneInRange.setCompletedAt(base);
+    taskRepository.save(doneInRange);
+
+    Task doneOutOfRange = new Task();
+    doneOutOfRange.setTitle("Comprar 100% café");
+    doneOutOfRange.setDone(true);
+    doneOutOfRange.setCompletedAt(base.plusDays(10));
+    taskRepository.save(doneOutOfRange);
+
+    List<Task> openTasks = taskRepository.findAll(
+        TaskSpecifications.matching(new TaskFilter(false, null, null, null, null, null)));
+    List<Task> completed = taskRepository.findAll(TaskSpecifications.matching(
+        new TaskFilter(true, null, null, base.minusDays(1), base.plusDays(1), "Comprar")), Sort.by("id"));
+    List<Task> literalPercent = taskRepository.findAll(
+        TaskSpecifications.matching(new TaskFilter(null, null, null, null, null, "Comprar 100%")));
+
+    assertThat(openTasks).extracting(Task::getTitle).containsExactly("Comprar pão");
+    assertThat(completed).extracting(Task::getTitle).containsExactly("Comprar leite");
+    assertThat(literalPercent).extracting(Task::getTitle).containsExactly("Comprar 100% café");
+  }
+
+  @Test
+  @DisplayName("Projeção traz só os campos pedidos (mais id e version) e não carrega entidades")
+  void findViews_onlySelectedFields() {
+    for (int i = 1; i <= 3; i++) {
+      Task task = new Task();
+      task.setTitle("View " + i);
+      task.setDescription("Descrição " + i);
+      task.setDone(i == 2);
+      taskRepository.save(task);
+    }
+    Task other = new Task();
+    other.setTitle("Outra");
+    taskRepository.save(other);
+    entityManager.flush();
+    entityManager.clear();
+    Long firstId = taskRepository.findAll(Sort.by("id")).get(0).getId();
+    entityManager.clear();
+
+    List<TaskView> views = taskRepository.findViews(new TaskFilter(null, null, null, null, null, "View"),
+        firstId, 10, EnumSet.of(TaskField.TITLE, TaskField.DONE));
+
+    assertThat(views).extracting(TaskView::title).containsExactly("View 2", "View 3");
+    assertThat(views).extracting(TaskView::done).containsExactly(true, false);
+    assertThat(views).allSatisfy(view -> {
+      assertThat(view.id()).isNotNull();
+      assertThat(view.version()).isZero();
+      assertThat(view.description()).isNull();
+      assertThat(view.createdAt()).isNull();
+    });
+    assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+  }
 }
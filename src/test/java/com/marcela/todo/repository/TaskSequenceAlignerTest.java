@@ -0,0 +1,57 @@
+package com.marcela.todo.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// banco como o MySQL de uma instalação anterior: ids de AUTO_INCREMENT e a tabela task_seq recém-criada
+class TaskSequenceAlignerTest {
+  private final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+      "jdbc:h2:mem:sequence-aligner;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+  private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+  @BeforeEach
+  void setup() {
+    jdbcTemplate.execute("drop all objects");
+    jdbcTemplate.execute("create table tasks (id bigint primary key)");
+    jdbcTemplate.execute("create table tasks_archive (id bigint primary key)");
+    jdbcTemplate.execute("create table task_seq (next_val bigint)");
+    jdbcTemplate.update("insert into task_seq values (1)");
+  }
+
+  private long nextVal() {
+    return jdbcTemplate.queryForObject("select next_val from task_seq", Long.class);
+  }
+
+  @Test
+  @DisplayName("Leva next_val para depois do maior id de tasks e tasks_archive")
+  void align_movesPastExistingIds() {
+    // Arrange
+    jdbcTemplate.update("insert into tasks values (7), (120)");
+    jdbcTemplate.update("insert into tasks_archive values (300)");
+
+    // Act
+    new TaskSequenceAligner(dataSource).align();
+
+    // Assert: o primeiro bloco reservado é [301, 350]
+    assertThat(nextVal()).isEqualTo(300 + TaskSequenceAligner.ALLOCATION_SIZE);
+  }
+
+  @Test
+  @DisplayName("Não volta next_val quando a sequence já está adiante")
+  void align_keepsSequenceAhead() {
+    // Arrange
+    jdbcTemplate.update("insert into tasks values (10)");
+    jdbcTemplate.update("update task_seq set next_val = 1000");
+
+    // Act
+    new TaskSequenceAligner(dataSource).align();
+
+    // Assert
+    assertThat(nextVal()).isEqualTo(1000);
+  }
+}
@@ -0,0 +1,152 @@
+package com.marcela.todo.search;
+
+import com.marcela.todo.event.TaskEvent;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSearchIndexTest {
+
+  @Mock
+  private TaskRepository taskRepository;
+
+  @Mock
+  private EntityManager entityManager;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private TaskSearchIndex index;
+
+  @BeforeEach
+  void setup() {
+    index = new TaskSearchIndex(taskRepository, entityManager, transactionManager);
+  }
+
+  private static Task task(Long id, String title, String description) {
+    Task task = new Task();
+    task.setId(id);
+    task.setTitle(title);
+    task.setDescription(description);
+    return task;
+  }
+
+  private static Task task(Long id, String title, long version) {
+    Task task = task(id, title, null);
+    task.setVersion(version);
+    return task;
+  }
+
+  @Test
+  @DisplayName("search - exige todos os termos e ignora acentos e maiúsculas")
+  void search_allTerms() {
+    index.onTaskEvent(TaskEvent.created(task(1L, "Estudar Spring", "Revisar testes unitários")));
+    index.onTaskEvent(TaskEvent.created(task(2L, "Estudar Java", "Streams")));
+
+    List<TaskSearchHit> hits = index.search("ESTUDAR unitarios", 10);
+
+    assertThat(hits).extracting(TaskSearchHit::id).containsExactly(1L);
+  }
+
+  @Test
+  @DisplayName("search - termo no título pesa mais que na descrição")
+  void search_ranking() {
+    index.onTaskEvent(TaskEvent.created(task(1L, "Comprar leite", "Levar a lista do spring")));
+    index.onTaskEvent(TaskEvent.created(task(2L, "Estudar Spring", null)));
+
+    List<TaskSearchHit> hits = index.search("spring", 10);
+
+    assertThat(hits).extracting(TaskSearchHit::id).containsExactly(2L, 1L);
+    assertThat(hits.get(0).title()).isEqualTo("Estudar Spring");
+  }
+
+  @Test
+  @DisplayName("search - termo terminado em * casa por prefixo")
+  void search_prefix() {
+    index.onTaskEvent(TaskEvent.created(task(1L, "Spring Boot", null)));
+    index.onTaskEvent(TaskEvent.created(task(2L, "Sprint review", null)));
+    index.onTaskEvent(TaskEvent.created(task(3L, "Springfield", null)));
+
+    assertThat(index.search("spri*", 10)).hasSize(3);
+    assertThat(index.search("spring*", 10)).extracting(TaskSearchHit::id).containsExactlyInAnyOrder(1L, 3L);
+    assertThat(index.search("spri", 10)).isEmpty();
+    assertThat(index.search("spri*", 2)).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("onTaskEvent - atualização troca os termos e deleção remove a task")
+  void onTaskEvent_updateAndDelete() {
+    index.onTaskEvent(TaskEvent.created(task(1L, "Comprar leite", null)));
+    index.onTaskEvent(TaskEvent.updated(task(1L, "Comprar ovos", 1), task(1L, "Comprar leite", 0)));
+
+    assertThat(index.search("leite", 10)).isEmpty();
+    assertThat(index.search("ovos", 10)).hasSize(1);
+
+    index.onTaskEvent(TaskEvent.deleted(task(1L, "Comprar ovos", 1)));
+
+    assertThat(index.search("ovos", 10)).isEmpty();
+    assertThat(index.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("onTaskEvent - evento atrasado com versão anterior não sobrescreve a indexada")
+  void onTaskEvent_outOfOrderUpdate() {
+    index.onTaskEvent(TaskEvent.created(task(1L, "Comprar leite", 0)));
+
+    // duas transações commitam v1 e v2, mas o evento da v2 chega primeiro
+    index.onTaskEvent(TaskEvent.updated(task(1L, "Comprar pão", 2), task(1L, "Comprar ovos", 1)));
+    index.onTaskEvent(TaskEvent.updated(task(1L, "Comprar ovos", 1), task(1L, "Comprar leite", 0)));
+
+    assertThat(index.search("pao", 10)).hasSize(1);
+    assertThat(index.search("ovos", 10)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("onTaskEvent - evento atrasado de uma task deletada não traz ela de volta")
+  void onTaskEvent_lateUpdateAfterDelete() {
+    index.onTaskEvent(TaskEvent.created(task(1L, "Comprar leite", 0)));
+
+    index.onTaskEvent(TaskEvent.deleted(task(1L, "Comprar ovos", 1)));
+    index.onTaskEvent(TaskEvent.updated(task(1L, "Comprar ovos", 1), task(1L, "Comprar leite", 0)));
+
+    assertThat(index.search("ovos", 10)).isEmpty();
+    assertThat(index.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("onTaskEvent - task arquivada sai do índice, como no rebuild")
+  void onTaskEvent_archived() {
+    Task task = task(1L, "Comprar leite", null);
+    index.onTaskEvent(TaskEvent.created(task));
+
+    index.onTaskEvent(TaskEvent.archived(task));
+
+    assertThat(index.search("leite", 10)).isEmpty();
+    assertThat(index.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("rebuild - carrega todas as tasks do banco")
+  void rebuild_loadsAll() {
+    when(taskRepository.streamAllByOrderByIdAsc())
+        .thenReturn(Stream.of(task(1L, "Estudar Spring", null), task(2L, "Comprar leite", null)));
+
+    index.rebuild();
+
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.search("leite", 10)).extracting(TaskSearchHit::id).containsExactly(2L);
+  }
+}
@@ -0,0 +1,75 @@
+package com.marcela.todo.service;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+  @Test
+  @DisplayName("Quem espera recebe a mesma exceção; terminada a execução, a chave executa de novo")
+  void failureIsSharedAndKeyIsReleased() throws Exception {
+    // Arrange
+    SingleFlight<String, String> flight = new SingleFlight<>();
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    try {
+      // Act
+      Future<String> leader = executor.submit(() -> flight.execute("k", () -> {
+        calls.incrementAndGet();
+        await(release);
+        throw new IllegalStateException("banco fora");
+      }));
+      while (flight.executed() == 0) {
+        Thread.sleep(1);
+      }
+      Future<String> waiter = executor.submit(() -> flight.execute("k", () -> "não executa"));
+      while (flight.coalesced() == 0) {
+        Thread.sleep(1);
+      }
+      release.countDown();
+
+      // Assert
+      assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+      assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("banco fora");
+      assertThat(flight.execute("k", () -> "de novo")).isEqualTo("de novo");
+      assertThat(calls).hasValue(1);
+      assertThat(flight.executed()).isEqualTo(2);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  @DisplayName("Chaves diferentes não se esperam")
+  void differentKeysRunSeparately() {
+    // Arrange
+    SingleFlight<Long, Long> flight = new SingleFlight<>();
+
+    // Act
+    long outer = flight.execute(1L, () -> flight.execute(2L, () -> 2L) + 1);
+
+    // Assert
+    assertThat(outer).isEqualTo(3L);
+    assertThat(flight.executed()).isEqualTo(2);
+    assertThat(flight.coalesced()).isZero();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
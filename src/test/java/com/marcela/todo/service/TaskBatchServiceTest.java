@@ -0,0 +1,96 @@
+package com.marcela.todo.service;
+
+import com.marcela.todo.model.Task;
+import com.marcela.todo.repository.TaskRepository;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@Import(TaskBatchService.class)
+@TestPropertySource(properties = "task.batch.chunk-size=2")
+class TaskBatchServiceTest {
+
+  @Autowired
+  private TaskBatchService taskBatchService;
+
+  @Autowired
+  private TaskRepository taskRepository;
+
+  private List<Task> newTasks(int count) {
+    List<Task> tasks = new ArrayList<>();
+    for (int i = 1; i <= count; i++) {
+      Task task = new Task();
+      task.setTitle("Task " + i);
+      tasks.add(task);
+    }
+    return tasks;
+  }
+
+  @Test
+  @DisplayName("createTasks - cria todas as tasks em blocos e preenche os ids")
+  void createTasks_success() {
+    List<Task> created = taskBatchService.createTasks(newTasks(5));
+
+    assertThat(created).allSatisfy(task -> {
+      assertThat(task.getId()).isNotNull();
+      assertThat(task.getCreatedAt()).isNotNull();
+    });
+    assertThat(taskRepository.count()).isEqualTo(5);
+  }
+
+  @Test
+  @DisplayName("updateTasks - atualiza as existentes e ignora ids inexistentes")
+  void updateTasks_success() {
+    List<Task> created = taskBatchService.createTasks(newTasks(3));
+
+    List<Task> changes = new ArrayList<>();
+    for (Task task : created) {
+      Task change = new Task();
+      change.setId(task.getId());
+      change.setTitle(task.getTitle() + " (editada)");
+      change.setDone(true);
+      changes.add(change);
+    }
+    Task missing = new Task();
+    missing.setId(999_999L);
+    missing.setTitle("Não existe");
+    changes.add(missing);
+
+    List<Task> updated = taskBatchService.updateTasks(changes);
+
+    assertThat(updated).hasSize(3);
+    assertThat(taskRepository.findAll()).allSatisfy(task -> {
+      assertThat(task.getTitle()).endsWith("(editada)");
+      assertThat(task.isDone()).isTrue();
+    });
+  }
+
+  @Test
+  @DisplayName("updateTasks - exige id em todos os itens")
+  void updateTasks_missingId() {
+    assertThrows(IllegalArgumentException.class, () -> taskBatchService.updateTasks(newTasks(1)));
+  }
+
+  @Test
+  @DisplayName("deleteTasks - deleta em blocos e devolve quantas existiam")
+  void deleteTasks_success() {
+    List<Long> ids = new ArrayList<>(taskBatchService.createTasks(newTasks(3)).stream()
+        .map(Task::getId)
+        .toList());
+    ids.add(999_999L);
+
+    int deleted = taskBatchService.deleteTasks(ids);
+
+    assertThat(deleted).isEqualTo(3);
+    assertThat(taskRepository.count()).isZero();
+  }
+}
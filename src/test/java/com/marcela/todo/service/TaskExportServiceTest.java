@@ -0,0 +1,88 @@
+package com.marcela.todo.service;
+
+import com.marcela.todo.model.Task;
+import com.marcela.todo.repository.TaskRepository;
+import com.marcela.todo.wire.TaskProtobuf;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(TaskExportService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@TestPropertySource(properties = "task.export.clear-every=2")
+class TaskExportServiceTest {
+
+  @Autowired
+  private TaskExportService taskExportService;
+
+  @Autowired
+  private TaskRepository taskRepository;
+
+  @BeforeEach
+  void setup() {
+    for (int i = 1; i <= 3; i++) {
+      Task task = new Task();
+      task.setTitle("Task " + i);
+      task.setDescription(i == 2 ? "com, vírgula" : "simples");
+      taskRepository.save(task);
+    }
+  }
+
+  @Test
+  @DisplayName("exportNdjson - escreve uma task por linha mesmo limpando a sessão no meio")
+  void exportNdjson_success() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    taskExportService.exportNdjson(out);
+
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertThat(lines).hasSize(3);
+    assertThat(lines[0]).contains("\"title\":\"Task 1\"");
+    assertThat(lines[2]).contains("\"title\":\"Task 3\"");
+  }
+
+  @Test
+  @DisplayName("exportCsv - escreve cabeçalho e escapa valores com vírgula")
+  void exportCsv_success() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    taskExportService.exportCsv(out);
+
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertThat(lines).hasSize(4);
+    assertThat(lines[0]).isEqualTo("id,title,description,done,createdAt,completedAt");
+    assertThat(lines[2]).contains(",Task 2,\"com, vírgula\",false,");
+  }
+
+  @Test
+  @DisplayName("exportProtobuf - escreve as tasks com o tamanho de cada uma na frente")
+  void exportProtobuf_success() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    taskExportService.exportProtobuf(out);
+
+    // mensagens pequenas: o tamanho cabe em um byte de varint
+    byte[] bytes = out.toByteArray();
+    List<String> titles = new ArrayList<>();
+    for (int position = 0; position < bytes.length; ) {
+      int length = bytes[position++];
+      titles.add(TaskProtobuf.decode(Arrays.copyOfRange(bytes, position, position + length)).getTitle());
+      position += length;
+    }
+    assertThat(titles).containsExactly("Task 1", "Task 2", "Task 3");
+  }
+}
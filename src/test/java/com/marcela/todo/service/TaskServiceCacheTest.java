@@ -0,0 +1,136 @@
+package com.marcela.todo.service;
+
+import com.marcela.todo.config.CacheConfig;
+import com.marcela.todo.event.TaskEvent;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.repository.TaskPersistence;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// testa só a camada de cache em volta do TaskService (repositório mockado)
+@SpringBootTest(classes = {TaskService.class, CacheConfig.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+class TaskServiceCacheTest {
+
+  @Autowired
+  private TaskService taskService;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  @MockBean
+  private TaskPersistence taskPersistence;
+
+  private Task task;
+
+  @BeforeEach
+  void setup() {
+    cacheManager.getCache(CacheConfig.TASKS_CACHE).clear();
+    task = new Task();
+    task.setId(1L);
+    task.setTitle("Estudar Spring");
+  }
+
+  @Test
+  @DisplayName("getTaskById - segunda leitura vem do cache")
+  void getTaskById_cached() {
+    when(taskPersistence.findById(1L)).thenReturn(Optional.of(task));
+
+    taskService.getTaskById(1L);
+    Optional<Task> result = taskService.getTaskById(1L);
+
+    assertEquals("Estudar Spring", result.get().getTitle());
+    verify(taskPersistence, times(1)).findById(1L);
+  }
+
+  @Test
+  @DisplayName("getTaskById - ids inexistentes não ficam no cache")
+  void getTaskById_missNotCached() {
+    when(taskPersistence.findById(2L)).thenReturn(Optional.empty());
+
+    taskService.getTaskById(2L);
+    taskService.getTaskById(2L);
+
+    verify(taskPersistence, times(2)).findById(2L);
+  }
+
+  @Test
+  @DisplayName("updateTask(id) - atualiza a entrada do cache")
+  void updateTask_refreshesCache() {
+    when(taskPersistence.findById(1L)).thenReturn(Optional.of(task));
+    taskService.getTaskById(1L);
+
+    Task saved = new Task();
+    saved.setId(1L);
+    saved.setTitle("Atualizada");
+    when(taskPersistence.save(any(Task.class))).thenReturn(saved);
+    Task changes = new Task();
+    changes.setTitle("Atualizada");
+    taskService.updateTask(1L, changes, null);
+
+    assertEquals("Atualizada", taskService.getTaskById(1L).get().getTitle());
+  }
+
+  @Test
+  @DisplayName("markTaskAsDone - atualiza a entrada do cache")
+  void markTaskAsDone_refreshesCache() {
+    when(taskPersistence.findById(1L)).thenReturn(Optional.of(task));
+    taskService.getTaskById(1L);
+
+    Task doneTask = new Task();
+    doneTask.setId(1L);
+    doneTask.setDone(true);
+    when(taskPersistence.markAsDone(eq(1L), any(LocalDateTime.class))).thenReturn(1);
+    when(taskPersistence.findById(1L)).thenReturn(Optional.of(doneTask));
+    taskService.markTaskAsDone(1L, null);
+
+    assertTrue(taskService.getTaskById(1L).get().isDone());
+  }
+
+  @Test
+  @DisplayName("deleteTask - remove a entrada do cache")
+  void deleteTask_evictsCache() {
+    when(taskPersistence.findById(1L)).thenReturn(Optional.of(task));
+    when(taskPersistence.removeByIdAndVersion(1L, 0L)).thenReturn(1);
+    taskService.getTaskById(1L);
+
+    taskService.deleteTask(1L, null);
+    when(taskPersistence.findById(1L)).thenReturn(Optional.empty());
+
+    assertTrue(taskService.getTaskById(1L).isEmpty());
+  }
+
+  @Test
+  @DisplayName("getTaskById - leitura que cruzou com uma alteração não vai para o cache")
+  void getTaskById_staleReadNotCached() {
+    Task updated = task.copy();
+    updated.setTitle("Atualizada");
+    when(taskPersistence.findById(1L))
+        .thenAnswer(invocation -> {
+          // a alteração é confirmada enquanto esta leitura está no banco
+          taskService.onTaskEvent(TaskEvent.updated(updated, task));
+          return Optional.of(task);
+        })
+        .thenReturn(Optional.of(updated));
+
+    taskService.getTaskById(1L);
+    Optional<Task> result = taskService.getTaskById(1L);
+
+    assertEquals("Atualizada", result.get().getTitle());
+    verify(taskPersistence, times(2)).findById(1L);
+  }
+}
@@ -1,7 +1,18 @@
 package com.marcela.todo.service;
 
+import com.marcela.todo.dto.TaskField;
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.dto.TaskView;
+import com.marcela.todo.dto.TaskViewPage;
+import com.marcela.todo.event.TaskEvent;
+import com.marcela.todo.model.ArchivedTask;
 import com.marcela.todo.model.Task;
-import com.marcela.todo.repository.TaskRepository;
+import com.marcela.todo.repository.ArchivedTaskRepository;
+import com.marcela.todo.repository.TaskPersistence;
+import com.marcela.todo.writebehind.TaskWriteBehind;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,10 +20,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -21,7 +44,31 @@ import static org.mockito.Mockito.*;
 class TaskServiceTest {
 
   @Mock
-  private TaskRepository taskRepository;
+  private TaskPersistence taskPersistence;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  // sem stub, getIfAvailable() devolve null: modo write-behind desligado
+  @Mock
+  private ObjectProvider<TaskWriteBehind> writeBehindProvider;
+
+  @Mock
+  private TaskWriteBehind writeBehind;
+
+  // sem stub, getIfAvailable() devolve null: sem tabela de arquivo
+  @Mock
+  private ObjectProvider<ArchivedTaskRepository> archivedTaskRepositoryProvider;
+
+  @Mock
+  private ArchivedTaskRepository archivedTaskRepository;
+
+  // sem stub: sem transação (como no perfil mmap) e sem métricas
+  @Mock
+  private ObjectProvider<PlatformTransactionManager> transactionManager;
+
+  @Mock
+  private ObjectProvider<MeterRegistry> meterRegistry;
 
   @InjectMocks
   private TaskService taskService;
@@ -42,7 +89,7 @@ class TaskServiceTest {
   @DisplayName("createTask - deve criar uma task com sucesso")
   void createTask_success() {
     // Arrange
-    when(taskRepository.save(any(Task.class))).thenReturn(task);
+    when(taskPersistence.save(any(Task.class))).thenReturn(task);
 
     // Act
     Task result = taskService.createTask(task);
@@ -50,30 +97,78 @@ class TaskServiceTest {
     // Assert
     assertNotNull(result);
     assertEquals("Estudar Spring", result.getTitle());
-    verify(taskRepository, times(1)).save(task);
+    verify(taskPersistence, times(1)).save(task);
+    verify(eventPublisher).publishEvent(TaskEvent.created(task));
   }
 
   // ------------------- READ (GET ALL / BY ID) -------------------
 
   @Test
-  @DisplayName("getAllTasks - deve retornar todas as tasks")
-  void getAllTasks_success() {
+  @DisplayName("findTaskViews - deve retornar todas as tasks")
+  void findTaskViews_success() {
     // Arrange
-    when(taskRepository.findAll()).thenReturn(List.of(task));
+    when(taskPersistence.findViews(TaskFilter.NONE, 0L, Integer.MAX_VALUE, TaskField.ALL))
+        .thenReturn(List.of(view(1L, TaskField.ALL)));
 
     // Act
-    List<Task> result = taskService.getAllTasks();
+    List<TaskView> result = taskService.findTaskViews(TaskFilter.NONE, false, TaskField.ALL);
 
     // Assert
     assertEquals(1, result.size());
-    verify(taskRepository).findAll();
+    verify(taskPersistence).findViews(TaskFilter.NONE, 0L, Integer.MAX_VALUE, TaskField.ALL);
+  }
+
+  @Test
+  @DisplayName("getTaskViewsPage - deve devolver cursor quando houver próxima página")
+  void getTaskViewsPage_hasNext() {
+    // Arrange
+    when(taskPersistence.findViews(TaskFilter.NONE, 0L, 2, TaskField.ALL))
+        .thenReturn(List.of(view(1L, TaskField.ALL), view(2L, TaskField.ALL)));
+
+    // Act
+    TaskViewPage page = taskService.getTaskViewsPage(TaskFilter.NONE, null, 1, false, TaskField.ALL);
+
+    // Assert
+    assertEquals(1, page.items().size());
+    assertNotNull(page.nextCursor());
+
+    // a próxima página começa depois do último id devolvido
+    when(taskPersistence.findViews(TaskFilter.NONE, 1L, 2, TaskField.ALL)).thenReturn(List.of(view(2L, TaskField.ALL)));
+    TaskViewPage next = taskService.getTaskViewsPage(TaskFilter.NONE, page.nextCursor(), 1, false, TaskField.ALL);
+    assertEquals(2L, next.items().get(0).id());
+    assertNull(next.nextCursor());
+  }
+
+  @Test
+  @DisplayName("getTaskViewsPage - repassa o filtro para a consulta")
+  void getTaskViewsPage_filtered() {
+    // Arrange
+    TaskFilter filter = new TaskFilter(true, null, null, null, null, null);
+    when(taskPersistence.findViews(filter, 0L, 11, TaskField.ALL)).thenReturn(List.of(view(1L, TaskField.ALL)));
+
+    // Act
+    TaskViewPage page = taskService.getTaskViewsPage(filter, null, 10, false, TaskField.ALL);
+
+    // Assert
+    assertEquals(1, page.items().size());
+    assertNull(page.nextCursor());
+  }
+
+  @Test
+  @DisplayName("getTaskViewsPage - deve rejeitar cursor e limit inválidos")
+  void getTaskViewsPage_invalid() {
+    assertThrows(IllegalArgumentException.class,
+        () -> taskService.getTaskViewsPage(TaskFilter.NONE, "nao-e-cursor", 10, false, TaskField.ALL));
+    assertThrows(IllegalArgumentException.class,
+        () -> taskService.getTaskViewsPage(TaskFilter.NONE, null, 0, false, TaskField.ALL));
+    verifyNoInteractions(taskPersistence);
   }
 
   @Test
   @DisplayName("getTaskById - deve retornar task quando existir")
   void getTaskById_found() {
     // Arrange
-    when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+    when(taskPersistence.findById(1L)).thenReturn(Optional.of(task));
 
     // Act
     Optional<Task> result = taskService.getTaskById(1L);
@@ -81,38 +176,70 @@ class TaskServiceTest {
     // Assert
     assertTrue(result.isPresent());
     assertEquals("Estudar Spring", result.get().getTitle());
-    verify(taskRepository).findById(1L);
+    verify(taskPersistence).findById(1L);
   }
 
   @Test
   @DisplayName("getTaskById - deve retornar Optional.empty() quando não existir")
   void getTaskById_notFound() {
     // Arrange
-    when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+    when(taskPersistence.findById(1L)).thenReturn(Optional.empty());
 
     // Act
     Optional<Task> result = taskService.getTaskById(1L);
 
     // Assert
     assertTrue(result.isEmpty());
-    verify(taskRepository).findById(1L);
+    verify(taskPersistence).findById(1L);
   }
 
   // ------------------- UPDATE -------------------
 
   @Test
-  @DisplayName("updateTask - deve atualizar e retornar a task")
-  void updateTask_success() {
+  @DisplayName("updateTask(id) - copia os campos editáveis para a task do banco")
+  void updateTaskById_success() {
+    // Arrange
+    Task changes = new Task();
+    changes.setTitle("Novo título");
+    changes.setDone(true);
+    when(taskPersistence.findById(1L)).thenReturn(Optional.of(task));
+    when(taskPersistence.save(task)).thenReturn(task);
+
+    // Act
+    Optional<Task> result = taskService.updateTask(1L, changes, null);
+
+    // Assert
+    assertTrue(result.isPresent());
+    assertEquals("Novo título", result.get().getTitle());
+    assertNull(result.get().getDescription());
+    assertTrue(result.get().isDone());
+  }
+
+  @Test
+  @DisplayName("updateTask(id) - deve retornar Optional.empty() se ID não existir")
+  void updateTaskById_notFound() {
     // Arrange
-    task.setTitle("Atualizado");
-    when(taskRepository.save(any(Task.class))).thenReturn(task);
+    when(taskPersistence.findById(1L)).thenReturn(Optional.empty());
 
     // Act
-    Task updated = taskService.updateTask(task);
+    Optional<Task> result = taskService.updateTask(1L, task, null);
 
     // Assert
-    assertEquals("Atualizado", updated.getTitle());
-    verify(taskRepository).save(task);
+    assertTrue(result.isEmpty());
+    verify(taskPersistence, never()).save(any(Task.class));
+  }
+
+  @Test
+  @DisplayName("updateTask(id) - deve lançar conflito se a versão esperada estiver desatualizada")
+  void updateTaskById_versionConflict() {
+    // Arrange
+    task.setVersion(3);
+    when(taskPersistence.findById(1L)).thenReturn(Optional.of(task));
+
+    // Act + Assert
+    assertThrows(OptimisticLockingFailureException.class, () -> taskService.updateTask(1L, new Task(), 2L));
+    verify(taskPersistence, never()).save(any(Task.class));
+    verifyNoInteractions(eventPublisher);
   }
 
   // ------------------- MARK AS DONE -------------------
@@ -121,62 +248,405 @@ class TaskServiceTest {
   @DisplayName("markTaskAsDone - deve marcar como concluída quando existir")
   void markTaskAsDone_found() {
     // Arrange
-    when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
-    when(taskRepository.save(any(Task.class))).thenReturn(task);
+    Task doneTask = new Task();
+    doneTask.setId(1L);
+    doneTask.setDone(true);
+    doneTask.setCompletedAt(LocalDateTime.now());
+    when(taskPersistence.markAsDone(eq(1L), any(LocalDateTime.class))).thenReturn(1);
+    when(taskPersistence.findById(1L)).thenReturn(Optional.of(doneTask));
 
     // Act
-    Optional<Task> result = taskService.markTaskAsDone(1L);
+    Optional<Task> result = taskService.markTaskAsDone(1L, null);
 
     // Assert
     assertTrue(result.isPresent());
     assertTrue(result.get().isDone());
     assertNotNull(result.get().getCompletedAt());
-    verify(taskRepository).findById(1L);
-    verify(taskRepository).save(task);
+    verify(taskPersistence).markAsDone(eq(1L), any(LocalDateTime.class));
+    verify(taskPersistence, never()).save(any(Task.class));
   }
 
   @Test
   @DisplayName("markTaskAsDone - deve retornar Optional.empty() se ID não existir")
   void markTaskAsDone_notFound() {
     // Arrange
-    when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+    when(taskPersistence.markAsDone(eq(1L), any(LocalDateTime.class))).thenReturn(0);
+    when(taskPersistence.findById(1L)).thenReturn(Optional.empty());
 
     // Act
-    Optional<Task> result = taskService.markTaskAsDone(1L);
+    Optional<Task> result = taskService.markTaskAsDone(1L, null);
 
     // Assert
     assertTrue(result.isEmpty());
-    verify(taskRepository).findById(1L);
-    verify(taskRepository, never()).save(any(Task.class));
+    verifyNoInteractions(eventPublisher);
+  }
+
+  @Test
+  @DisplayName("markTaskAsDone - task já concluída volta como está, sem evento")
+  void markTaskAsDone_alreadyDone() {
+    // Arrange: o UPDATE só pega tasks abertas
+    task.setDone(true);
+    task.setCompletedAt(LocalDateTime.of(2025, 10, 20, 9, 0));
+    when(taskPersistence.markAsDone(eq(1L), any(LocalDateTime.class))).thenReturn(0);
+    when(taskPersistence.findById(1L)).thenReturn(Optional.of(task));
+
+    // Act
+    Optional<Task> result = taskService.markTaskAsDone(1L, null);
+
+    // Assert
+    assertEquals(LocalDateTime.of(2025, 10, 20, 9, 0), result.get().getCompletedAt());
+    verifyNoInteractions(eventPublisher);
+  }
+
+  @Test
+  @DisplayName("markTaskAsDone - deve lançar conflito se a task existir em outra versão")
+  void markTaskAsDone_versionConflict() {
+    // Arrange
+    when(taskPersistence.markAsDone(eq(1L), eq(2L), any(LocalDateTime.class))).thenReturn(0);
+    when(taskPersistence.findById(1L)).thenReturn(Optional.of(task));
+
+    // Act + Assert
+    assertThrows(OptimisticLockingFailureException.class, () -> taskService.markTaskAsDone(1L, 2L));
+    verifyNoInteractions(eventPublisher);
   }
 
   // ------------------- DELETE -------------------
 
   @Test
-  @DisplayName("deleteTask - deve deletar e retornar true se task existir")
+  @DisplayName("deleteTask - deve deletar na versão lida e publicar o estado anterior")
   void deleteTask_exists() {
     // Arrange
-    when(taskRepository.existsById(1L)).thenReturn(true);
+    when(taskPersistence.findById(1L)).thenReturn(Optional.of(task));
+    when(taskPersistence.removeByIdAndVersion(1L, 0L)).thenReturn(1);
+
+    // Act
+    boolean result = taskService.deleteTask(1L, null);
+
+    // Assert
+    assertTrue(result);
+    verify(eventPublisher).publishEvent(argThat((TaskEvent event) ->
+        event.type() == TaskEvent.Type.DELETED && event.previous().getTitle().equals(task.getTitle())));
+  }
+
+  @Test
+  @DisplayName("deleteTask - sem If-Match tenta de novo se a task mudar entre o SELECT e o DELETE")
+  void deleteTask_concurrentChange() {
+    // Arrange
+    Task changed = task.copy();
+    changed.setVersion(1);
+    when(taskPersistence.findById(1L)).thenReturn(Optional.of(task)).thenReturn(Optional.of(changed));
+    when(taskPersistence.removeByIdAndVersion(1L, 0L)).thenReturn(0);
+    when(taskPersistence.removeByIdAndVersion(1L, 1L)).thenReturn(1);
 
     // Act
-    boolean result = taskService.deleteTask(1L);
+    boolean result = taskService.deleteTask(1L, null);
 
     // Assert
     assertTrue(result);
-    verify(taskRepository).deleteById(1L);
+    verify(taskPersistence).removeByIdAndVersion(1L, 1L);
   }
 
   @Test
   @DisplayName("deleteTask - deve retornar false se task não existir")
   void deleteTask_notExists() {
     // Arrange
-    when(taskRepository.existsById(1L)).thenReturn(false);
+    when(taskPersistence.findById(1L)).thenReturn(Optional.empty());
+
+    // Act
+    boolean result = taskService.deleteTask(1L, null);
+
+    // Assert
+    assertFalse(result);
+    verifyNoInteractions(eventPublisher);
+  }
+
+  @Test
+  @DisplayName("deleteTask - com versão esperada, deve retornar false se task não existir")
+  void deleteTask_withVersionNotExists() {
+    // Arrange
+    when(taskPersistence.findById(1L)).thenReturn(Optional.empty());
 
     // Act
-    boolean result = taskService.deleteTask(1L);
+    boolean result = taskService.deleteTask(1L, 2L);
 
     // Assert
     assertFalse(result);
-    verify(taskRepository, never()).deleteById(any());
+    verify(taskPersistence, never()).removeByIdAndVersion(any(), anyLong());
+  }
+
+  // ------------------- WRITE-BEHIND -------------------
+
+  private TaskService writeBehindService() {
+    when(writeBehindProvider.getIfAvailable()).thenReturn(writeBehind);
+    return new TaskService(taskPersistence, eventPublisher, writeBehindProvider, archivedTaskRepositoryProvider,
+        transactionManager, meterRegistry);
+  }
+
+  @Test
+  @DisplayName("write-behind - createTask grava no log e não no repositório")
+  void writeBehind_createTask() {
+    // Arrange
+    TaskService service = writeBehindService();
+    when(writeBehind.create(task)).thenReturn(task);
+
+    // Act
+    Task created = service.createTask(task);
+
+    // Assert
+    assertSame(task, created);
+    verify(taskPersistence, never()).save(any(Task.class));
+    verify(eventPublisher).publishEvent(TaskEvent.created(task));
+  }
+
+  @Test
+  @DisplayName("write-behind - getTaskById devolve a escrita pendente antes de ir ao banco")
+  void writeBehind_getTaskByIdSeesPending() {
+    // Arrange
+    TaskService service = writeBehindService();
+    when(writeBehind.pending(1L)).thenReturn(Optional.of(task));
+
+    // Act
+    Optional<Task> result = service.getTaskById(1L);
+
+    // Assert
+    assertEquals(Optional.of(task), result);
+    verify(taskPersistence, never()).findById(any());
+  }
+
+  @Test
+  @DisplayName("write-behind - markTaskAsDone sem If-Match não executa UPDATE")
+  void writeBehind_markTaskAsDone() {
+    // Arrange
+    TaskService service = writeBehindService();
+    Task doneTask = new Task();
+    doneTask.setId(1L);
+    doneTask.setDone(true);
+    when(writeBehind.pending(1L)).thenReturn(Optional.empty());
+    when(taskPersistence.findById(1L)).thenReturn(Optional.of(task));
+    when(writeBehind.markDone(eq(task), any(LocalDateTime.class))).thenReturn(doneTask);
+
+    // Act
+    Optional<Task> result = service.markTaskAsDone(1L, null);
+
+    // Assert
+    assertTrue(result.get().isDone());
+    verify(taskPersistence, never()).markAsDone(any(), any());
+  }
+
+  @Test
+  @DisplayName("write-behind - deleteTask espera as escritas pendentes da task")
+  void writeBehind_deleteAwaitsPending() {
+    // Arrange
+    TaskService service = writeBehindService();
+    when(taskPersistence.findById(1L)).thenReturn(Optional.of(task));
+    when(taskPersistence.removeByIdAndVersion(1L, 0L)).thenReturn(1);
+
+    // Act
+    service.deleteTask(1L, null);
+
+    // Assert
+    var inOrder = inOrder(writeBehind, taskPersistence);
+    inOrder.verify(writeBehind).awaitFlushed(1L);
+    inOrder.verify(taskPersistence).removeByIdAndVersion(1L, 0L);
+  }
+
+  // ------------------- ARQUIVO -------------------
+
+  private TaskService archiveService() {
+    when(archivedTaskRepositoryProvider.getIfAvailable()).thenReturn(archivedTaskRepository);
+    return new TaskService(taskPersistence, eventPublisher, writeBehindProvider, archivedTaskRepositoryProvider,
+        transactionManager, meterRegistry);
+  }
+
+  private ArchivedTask archived(Long id) {
+    Task done = new Task();
+    done.setId(id);
+    done.setTitle("Arquivada " + id);
+    done.setDone(true);
+    done.setCompletedAt(LocalDateTime.of(2025, 1, 10, 9, 0));
+    return ArchivedTask.of(done, LocalDateTime.of(2025, 6, 1, 3, 0));
+  }
+
+  @Test
+  @DisplayName("arquivo - getTaskById procura em tasks_archive quando não acha na tabela tasks")
+  void archive_getTaskByIdFallback() {
+    // Arrange
+    TaskService service = archiveService();
+    when(taskPersistence.findById(7L)).thenReturn(Optional.empty());
+    when(archivedTaskRepository.findById(7L)).thenReturn(Optional.of(archived(7L)));
+
+    // Act
+    Optional<Task> result = service.getTaskById(7L);
+
+    // Assert
+    assertEquals("Arquivada 7", result.get().getTitle());
+    assertTrue(result.get().isDone());
+  }
+
+  @Test
+  @DisplayName("arquivo - updateTask(id) em task arquivada é recusado")
+  void archive_updateRejected() {
+    // Arrange
+    TaskService service = archiveService();
+    when(taskPersistence.findById(7L)).thenReturn(Optional.empty());
+    when(archivedTaskRepository.findById(7L)).thenReturn(Optional.of(archived(7L)));
+
+    // Act + Assert
+    assertThrows(TaskArchivedException.class, () -> service.updateTask(7L, task, null));
+    verify(taskPersistence, never()).save(any());
+  }
+
+  @Test
+  @DisplayName("arquivo - markTaskAsDone em task arquivada devolve ela como está")
+  void archive_markDoneReturnsArchived() {
+    // Arrange
+    TaskService service = archiveService();
+    when(taskPersistence.markAsDone(eq(7L), any(LocalDateTime.class))).thenReturn(0);
+    when(taskPersistence.findById(7L)).thenReturn(Optional.empty());
+    when(archivedTaskRepository.findById(7L)).thenReturn(Optional.of(archived(7L)));
+
+    // Act
+    Optional<Task> result = service.markTaskAsDone(7L, null);
+
+    // Assert
+    assertEquals(LocalDateTime.of(2025, 1, 10, 9, 0), result.get().getCompletedAt());
+    verifyNoInteractions(eventPublisher);
+  }
+
+  @Test
+  @DisplayName("arquivo - deleteTask apaga de tasks_archive e publica o estado anterior")
+  void archive_delete() {
+    // Arrange
+    TaskService service = archiveService();
+    when(taskPersistence.findById(7L)).thenReturn(Optional.empty());
+    when(archivedTaskRepository.findById(7L)).thenReturn(Optional.of(archived(7L)));
+    when(archivedTaskRepository.removeById(7L)).thenReturn(1);
+
+    // Act
+    boolean result = service.deleteTask(7L, null);
+
+    // Assert
+    assertTrue(result);
+    verify(eventPublisher).publishEvent(any(TaskEvent.class));
+  }
+
+  @Test
+  @DisplayName("arquivo - findTaskViews com includeArchived intercala as duas tabelas pelo id")
+  void archive_listIncludesArchived() {
+    // Arrange
+    TaskService service = archiveService();
+    when(taskPersistence.findViews(TaskFilter.NONE, 0L, Integer.MAX_VALUE, TaskField.ALL))
+        .thenReturn(List.of(view(2L, TaskField.ALL), view(5L, TaskField.ALL)));
+    when(archivedTaskRepository.findViews(TaskFilter.NONE, 0L, Integer.MAX_VALUE, TaskField.ALL))
+        .thenReturn(List.of(view(1L, TaskField.ALL), view(3L, TaskField.ALL)));
+
+    // Act
+    List<TaskView> result = service.findTaskViews(TaskFilter.NONE, true, TaskField.ALL);
+
+    // Assert
+    assertEquals(List.of(1L, 2L, 3L, 5L), result.stream().map(TaskView::id).toList());
+  }
+
+  @Test
+  @DisplayName("arquivo - getTaskViewsPage com includeArchived intercala as projeções das duas tabelas")
+  void archive_viewsPageIncludesArchived() {
+    // Arrange
+    TaskService service = archiveService();
+    Set<TaskField> fields = EnumSet.of(TaskField.TITLE);
+    when(taskPersistence.findViews(TaskFilter.NONE, 0L, 3, fields))
+        .thenReturn(List.of(view(2L, fields), view(5L, fields)));
+    when(archivedTaskRepository.findViews(TaskFilter.NONE, 0L, 3, fields))
+        .thenReturn(List.of(view(1L, fields), view(3L, fields)));
+
+    // Act
+    TaskViewPage page = service.getTaskViewsPage(TaskFilter.NONE, null, 2, true, fields);
+
+    // Assert
+    assertEquals(List.of(1L, 2L), page.items().stream().map(TaskView::id).toList());
+    assertEquals(TaskCursor.encode(2L), page.nextCursor());
+  }
+
+  private static TaskView view(Long id, Set<TaskField> fields) {
+    return new TaskView(id, "Task " + id, null, null, null, null, 0L, fields);
+  }
+
+  // ------------------- COALESCÊNCIA -------------------
+
+  @Test
+  @DisplayName("getTaskById - chamadas simultâneas para o mesmo id fazem uma consulta só")
+  void getTaskById_concurrentCallsShareQuery() throws Exception {
+    // Arrange
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    when(meterRegistry.getIfAvailable()).thenReturn(registry);
+    TaskService service = new TaskService(taskPersistence, eventPublisher, writeBehindProvider,
+        archivedTaskRepositoryProvider, transactionManager, meterRegistry);
+    CountDownLatch release = new CountDownLatch(1);
+    when(taskPersistence.findById(1L)).thenAnswer(invocation -> {
+      release.await();
+      return Optional.of(task);
+    });
+    int callers = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+    try {
+      // Act
+      List<Future<Optional<Task>>> results = new ArrayList<>();
+      for (int i = 0; i < callers; i++) {
+        results.add(executor.submit(() -> service.getTaskById(1L)));
+      }
+      FunctionCounter coalesced = registry.get("task.coalescing.calls")
+          .tags("query", "task", "result", "coalesced").functionCounter();
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (coalesced.count() < callers - 1 && System.nanoTime() < deadline) {
+        Thread.sleep(5);
+      }
+      release.countDown();
+
+      // Assert
+      for (Future<Optional<Task>> result : results) {
+        assertSame(task, result.get(5, TimeUnit.SECONDS).get());
+      }
+      verify(taskPersistence, times(1)).findById(1L);
+      assertEquals(callers - 1, coalesced.count());
+      assertEquals(1, registry.get("task.coalescing.calls")
+          .tags("query", "task", "result", "executed").functionCounter().count());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  @DisplayName("getTaskById - leitura que começa depois de uma alteração não se junta à consulta anterior")
+  void getTaskById_writeStartsNewQuery() throws Exception {
+    // Arrange: a primeira leitura fica presa no banco com o estado antigo
+    Task updated = task.copy();
+    updated.setTitle("Alterada");
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(taskPersistence.findById(1L))
+        .thenAnswer(invocation -> {
+          started.countDown();
+          release.await();
+          return Optional.of(task);
+        })
+        .thenReturn(Optional.of(updated));
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    try {
+      Future<Optional<Task>> before = executor.submit(() -> taskService.getTaskById(1L));
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+
+      // Act: a alteração é confirmada e só então chega a segunda leitura
+      taskService.onTaskEvent(TaskEvent.updated(updated, task));
+      Optional<Task> after = taskService.getTaskById(1L);
+      release.countDown();
+
+      // Assert
+      assertEquals("Alterada", after.get().getTitle());
+      assertEquals("Estudar Spring", before.get(5, TimeUnit.SECONDS).get().getTitle());
+      verify(taskPersistence, times(2)).findById(1L);
+    } finally {
+      executor.shutdownNow();
+    }
   }
 }
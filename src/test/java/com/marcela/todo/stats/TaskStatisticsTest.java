@@ -0,0 +1,157 @@
+package com.marcela.todo.stats;
+
+import com.marcela.todo.dto.TaskStats;
+import com.marcela.todo.event.TaskEvent;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.repository.ArchivedTaskRepository;
+import com.marcela.todo.repository.TaskPersistence;
+import com.marcela.todo.repository.TaskStatsRow;
+import com.marcela.todo.writebehind.TaskWriteBehind;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskStatisticsTest {
+
+  @Mock
+  private TaskPersistence taskPersistence;
+
+  @Mock
+  private ArchivedTaskRepository archivedTaskRepository;
+
+  // sem stub, getIfAvailable() devolve null: sem tabela de arquivo
+  @Mock
+  private ObjectProvider<ArchivedTaskRepository> archivedTaskRepositoryProvider;
+
+  @Mock
+  private ObjectProvider<TaskWriteBehind> writeBehind;
+
+  private TaskStatistics statistics;
+
+  private final LocalDate today = LocalDate.now();
+
+  @BeforeEach
+  void setup() {
+    statistics = new TaskStatistics(taskPersistence, archivedTaskRepositoryProvider, writeBehind);
+  }
+
+  private static Task task(Long id, LocalDateTime createdAt) {
+    Task task = new Task();
+    task.setId(id);
+    task.setTitle("Task " + id);
+    task.setCreatedAt(createdAt);
+    return task;
+  }
+
+  @Test
+  @DisplayName("Deve carregar os contadores a partir da consulta agregada")
+  void seed() {
+    // Arrange
+    when(taskPersistence.aggregateStats()).thenReturn(List.of(
+        new TaskStatsRow(false, null, 3L, 3L, null),
+        new TaskStatsRow(true, today, 2L, 2L, 600L),
+        new TaskStatsRow(true, today.minusDays(40), 1L, 0L, null)));
+
+    // Act
+    statistics.seed();
+    TaskStats stats = statistics.snapshot(30);
+
+    // Assert
+    assertThat(stats.total()).isEqualTo(6);
+    assertThat(stats.open()).isEqualTo(3);
+    assertThat(stats.done()).isEqualTo(3);
+    assertThat(stats.averageSecondsToComplete()).isEqualTo(300.0);
+    assertThat(stats.completionsPerDay()).containsExactly(Map.entry(today, 2L));
+  }
+
+  @Test
+  @DisplayName("Deve atualizar os contadores a cada evento sem consultar o banco de novo")
+  void onTaskEvent() {
+    // Arrange
+    when(taskPersistence.aggregateStats()).thenReturn(List.of());
+    statistics.seed();
+    LocalDateTime start = today.atTime(8, 0);
+    Task first = task(1L, start);
+    Task second = task(2L, start);
+
+    // Act
+    statistics.onTaskEvent(TaskEvent.created(first));
+    statistics.onTaskEvent(TaskEvent.created(second));
+    Task firstDone = first.copy();
+    firstDone.setDone(true);
+    firstDone.setCompletedAt(start.plusMinutes(10));
+    statistics.onTaskEvent(TaskEvent.done(firstDone));
+    Task secondDone = second.copy();
+    secondDone.setDone(true);
+    secondDone.setCompletedAt(start.plusMinutes(30));
+    statistics.onTaskEvent(TaskEvent.updated(secondDone, second));
+    statistics.onTaskEvent(TaskEvent.deleted(firstDone));
+    TaskStats stats = statistics.snapshot(1);
+
+    // Assert
+    assertThat(stats.total()).isEqualTo(1);
+    assertThat(stats.open()).isZero();
+    assertThat(stats.done()).isEqualTo(1);
+    assertThat(stats.averageSecondsToComplete()).isEqualTo(1800.0);
+    assertThat(stats.completionsPerDay()).containsExactly(Map.entry(today, 1L));
+  }
+
+  @Test
+  @DisplayName("Dia sem conclusões some do mapa quando a última é reaberta")
+  void onTaskEvent_reopened() {
+    // Arrange
+    when(taskPersistence.aggregateStats()).thenReturn(List.of(new TaskStatsRow(true, today, 1L, 1L, 60L)));
+    statistics.seed();
+    Task done = task(1L, today.atTime(8, 0));
+    done.setDone(true);
+    done.setCompletedAt(today.atTime(8, 1));
+    Task reopened = done.copy();
+    reopened.setDone(false);
+    reopened.setCompletedAt(null);
+
+    // Act
+    statistics.onTaskEvent(TaskEvent.updated(reopened, done));
+    TaskStats stats = statistics.snapshot(30);
+
+    // Assert
+    assertThat(stats.open()).isEqualTo(1);
+    assertThat(stats.done()).isZero();
+    assertThat(stats.averageSecondsToComplete()).isNull();
+    assertThat(stats.completionsPerDay()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Deve somar as tasks arquivadas e não mudar nada ao arquivar")
+  void seed_withArchive() {
+    // Arrange
+    when(archivedTaskRepositoryProvider.getIfAvailable()).thenReturn(archivedTaskRepository);
+    statistics = new TaskStatistics(taskPersistence, archivedTaskRepositoryProvider, writeBehind);
+    when(taskPersistence.aggregateStats()).thenReturn(List.of(new TaskStatsRow(true, today, 1L, 1L, 60L)));
+    when(archivedTaskRepository.aggregateStats()).thenReturn(List.of(new TaskStatsRow(true, today, 1L, 1L, 180L)));
+    Task archived = task(1L, today.atTime(8, 0));
+    archived.setDone(true);
+    archived.setCompletedAt(today.atTime(8, 3));
+
+    // Act
+    statistics.seed();
+    statistics.onTaskEvent(TaskEvent.archived(archived));
+    TaskStats stats = statistics.snapshot(30);
+
+    // Assert
+    assertThat(stats.done()).isEqualTo(2);
+    assertThat(stats.averageSecondsToComplete()).isEqualTo(120.0);
+    assertThat(stats.completionsPerDay()).containsExactly(Map.entry(today, 2L));
+  }
+}
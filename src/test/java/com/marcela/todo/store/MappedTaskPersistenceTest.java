@@ -0,0 +1,94 @@
+package com.marcela.todo.store;
+
+import com.marcela.todo.dto.TaskField;
+import com.marcela.todo.dto.TaskFilter;
+import com.marcela.todo.dto.TaskView;
+import com.marcela.todo.model.Task;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedTaskPersistenceTest {
+
+  @TempDir
+  Path directory;
+
+  private MappedTaskPersistence persistence;
+
+  @BeforeEach
+  void setup() {
+    persistence = new MappedTaskPersistence(directory.resolve("tasks.dat"), false);
+  }
+
+  @AfterEach
+  void cleanup() {
+    persistence.close();
+  }
+
+  // mais tasks que uma página de leitura do arquivo, para a listagem filtrada precisar de várias
+  private void seed(int size) {
+    for (int i = 1; i <= size; i++) {
+      Task task = new Task();
+      task.setTitle((i % 2 == 0 ? "Par " : "Ímpar ") + i);
+      persistence.save(task);
+      if (i % 3 == 0) {
+        persistence.markAsDone(task.getId(), LocalDateTime.of(2025, 10, 23, 17, 0));
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("findViews - com filtro percorre o arquivo e devolve só as que atendem, em ordem de id")
+  void findViews_filtered() {
+    // Arrange
+    seed(2500);
+    TaskFilter filter = new TaskFilter(true, null, null, null, null, "Par");
+
+    // Act
+    List<TaskView> all = persistence.findViews(filter, 0L, Integer.MAX_VALUE, TaskField.ALL);
+
+    // Assert: concluídas (múltiplos de 3) e pares = múltiplos de 6
+    assertThat(all).hasSize(2500 / 6);
+    assertThat(all).allSatisfy(view -> assertThat(view.id() % 6).isZero());
+    assertThat(all.get(0).id()).isEqualTo(6L);
+  }
+
+  @Test
+  @DisplayName("findViews - com filtro respeita o keyset e o limit")
+  void findViews_filteredPage() {
+    // Arrange
+    seed(2500);
+    TaskFilter filter = new TaskFilter(true, null, null, null, null, null);
+
+    // Act
+    List<TaskView> page = persistence.findViews(filter, 1500L, 3, TaskField.ALL);
+
+    // Assert
+    assertThat(page).extracting(TaskView::id).containsExactly(1503L, 1506L, 1509L);
+  }
+
+  @Test
+  @DisplayName("findViews - intervalo de datas é fechado no início e aberto no fim")
+  void findViews_dateRange() {
+    // Arrange
+    seed(6);
+    LocalDateTime completedAt = LocalDateTime.of(2025, 10, 23, 17, 0);
+
+    // Act
+    List<TaskView> from = persistence.findViews(new TaskFilter(null, null, null, completedAt, null, null),
+        0L, Integer.MAX_VALUE, TaskField.ALL);
+    List<TaskView> to = persistence.findViews(new TaskFilter(null, null, null, null, completedAt, null),
+        0L, Integer.MAX_VALUE, TaskField.ALL);
+
+    // Assert: tasks abertas (sem completedAt) ficam fora dos dois
+    assertThat(from).extracting(TaskView::id).containsExactly(3L, 6L);
+    assertThat(to).isEmpty();
+  }
+}
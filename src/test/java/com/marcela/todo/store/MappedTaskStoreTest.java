@@ -0,0 +1,175 @@
+package com.marcela.todo.store;
+
+import com.marcela.todo.model.Task;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedTaskStoreTest {
+
+  @TempDir
+  Path directory;
+
+  private Path file() {
+    return directory.resolve("tasks.dat");
+  }
+
+  private static Task newTask(String title) {
+    Task task = new Task();
+    task.setTitle(title);
+    return task;
+  }
+
+  @Test
+  @DisplayName("Deve criar com id sequencial, versão 0 e createdAt preenchido")
+  void save_create() {
+    try (MappedTaskStore store = new MappedTaskStore(file(), false)) {
+      Task first = store.save(newTask("Primeira"));
+      Task second = store.save(newTask("Segunda"));
+
+      assertThat(first.getId()).isEqualTo(1L);
+      assertThat(second.getId()).isEqualTo(2L);
+      assertThat(first.getVersion()).isZero();
+      assertThat(first.getCreatedAt()).isNotNull();
+      assertThat(store.find(2L)).get().extracting(Task::getTitle).isEqualTo("Segunda");
+    }
+  }
+
+  @Test
+  @DisplayName("Deve atualizar incrementando a versão e recusar versão antiga")
+  void save_updateChecksVersion() {
+    try (MappedTaskStore store = new MappedTaskStore(file(), false)) {
+      Task task = store.save(newTask("Original"));
+
+      task.setTitle("Alterada");
+      Task updated = store.save(task);
+
+      assertThat(updated.getVersion()).isEqualTo(1);
+      assertThat(store.find(task.getId())).get().extracting(Task::getTitle).isEqualTo("Alterada");
+      assertThrows(OptimisticLockingFailureException.class, () -> store.save(task));
+    }
+  }
+
+  @Test
+  @DisplayName("Deve reconstruir o índice ao reabrir, sem reaproveitar ids deletados")
+  void open_rebuildsIndex() {
+    LocalDateTime completedAt = LocalDateTime.of(2025, 10, 23, 17, 0, 0, 123_000_000);
+    try (MappedTaskStore store = new MappedTaskStore(file(), true)) {
+      Task done = newTask("Concluída");
+      done.setDescription("com acentuação");
+      done.setDone(true);
+      done.setCompletedAt(completedAt);
+      store.save(done);
+      store.save(newTask("Deletada"));
+      store.delete(2L, null);
+    }
+
+    try (MappedTaskStore reopened = new MappedTaskStore(file(), true)) {
+      Task task = reopened.find(1L).orElseThrow();
+      assertThat(task.getDescription()).isEqualTo("com acentuação");
+      assertThat(task.isDone()).isTrue();
+      assertThat(task.getCompletedAt()).isEqualTo(completedAt);
+      assertThat(reopened.exists(2L)).isFalse();
+      assertThat(reopened.count()).isEqualTo(1);
+      assertThat(reopened.save(newTask("Nova")).getId()).isEqualTo(3L);
+    }
+  }
+
+  @Test
+  @DisplayName("Deve listar em ordem de id a partir do cursor, pulando deletadas")
+  void scan_afterId() {
+    try (MappedTaskStore store = new MappedTaskStore(file(), false)) {
+      for (int i = 1; i <= 5; i++) {
+        store.save(newTask("Task " + i));
+      }
+      store.delete(3L, null);
+
+      List<Task> page = store.scan(1L, 2);
+
+      assertThat(page).extracting(Task::getId).containsExactly(2L, 4L);
+    }
+  }
+
+  @Test
+  @DisplayName("Deve recusar delete com versão diferente")
+  void delete_checksVersion() {
+    try (MappedTaskStore store = new MappedTaskStore(file(), false)) {
+      Task task = store.save(newTask("Versionada"));
+
+      assertThrows(OptimisticLockingFailureException.class, () -> store.delete(task.getId(), 5L));
+      assertThat(store.delete(task.getId(), 0L)).isTrue();
+      assertThat(store.delete(task.getId(), null)).isFalse();
+    }
+  }
+
+  @Test
+  @DisplayName("Deve compactar mantendo só as versões atuais")
+  void compact_dropsDeadRecords() {
+    try (MappedTaskStore store = new MappedTaskStore(file(), false)) {
+      for (int i = 1; i <= 100; i++) {
+        Task task = store.save(newTask("Task " + i));
+        task.setDone(true);
+        store.save(task);
+        if (i % 2 == 0) {
+          store.delete(task.getId(), null);
+        }
+      }
+      long before = store.sizeOnDisk();
+
+      store.compact();
+
+      assertThat(store.deadBytes()).isZero();
+      assertThat(store.sizeOnDisk()).isLessThan(before / 2);
+      assertThat(store.count()).isEqualTo(50);
+      assertThat(store.find(99L)).get().extracting(Task::isDone).isEqualTo(true);
+      assertThat(store.save(newTask("Depois")).getId()).isEqualTo(101L);
+    }
+
+    try (MappedTaskStore reopened = new MappedTaskStore(file(), false)) {
+      assertThat(reopened.count()).isEqualTo(51);
+      assertThat(reopened.exists(100L)).isFalse();
+    }
+  }
+
+  @Test
+  @DisplayName("Deve descartar um registro incompleto no fim do arquivo")
+  void open_ignoresTornRecord() throws Exception {
+    try (MappedTaskStore store = new MappedTaskStore(file(), true)) {
+      store.save(newTask("Inteira"));
+      store.save(newTask("Cortada"));
+    }
+    // estraga um byte do último registro, como uma escrita que não chegou inteira ao disco
+    long lastByte = findLastNonZero(file());
+    try (RandomAccessFile raf = new RandomAccessFile(file().toFile(), "rw")) {
+      raf.seek(lastByte);
+      int value = raf.read();
+      raf.seek(lastByte);
+      raf.write(value ^ 0xFF);
+    }
+
+    try (MappedTaskStore reopened = new MappedTaskStore(file(), true)) {
+      assertThat(reopened.exists(1L)).isTrue();
+      assertThat(reopened.exists(2L)).isFalse();
+      Task next = reopened.save(newTask("Depois da queda"));
+      assertThat(reopened.find(next.getId())).get().extracting(Task::getTitle).isEqualTo("Depois da queda");
+    }
+  }
+
+  private static long findLastNonZero(Path file) throws Exception {
+    byte[] bytes = Files.readAllBytes(file);
+    int position = bytes.length - 1;
+    while (bytes[position] == 0) {
+      position--;
+    }
+    return position;
+  }
+}
@@ -0,0 +1,116 @@
+package com.marcela.todo.wire;
+
+import com.marcela.todo.dto.TaskPage;
+import com.marcela.todo.model.Task;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskProtobufTest {
+
+  @Test
+  @DisplayName("Deve codificar e decodificar a task com datas em milissegundos")
+  void roundTrip() {
+    // Arrange
+    Task task = task(300L, "Concluída ✓", LocalDateTime.of(2025, 10, 20, 14, 30, 5, 123_456_789));
+    task.setDescription("Descrição");
+    task.setDone(true);
+    task.setCompletedAt(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 500_000_000));
+    task.setVersion(7);
+
+    // Act
+    Task decoded = TaskProtobuf.decode(TaskProtobuf.encode(task));
+
+    // Assert: precisão de milissegundos, inclusive antes de 1970
+    assertThat(decoded.getId()).isEqualTo(300L);
+    assertThat(decoded.getTitle()).isEqualTo("Concluída ✓");
+    assertThat(decoded.getDescription()).isEqualTo("Descrição");
+    assertThat(decoded.isDone()).isTrue();
+    assertThat(decoded.getCreatedAt()).isEqualTo(LocalDateTime.of(2025, 10, 20, 14, 30, 5, 123_000_000));
+    assertThat(decoded.getCompletedAt()).isEqualTo(task.getCompletedAt());
+    assertThat(decoded.getVersion()).isEqualTo(7);
+  }
+
+  @Test
+  @DisplayName("Campos null não são escritos e voltam como null")
+  void nullFields() {
+    // Arrange
+    Task task = new Task();
+    task.setTitle("Só título");
+
+    // Act
+    byte[] bytes = TaskProtobuf.encode(task);
+    Task decoded = TaskProtobuf.decode(bytes);
+
+    // Assert: só o campo 2 (tag + tamanho + 11 bytes do título em UTF-8)
+    assertThat(bytes).hasSize(13);
+    assertThat(decoded.getId()).isNull();
+    assertThat(decoded.getDescription()).isNull();
+    assertThat(decoded.getCreatedAt()).isNull();
+    assertThat(decoded.getCompletedAt()).isNull();
+  }
+
+  @Test
+  @DisplayName("Deve escrever e ler a lista com o cursor")
+  void list() throws Exception {
+    // Arrange: lista grande o bastante para ser despejada em partes
+    List<Task> tasks = new ArrayList<>();
+    for (long i = 1; i <= 500; i++) {
+      tasks.add(task(i, "Task " + i, LocalDateTime.now()));
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // Act
+    TaskProtobuf.writeList(tasks, "abc", out);
+    TaskPage page = TaskProtobuf.decodeList(out.toByteArray());
+
+    // Assert
+    assertThat(page.items()).hasSize(500);
+    assertThat(page.items()).extracting(Task::getId).startsWith(1L, 2L).endsWith(500L);
+    assertThat(page.nextCursor()).isEqualTo("abc");
+  }
+
+  @Test
+  @DisplayName("Campos desconhecidos são ignorados")
+  void unknownFields() {
+    // Arrange: campo 15 (varint) e campo 16 (texto) antes do título
+    byte[] known = TaskProtobuf.encode(task(5L, "Título", null));
+    byte[] unknown = {(byte) 0x78, 0x2A, (byte) 0x82, 0x01, 0x02, 'o', 'k'};
+    byte[] bytes = Arrays.copyOf(unknown, unknown.length + known.length);
+    System.arraycopy(known, 0, bytes, unknown.length, known.length);
+
+    // Act
+    Task decoded = TaskProtobuf.decode(bytes);
+
+    // Assert
+    assertThat(decoded.getId()).isEqualTo(5L);
+    assertThat(decoded.getTitle()).isEqualTo("Título");
+  }
+
+  @Test
+  @DisplayName("Mensagem truncada ou com tipo errado deve lançar IllegalArgumentException")
+  void malformed() {
+    byte[] bytes = TaskProtobuf.encode(task(5L, "Título", null));
+
+    assertThatThrownBy(() -> TaskProtobuf.decode(Arrays.copyOf(bytes, bytes.length - 1)))
+        .isInstanceOf(IllegalArgumentException.class);
+    // campo 2 (title) como varint
+    assertThatThrownBy(() -> TaskProtobuf.decode(new byte[] {0x10, 0x01}))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static Task task(Long id, String title, LocalDateTime createdAt) {
+    Task task = new Task();
+    task.setId(id);
+    task.setTitle(title);
+    task.setCreatedAt(createdAt);
+    return task;
+  }
+}
@@ -0,0 +1,209 @@
+package com.marcela.todo.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marcela.todo.model.Task;
+import com.marcela.todo.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// o flusher grava em outra thread e commita de verdade, então o teste não roda dentro de transação
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class TaskWriteBehindTest {
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private TaskRepository taskRepository;
+
+  @TempDir
+  Path directory;
+
+  private TaskWriteBehind writeBehind;
+
+  private TaskWriteBehind start(int queueCapacity) throws Exception {
+    writeBehind = new TaskWriteBehind(objectMapper, jdbcTemplate, entityManager, transactionManager,
+        directory, DataSize.ofMegabytes(1), queueCapacity, 100, Duration.ofMillis(50));
+    writeBehind.start();
+    return writeBehind;
+  }
+
+  @AfterEach
+  void cleanup() throws Exception {
+    if (writeBehind != null) {
+      writeBehind.stop();
+    }
+    taskRepository.deleteAll();
+  }
+
+  private static Task newTask(String title) {
+    Task task = new Task();
+    task.setTitle(title);
+    return task;
+  }
+
+  @Test
+  @DisplayName("create - responde com id e a task aparece no banco depois do flush")
+  void create_flushesToDatabase() throws Exception {
+    // Arrange
+    start(100);
+
+    // Act
+    Task created = writeBehind.create(newTask("Escrita adiada"));
+    Task done = writeBehind.markDone(created, LocalDateTime.of(2025, 10, 23, 17, 0));
+    writeBehind.awaitFlushed(created.getId());
+
+    // Assert
+    assertThat(created.getId()).isNotNull();
+    Task saved = taskRepository.findById(created.getId()).orElseThrow();
+    assertThat(saved.getTitle()).isEqualTo("Escrita adiada");
+    assertThat(saved.isDone()).isTrue();
+    assertThat(saved.getVersion()).isEqualTo(done.getVersion());
+    assertThat(writeBehind.pending(created.getId())).isEmpty();
+  }
+
+  @Test
+  @DisplayName("start - grava no banco o que ficou no log, sem duplicar o que já foi gravado")
+  void start_replaysLogIdempotently() throws Exception {
+    // Arrange: um log de uma execução anterior, com uma task já gravada e outra não
+    Task already = newTask("Já gravada");
+    already.setId(900_001L);
+    already.setCreatedAt(LocalDateTime.now());
+    Task missing = newTask("Só no log");
+    missing.setId(900_002L);
+    missing.setCreatedAt(LocalDateTime.now());
+    jdbcTemplate.update("insert into tasks (id, title, done, created_at, version) values (?, ?, false, ?, 0)",
+        already.getId(), already.getTitle(), already.getCreatedAt());
+    Files.writeString(directory.resolve("tasks-0000000001.log"),
+        objectMapper.writeValueAsString(new PendingWrite(PendingWrite.Type.CREATE, already)) + "\n"
+            + objectMapper.writeValueAsString(new PendingWrite(PendingWrite.Type.CREATE, missing)) + "\n");
+
+    // Act
+    start(100);
+
+    // Assert
+    assertThat(taskRepository.findAllById(List.of(already.getId(), missing.getId())))
+        .extracting(Task::getTitle)
+        .containsExactlyInAnyOrder("Já gravada", "Só no log");
+    assertThat(directory.resolve("tasks-0000000001.log")).doesNotExist();
+  }
+
+  @Test
+  @DisplayName("create - recusa na hora o título que não cabe na coluna, sem confirmar a escrita")
+  void create_rejectsWhatDoesNotFitTheSchema() throws Exception {
+    // Arrange
+    start(100);
+
+    // Act + Assert
+    assertThrows(IllegalArgumentException.class, () -> writeBehind.create(newTask("x".repeat(256))));
+    assertThat(writeBehind.hasPendingWrites()).isFalse();
+  }
+
+  @Test
+  @DisplayName("start - escrita recusada pelo banco vai para o dead-letter; as outras do log são gravadas")
+  void start_rejectedWriteGoesToDeadLetter() throws Exception {
+    // Arrange: uma escrita aceita antes de a coluna diminuir, que o banco não aceita mais
+    Task tooLong = newTask("x".repeat(300));
+    tooLong.setId(900_003L);
+    tooLong.setCreatedAt(LocalDateTime.now());
+    Task fine = newTask("Cabe");
+    fine.setId(900_004L);
+    fine.setCreatedAt(LocalDateTime.now());
+    Files.writeString(directory.resolve("tasks-0000000001.log"),
+        objectMapper.writeValueAsString(new PendingWrite(PendingWrite.Type.CREATE, tooLong)) + "\n"
+            + objectMapper.writeValueAsString(new PendingWrite(PendingWrite.Type.CREATE, fine)) + "\n");
+
+    // Act
+    start(100);
+
+    // Assert
+    assertThat(taskRepository.findById(fine.getId())).isPresent();
+    assertThat(taskRepository.findById(tooLong.getId())).isEmpty();
+    assertThat(directory.resolve("tasks-0000000001.log")).doesNotExist();
+    assertThat(Files.readString(directory.resolve(TaskWriteLog.DEAD_LETTER_FILE))).contains("900003");
+  }
+
+  @Test
+  @DisplayName("markDone - não sobrescreve uma alteração gravada depois; a escrita vai para o dead-letter")
+  void markDone_conflictGoesToDeadLetter() throws Exception {
+    // Arrange: a task é alterada por um PUT depois que o DONE foi montado
+    start(100);
+    Task created = writeBehind.create(newTask("Concorrida"));
+    writeBehind.awaitFlushed(created.getId());
+    jdbcTemplate.update("update tasks set title = 'Editada', version = version + 1 where id = ?", created.getId());
+
+    // Act
+    writeBehind.markDone(created, LocalDateTime.of(2025, 10, 23, 17, 0));
+    writeBehind.awaitFlushed(created.getId());
+
+    // Assert
+    Task saved = taskRepository.findById(created.getId()).orElseThrow();
+    assertThat(saved.getTitle()).isEqualTo("Editada");
+    assertThat(saved.isDone()).isFalse();
+    assertThat(saved.getVersion()).isEqualTo(1);
+    assertThat(Files.readString(directory.resolve(TaskWriteLog.DEAD_LETTER_FILE)))
+        .contains(String.valueOf(created.getId()));
+  }
+
+  @Test
+  @DisplayName("start - reaplica o dead-letter e apaga o arquivo quando tudo entra no banco")
+  void start_retriesDeadLetters() throws Exception {
+    // Arrange
+    Task task = newTask("Recusada antes");
+    task.setId(900_005L);
+    task.setCreatedAt(LocalDateTime.now());
+    Files.writeString(directory.resolve(TaskWriteLog.DEAD_LETTER_FILE),
+        objectMapper.writeValueAsString(new PendingWrite(PendingWrite.Type.CREATE, task)) + "\n");
+
+    // Act
+    start(100);
+
+    // Assert
+    assertThat(taskRepository.findById(task.getId())).isPresent();
+    assertThat(directory.resolve(TaskWriteLog.DEAD_LETTER_FILE)).doesNotExist();
+  }
+
+  @Test
+  @DisplayName("create - recusa escritas depois que a aplicação começa a encerrar")
+  void create_rejectedAfterStop() throws Exception {
+    // Arrange
+    start(100);
+    writeBehind.stop();
+
+    // Act + Assert
+    assertThrows(RejectedExecutionException.class, () -> writeBehind.create(newTask("Tarde demais")));
+    writeBehind = null;
+  }
+}
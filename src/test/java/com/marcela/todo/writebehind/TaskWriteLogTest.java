@@ -0,0 +1,126 @@
+package com.marcela.todo.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.marcela.todo.model.Task;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskWriteLogTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+  @TempDir
+  Path directory;
+
+  private static PendingWrite create(long id, String title) {
+    Task task = new Task();
+    task.setId(id);
+    task.setTitle(title);
+    task.setCreatedAt(LocalDateTime.of(2025, 10, 23, 14, 35));
+    return new PendingWrite(PendingWrite.Type.CREATE, task);
+  }
+
+  private long segmentCount() throws Exception {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.count();
+    }
+  }
+
+  @Test
+  @DisplayName("Deve devolver na reabertura as escritas que não foram gravadas no banco")
+  void open_replaysUnflushedWrites() throws Exception {
+    // Arrange
+    try (TaskWriteLog writeLog = new TaskWriteLog(directory, 1024 * 1024, objectMapper)) {
+      writeLog.open();
+      writeLog.append(create(1, "Primeira"));
+      writeLog.append(create(2, "Segunda"));
+    }
+
+    // Act
+    List<PendingWrite> replay;
+    try (TaskWriteLog reopened = new TaskWriteLog(directory, 1024 * 1024, objectMapper)) {
+      replay = reopened.open();
+    }
+
+    // Assert
+    assertThat(replay).extracting(write -> write.task().getTitle()).containsExactly("Primeira", "Segunda");
+    assertThat(replay.get(0).task().getCreatedAt()).isEqualTo(LocalDateTime.of(2025, 10, 23, 14, 35));
+  }
+
+  @Test
+  @DisplayName("Deve ignorar a última linha incompleta de uma queda no meio do append")
+  void open_ignoresTornTail() throws Exception {
+    // Arrange
+    Path segment;
+    try (TaskWriteLog writeLog = new TaskWriteLog(directory, 1024 * 1024, objectMapper)) {
+      writeLog.open();
+      writeLog.append(create(1, "Completa"));
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      segment = files.findFirst().orElseThrow();
+    }
+    Files.writeString(segment, "{\"type\":\"CREATE\",\"task\":{\"id\":2,\"tit", StandardCharsets.UTF_8,
+        StandardOpenOption.APPEND);
+
+    // Act
+    List<PendingWrite> replay;
+    try (TaskWriteLog reopened = new TaskWriteLog(directory, 1024 * 1024, objectMapper)) {
+      replay = reopened.open();
+    }
+
+    // Assert
+    assertThat(replay).extracting(write -> write.task().getId()).containsExactly(1L);
+  }
+
+  @Test
+  @DisplayName("Deve apagar um segmento fechado quando todas as escritas dele foram gravadas")
+  void flushed_deletesRetiredSegment() throws Exception {
+    try (TaskWriteLog writeLog = new TaskWriteLog(directory, 64, objectMapper)) {
+      writeLog.open();
+
+      // Arrange: segmento pequeno, cada append abre um segmento novo
+      long first = writeLog.append(create(1, "Uma task com título longo o bastante"));
+      long second = writeLog.append(create(2, "Outra task com título longo o bastante"));
+      assertThat(second).isGreaterThan(first);
+      assertThat(segmentCount()).isEqualTo(2);
+
+      // Act
+      writeLog.flushed(first, 1);
+
+      // Assert
+      assertThat(segmentCount()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  @DisplayName("Deve apagar os segmentos lidos na reabertura só quando pedido")
+  void deleteReplayed_removesOldSegments() throws Exception {
+    // Arrange
+    try (TaskWriteLog writeLog = new TaskWriteLog(directory, 1024 * 1024, objectMapper)) {
+      writeLog.open();
+      writeLog.append(create(1, "Pendente"));
+    }
+
+    try (TaskWriteLog reopened = new TaskWriteLog(directory, 1024 * 1024, objectMapper)) {
+      reopened.open();
+      assertThat(segmentCount()).isEqualTo(2);
+
+      // Act
+      reopened.deleteReplayed();
+
+      // Assert: sobra só o segmento novo, vazio
+      assertThat(segmentCount()).isEqualTo(1);
+    }
+  }
+}